@@ -0,0 +1,49 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account.deposit / withdraw 도메인 로직 비용.
+ * 거래내역이 계좌에 계속 쌓이므로 호출마다 새 계좌에 TRADES_PER_INVOCATION 건씩 거래한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountBenchmark {
+
+    private static final int TRADES_PER_INVOCATION = 1000;
+
+    private Product product;
+
+    @Setup
+    public void setup() {
+        product = DomainFixtures.regularProduct();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRADES_PER_INVOCATION)
+    public void deposit(Blackhole blackhole) {
+        Account account = DomainFixtures.openAccount(product);
+        for (int i = 0; i < TRADES_PER_INVOCATION; i++) {
+            blackhole.consume(account.deposit(1000));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRADES_PER_INVOCATION)
+    public void withdraw(Blackhole blackhole) {
+        Account account = DomainFixtures.openAccount(product);
+        account.deposit(TRADES_PER_INVOCATION * 1000L);
+        for (int i = 0; i < TRADES_PER_INVOCATION; i++) {
+            blackhole.consume(account.withdraw(1000));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.exception.BizRuntimeException;
+import com.ken207.openbank.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 동시성 모드별 입금 처리량.
+ * hot : 모든 스레드가 같은 계좌에 입금, cold : 스레드마다 다른 계좌에 입금.
+ * 재시도 초과로 실패한 입금은 failure 카운터로 따로 집계한다. (TradeOutcome)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class AccountConcurrencyBenchmark {
+
+    private static final int COLD_ACCOUNT_COUNT = 256;
+
+    @Param({"OPTIMISTIC", "STRIPED_LOCK"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private String hotAccountNum;
+    private String[] coldAccountNums;
+    private TradeDto.RequestDeposit request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("--app-concurrency.mode=" + mode, "--app-concurrency.max-retry=16");
+        accountService = context.getBean(AccountService.class);
+
+        hotAccountNum = BenchmarkContext.openAccount(context);
+        coldAccountNums = new String[COLD_ACCOUNT_COUNT];
+        for (int i = 0; i < COLD_ACCOUNT_COUNT; i++) {
+            coldAccountNums[i] = BenchmarkContext.openAccount(context);
+        }
+
+        request = TradeDto.RequestDeposit.builder()
+                .tradeDate(OBDateUtils.getToday())
+                .amount(1000)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void depositHotAccount(TradeOutcome outcome, Blackhole blackhole) {
+        deposit(hotAccountNum, outcome, blackhole);
+    }
+
+    @Benchmark
+    public void depositColdAccount(TradeOutcome outcome, Blackhole blackhole) {
+        deposit(coldAccountNums[ThreadLocalRandom.current().nextInt(COLD_ACCOUNT_COUNT)], outcome, blackhole);
+    }
+
+    private void deposit(String accountNum, TradeOutcome outcome, Blackhole blackhole) {
+        try {
+            blackhole.consume(accountService.deposit(accountNum, request));
+            outcome.success++;
+        } catch (BizRuntimeException e) {
+            // 재시도 초과. 처리량에는 실패 건도 포함되므로 성공 건수는 success 카운터로 확인.
+            outcome.failure++;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.exception.BizRuntimeException;
+import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.engine.AccountEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인메모리 계좌 엔진 입금 처리량(trades/s)과 지연시간 분포(SampleTime 의 p0.99).
+ * shards 가 jpa 이면 엔진 없이 원장(OPTIMISTIC)에서 처리, 숫자이면 엔진 샤드 수. 샤드당 처리량은 처리량 / 샤드 수.
+ * hot : 모든 스레드가 같은 계좌(한 샤드)에 입금, cold : 스레드마다 다른 계좌에 입금.
+ * 재시도 초과(jpa) 등으로 실패한 입금은 failure 카운터로 따로 집계한다. (TradeOutcome)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class AccountEngineBenchmark {
+
+    private static final int COLD_ACCOUNT_COUNT = 256;
+
+    @Param({"jpa", "1", "4"})
+    private String shards;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private String hotAccountNum;
+    private String[] coldAccountNums;
+    private TradeDto.RequestDeposit request;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        if ( "jpa".equals(shards) ) {
+            context = BenchmarkContext.start("--app-concurrency.max-retry=16");
+        }
+        else {
+            context = BenchmarkContext.start("--app-engine.enabled=true",
+                    "--app-engine.shards=" + shards,
+                    "--app-engine.journal-dir=" + Files.createTempDirectory("engine-journal"));
+        }
+        accountService = context.getBean(AccountService.class);
+
+        hotAccountNum = BenchmarkContext.openAccount(context);
+        coldAccountNums = new String[COLD_ACCOUNT_COUNT];
+        for (int i = 0; i < COLD_ACCOUNT_COUNT; i++) {
+            coldAccountNums[i] = BenchmarkContext.openAccount(context);
+        }
+
+        request = TradeDto.RequestDeposit.builder()
+                .tradeDate(OBDateUtils.getToday())
+                .amount(1000)
+                .build();
+    }
+
+    /**
+     * 체크포인트 시간은 처리량에 포함하지 않음
+     */
+    @TearDown(Level.Iteration)
+    public void checkpoint() {
+        context.getBean(AccountEngine.class).checkpoint();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void depositHotAccount(TradeOutcome outcome, Blackhole blackhole) {
+        deposit(hotAccountNum, outcome, blackhole);
+    }
+
+    @Benchmark
+    public void depositColdAccount(TradeOutcome outcome, Blackhole blackhole) {
+        deposit(coldAccountNums[ThreadLocalRandom.current().nextInt(COLD_ACCOUNT_COUNT)], outcome, blackhole);
+    }
+
+    private void deposit(String accountNum, TradeOutcome outcome, Blackhole blackhole) {
+        try {
+            blackhole.consume(accountService.deposit(accountNum, request));
+            outcome.success++;
+        } catch (BizRuntimeException e) {
+            // 재시도 초과(jpa). 처리량에는 실패 건도 포함되므로 성공 건수는 success 카운터로 확인.
+            outcome.failure++;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.AccountState;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.service.AccountEventStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 이벤트 재생 비용.
+ * - replay : 전체 이벤트 재생 (조회 모델 재구성), 초당 이벤트 건수
+ * - load : 한 계좌 상태 복원. snapshotInterval 0 은 스냅샷 없이 신규부터 재생
+ * 이벤트와 스냅샷은 JDBC batch 로 직접 적재한다.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountEventReplayBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int EVENTS_PER_ACCOUNT = 1_000;
+    private static final long ID_OFFSET = 100_000_000L;
+
+    @Param({"0", "100"})
+    private int snapshotInterval;
+
+    private ConfigurableApplicationContext context;
+    private AccountEventStore accountEventStore;
+    private long accountSeq;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("--app-account.event-sourcing.enabled=true");
+        accountEventStore = context.getBean(AccountEventStore.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        insertEvents(jdbcTemplate);
+        if ( snapshotInterval > 0 ) {
+            insertSnapshots(jdbcTemplate);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(ACCOUNTS * EVENTS_PER_ACCOUNT)
+    public long replay(Blackhole blackhole) {
+        return accountEventStore.replay(blackhole::consume);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AccountState load() {
+        long accountId = ID_OFFSET + (accountSeq++ % ACCOUNTS);
+        return accountEventStore.load(accountId);
+    }
+
+    /**
+     * 계좌마다 신규(srno 1) 후 입금 1,000 원 이벤트
+     */
+    private void insertEvents(JdbcTemplate jdbcTemplate) {
+        String sql = "insert into account_event (account_event_id, account_id, srno, trade_cd, trade_date, bz_date, amount, last_ints_dt, created_date)" +
+                " values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String today = OBDateUtils.getToday();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> rows = new ArrayList<>();
+        long eventId = ID_OFFSET;
+        for (long account = 0; account < ACCOUNTS; account++) {
+            for (long srno = 1; srno <= EVENTS_PER_ACCOUNT; srno++) {
+                boolean open = srno == 1;
+                rows.add(new Object[]{eventId++, ID_OFFSET + account, srno, (open ? TradeCd.OPEN : TradeCd.DEPOSIT).ordinal(),
+                        today, today, open ? 0L : 1000L, open ? OBDateUtils.addDays(today, -1) : null, now});
+                if ( rows.size() == 1000 ) {
+                    jdbcTemplate.batchUpdate(sql, rows);
+                    rows.clear();
+                }
+            }
+        }
+        if ( !rows.isEmpty() ) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    /**
+     * 마지막 snapshotInterval 배수 순번의 스냅샷
+     */
+    private void insertSnapshots(JdbcTemplate jdbcTemplate) {
+        String sql = "insert into account_event_snapshot (account_id, srno, balance, last_trade_date, last_ints_dt, account_status_code, updated_date)" +
+                " values (?, ?, ?, ?, ?, ?, ?)";
+        String today = OBDateUtils.getToday();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long srno = (EVENTS_PER_ACCOUNT - 1) / snapshotInterval * snapshotInterval;
+
+        List<Object[]> rows = new ArrayList<>();
+        for (long account = 0; account < ACCOUNTS; account++) {
+            rows.add(new Object[]{ID_OFFSET + account, srno, (srno - 1) * 1000, today, OBDateUtils.addDays(today, -1), "ACTIVE", now});
+        }
+        jdbcTemplate.batchUpdate(sql, rows);
+    }
+}
@@ -0,0 +1,78 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.ProductRepository;
+import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.CodeGeneratorService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌신규 처리량 비교.
+ * legacyProductLookup : 요청마다 상품코드로 상품을 두 번 조회 (컨트롤러 + 서비스, 기존 방식)
+ * productCatalog : ProductCatalog 에서 조회하고 상품, 이율은 id 참조만 설정
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class AccountOpenBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private ProductRepository productRepository;
+    private AccountRepository accountRepository;
+    private CodeGeneratorService codeGeneratorService;
+    private TransactionTemplate transactionTemplate;
+    private AccountDto.RequestOpen requestOpen;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        accountService = context.getBean(AccountService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        accountRepository = context.getBean(AccountRepository.class);
+        codeGeneratorService = context.getBean(CodeGeneratorService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        requestOpen = AccountDto.RequestOpen.builder()
+                .productCode(BenchmarkContext.REGULAR_PRODUCT_CODE)
+                .regDate(OBDateUtils.getToday())
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long legacyProductLookup() {
+        productRepository.findByProductCode(requestOpen.getProductCode());
+        return transactionTemplate.execute(status -> {
+            Product product = productRepository.findByProductCode(requestOpen.getProductCode());
+            String accountNum = codeGeneratorService.createAccountNumber(SubjectCode.REGULAR.getSubjectCode());
+            Account account = Account.openAccount(product, accountNum, requestOpen.getRegDate(), requestOpen.getTaxationCode());
+            return accountRepository.save(account).getId();
+        });
+    }
+
+    @Benchmark
+    public Long productCatalog() {
+        return accountService.openRegularAccount(requestOpen);
+    }
+}
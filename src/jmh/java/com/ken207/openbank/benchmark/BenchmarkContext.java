@@ -0,0 +1,54 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.OpenbankApplication;
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.service.AccountService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 벤치마크용 애플리케이션 기동.
+ * 인메모리 H2 를 사용하고 SQL 로그는 끈다.
+ */
+public final class BenchmarkContext {
+
+    public static final String REGULAR_PRODUCT_CODE = "130001";
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... args) {
+        List<String> allArgs = new ArrayList<>(Arrays.asList(
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.batch.job.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type=WARN",
+                "--logging.level.org.springframework=WARN"
+        ));
+        allArgs.addAll(Arrays.asList(args));
+
+        return new SpringApplicationBuilder(OpenbankApplication.class)
+                .run(allArgs.toArray(new String[0]));
+    }
+
+    public static String openAccount(ConfigurableApplicationContext context) {
+        AccountService accountService = context.getBean(AccountService.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+
+        AccountDto.RequestOpen requestOpen = AccountDto.RequestOpen.builder()
+                .productCode(REGULAR_PRODUCT_CODE)
+                .regDate(OBDateUtils.getToday())
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(requestOpen);
+        return accountRepository.findById(accountId).get().getAccountNum();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.domain.CodeGenerator;
+import com.ken207.openbank.repository.CodeGeneratorRepository;
+import com.ken207.openbank.service.CodeGeneratorService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채번 처리량 비교.
+ * legacyRowPerNumber : 번호 하나당 CodeGenerator 한 행 insert (기존 방식)
+ * blockAllocated : CodeSequence 블록 예약 후 메모리에서 발급
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class CodeGeneratorBenchmark {
+
+    @Param({"100", "1000"})
+    private int blockSize;
+
+    private ConfigurableApplicationContext context;
+    private CodeGeneratorService codeGeneratorService;
+    private CodeGeneratorRepository codeGeneratorRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("--app-sequence.block-size=" + blockSize);
+        codeGeneratorService = context.getBean(CodeGeneratorService.class);
+        codeGeneratorRepository = context.getBean(CodeGeneratorRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String legacyRowPerNumber() {
+        return transactionTemplate.execute(status ->
+                codeGeneratorRepository.save(CodeGenerator.builder().build()).createTradeUniqueNumber());
+    }
+
+    @Benchmark
+    public String blockAllocated() {
+        return codeGeneratorService.createTradeUniqueNumber();
+    }
+}
@@ -0,0 +1,76 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Interest;
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.domain.enums.PeriodType;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.dto.ProductDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DB 없이 도메인 객체만으로 벤치마크 데이터를 만든다.
+ */
+public final class DomainFixtures {
+
+    public static final String FIRST_TRADE_DATE = "19000101";
+
+    private DomainFixtures() {
+    }
+
+    public static Product regularProduct() {
+        return Product.createProduct(ProductDto.Create.builder()
+                .name("보통예금")
+                .productCode("130001")
+                .subjectCode(SubjectCode.REGULAR)
+                .basicRate(1.2)
+                .startDate("19000101")
+                .endDate(OBDateUtils.MAX_DATE)
+                .build());
+    }
+
+    public static Account openAccount(Product product) {
+        return Account.openAccount(product, "13100001", OBDateUtils.getToday(), TaxationCode.REGULAR);
+    }
+
+    /**
+     * 하루에 한 건씩 tradeCount 만큼의 입금 거래내역. (srno 오름차순)
+     */
+    public static List<Trade> dailyTrades(int tradeCount) {
+        List<Trade> trades = new ArrayList<>(tradeCount);
+        int firstDay = OBDateUtils.toEpochDay(FIRST_TRADE_DATE);
+        long balance = 0;
+        for (int i = 0; i < tradeCount; i++) {
+            long amount = 10000 + i % 97;
+            trades.add(Trade.builder()
+                    .srno(i + 1)
+                    .tradeCd(TradeCd.DEPOSIT)
+                    .tradeDate(OBDateUtils.fromEpochDay(firstDay + i))
+                    .amount(amount)
+                    .blncBefore(balance)
+                    .blncAfter(balance + amount)
+                    .build());
+            balance += amount;
+        }
+        return trades;
+    }
+
+    public static String lastTradeDate(int tradeCount) {
+        return OBDateUtils.addDays(FIRST_TRADE_DATE, tradeCount - 1);
+    }
+
+    public static Interest interestOf(List<Trade> trades, String toDate) {
+        Interest interest = Interest.builder()
+                .basicRate(1.2)
+                .build();
+        interest.setPeriod(FIRST_TRADE_DATE, toDate, PeriodType.DAILY);
+        interest.setTradeListForInterest(new ArrayList<>(trades));
+        return interest;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.domain.Interest;
+import com.ken207.openbank.domain.InterestDetail;
+import com.ken207.openbank.domain.Trade;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이자계산 비용. tradeCount 는 이자계산 기간의 거래일수(= 이자계산상세 건수).
+ * legacy* : 고정소수점 계산 도입 전 구현 (상세별 BigDecimal, double 합계 후 Math.ceil)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterestBenchmark {
+
+    @State(Scope.Thread)
+    public static class CalculatedDetails {
+
+        @Param({"10", "1000", "100000"})
+        private int tradeCount;
+
+        private Interest interest;
+
+        @Setup
+        public void setup() {
+            List<Trade> trades = DomainFixtures.dailyTrades(tradeCount);
+            interest = DomainFixtures.interestOf(trades, DomainFixtures.lastTradeDate(tradeCount));
+            interest.remainLastTradeOfDays();
+            interest.makeInterestDetail();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TradeList {
+
+        @Param({"10", "1000", "100000"})
+        private int tradeCount;
+
+        private List<Trade> trades;
+        private String toDate;
+        private Interest interest;
+
+        @Setup(Level.Trial)
+        public void setupTrades() {
+            trades = DomainFixtures.dailyTrades(tradeCount);
+            toDate = DomainFixtures.lastTradeDate(tradeCount);
+        }
+
+        @Setup(Level.Invocation)
+        public void setupInterest() {
+            interest = DomainFixtures.interestOf(trades, toDate);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SingleDetail {
+        private InterestDetail interestDetail;
+
+        @Setup
+        public void setup() {
+            interestDetail = InterestDetail.builder()
+                    .fromDate("20190101")
+                    .toDate("20191231")
+                    .balance(1530000)
+                    .interestRate(1.2)
+                    .build();
+        }
+    }
+
+    /**
+     * 이자계산상세가 만들어진 상태에서 계산만
+     */
+    @Benchmark
+    public long calculate(CalculatedDetails state) {
+        state.interest.calculate();
+        return state.interest.getInterestAmount();
+    }
+
+    @Benchmark
+    public long legacyCalculate(CalculatedDetails state) {
+        double interestSum = 0;
+        for (InterestDetail interestDetail : state.interest.getInterestDetails()) {
+            interestSum += legacyCalculateByDays(interestDetail);
+        }
+        return Double.valueOf(Math.ceil(interestSum)).longValue();
+    }
+
+    /**
+     * 거래내역 정렬, 일별 마지막 거래 필터, 이자계산상세 생성, 계산
+     */
+    @Benchmark
+    public long calculateFromTrades(TradeList state) {
+        Interest interest = state.interest;
+        interest.sortedTradeList();
+        interest.remainLastTradeOfDays();
+        interest.makeInterestDetail();
+        interest.calculate();
+        return interest.getInterestAmount();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double calculateByDays(SingleDetail state) {
+        return state.interestDetail.calculateByDays();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double legacyCalculateByDays(SingleDetail state) {
+        return legacyCalculateByDays(state.interestDetail);
+    }
+
+    private static double legacyCalculateByDays(InterestDetail interestDetail) {
+        interestDetail.setDays();
+
+        BigDecimal balanceBig = new BigDecimal(interestDetail.getBalance());
+        BigDecimal interestRateBig = new BigDecimal(interestDetail.getInterestRate());
+        BigDecimal daysBig = new BigDecimal(interestDetail.getDays());
+        BigDecimal number100ForRate = new BigDecimal(100);
+        BigDecimal daysOfYear = new BigDecimal(365);
+        BigDecimal interestBig = balanceBig.multiply(interestRateBig).divide(number100ForRate, MathContext.DECIMAL64).multiply(daysBig).divide(daysOfYear, MathContext.DECIMAL64);
+        return interestBig.setScale(3, RoundingMode.DOWN).doubleValue();
+    }
+}
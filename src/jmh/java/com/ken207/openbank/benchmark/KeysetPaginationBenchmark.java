@@ -0,0 +1,96 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.common.KeysetCursor;
+import com.ken207.openbank.common.KeysetPage;
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.TradeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래내역 페이지 조회 비용. OFFSET + COUNT 방식과 srno keyset 방식을 1 페이지, 10,000 페이지에서 비교.
+ * 거래내역은 JDBC batch 로 직접 적재한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeysetPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_PAGE = 10_000;
+    private static final long TRADE_ID_OFFSET = 100_000_000L;
+
+    @Param({"1", "10000"})
+    private int page;
+
+    private ConfigurableApplicationContext context;
+    private TradeRepository tradeRepository;
+    private Account account;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        tradeRepository = context.getBean(TradeRepository.class);
+
+        String accountNum = BenchmarkContext.openAccount(context);
+        account = context.getBean(AccountRepository.class).findByAccountNum(accountNum);
+
+        insertTrades(context.getBean(JdbcTemplate.class), account.getId(), PAGE_SIZE * MAX_PAGE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<TradeDto.Response> offset() {
+        return tradeRepository.findResponsesByAccountId(account.getId(), PageRequest.of(page - 1, PAGE_SIZE, Sort.by("srno")));
+    }
+
+    @Benchmark
+    public KeysetPage<TradeDto.Response> keyset() {
+        KeysetCursor cursor = page == 1 ? null : KeysetCursor.next((long) (page - 1) * PAGE_SIZE);
+        return tradeRepository.findResponsesByAccountId(account.getId(), cursor, PAGE_SIZE);
+    }
+
+    /**
+     * 계좌신규 거래(srno 1) 다음부터 srno 2 ~ tradeCount 까지 입금 거래 적재
+     */
+    private void insertTrades(JdbcTemplate jdbcTemplate, Long accountId, int tradeCount) {
+        String sql = "insert into trade (trade_id, srno, trade_date, bz_date, amount, blnc_before, blnc_after, trade_cd, account_id, created_date, updated_date)" +
+                " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String today = OBDateUtils.getToday();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> rows = new ArrayList<>();
+        for (long srno = 2; srno <= tradeCount; srno++) {
+            rows.add(new Object[]{TRADE_ID_OFFSET + srno, srno, today, today, 1000L, (srno - 2) * 1000, (srno - 1) * 1000,
+                    TradeCd.DEPOSIT.ordinal(), accountId, now, now});
+            if ( rows.size() == 1000 ) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+        if ( !rows.isEmpty() ) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.mapper.AccountMapper;
+import com.ken207.openbank.mapper.TradeMapper;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.TradeRepository;
+import com.ken207.openbank.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 목록 조회 한 페이지의 비용. 엔티티 조회 후 mapper 변환(entity*) 과 JPQL 생성자 DTO 조회(projection*) 비교.
+ * gc 프로파일러의 gc.alloc.rate.norm (bytes/op) 이 요청 한 건당 힙 할당량이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListProjectionBenchmark {
+
+    private static final int ROW_COUNT = 100;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private AccountRepository accountRepository;
+    private TradeRepository tradeRepository;
+    private Account account;
+
+    private final TradeMapper tradeMapper = TradeMapper.INSTANCE;
+    private final AccountMapper accountMapper = AccountMapper.INSTANCE;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        readOnlyTransactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransactionTemplate.setReadOnly(true);
+        accountRepository = context.getBean(AccountRepository.class);
+        tradeRepository = context.getBean(TradeRepository.class);
+
+        String accountNum = BenchmarkContext.openAccount(context);
+        account = accountRepository.findByAccountNum(accountNum);
+
+        AccountService accountService = context.getBean(AccountService.class);
+        for (int i = 1; i < ROW_COUNT; i++) {
+            accountService.deposit(accountNum, TradeDto.RequestDeposit.builder()
+                    .tradeDate(OBDateUtils.getToday())
+                    .amount(1000)
+                    .build());
+            BenchmarkContext.openAccount(context);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TradeDto.Response> entityTradePage() {
+        return readOnlyTransactionTemplate.execute(status ->
+                tradeRepository.findByAccount(account, PageRequest.of(0, pageSize, Sort.by("srno")))
+                        .map(tradeMapper::entityToResponse)
+                        .getContent());
+    }
+
+    @Benchmark
+    public List<TradeDto.Response> projectionTradePage() {
+        return tradeRepository.findResponsesByAccountId(account.getId(), PageRequest.of(0, pageSize, Sort.by("srno")))
+                .getContent();
+    }
+
+    @Benchmark
+    public List<AccountDto.Response> entityAccountPage() {
+        return readOnlyTransactionTemplate.execute(status ->
+                accountRepository.findAll(PageRequest.of(0, pageSize, Sort.by("id"))).getContent().stream()
+                        .map(accountMapper::accountForResponse)
+                        .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<AccountDto.Response> projectionAccountPage() {
+        Page<AccountDto.Response> page = accountRepository.findResponses(PageRequest.of(0, pageSize, Sort.by("id")));
+        return page.getContent();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Interest;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.InterestDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.mapper.AccountMapper;
+import com.ken207.openbank.mapper.InterestMapper;
+import com.ken207.openbank.mapper.TradeMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답 DTO 변환(MapStruct) 비용.
+ * interestDetailCount 는 이자계산상세 건수 (조회 응답의 details 크기).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "365"})
+    private int interestDetailCount;
+
+    private Account account;
+    private Trade trade;
+    private Interest interest;
+
+    @Setup
+    public void setup() {
+        account = DomainFixtures.openAccount(DomainFixtures.regularProduct());
+        trade = account.deposit(10000);
+
+        List<Trade> trades = DomainFixtures.dailyTrades(interestDetailCount);
+        interest = DomainFixtures.interestOf(trades, DomainFixtures.lastTradeDate(interestDetailCount));
+        interest.makeInterestDetail();
+        interest.calculate();
+    }
+
+    @Benchmark
+    public AccountDto.Response accountForResponse() {
+        return AccountMapper.INSTANCE.accountForResponse(account);
+    }
+
+    @Benchmark
+    public TradeDto.Response tradeEntityToResponse() {
+        return TradeMapper.INSTANCE.entityToResponse(trade);
+    }
+
+    @Benchmark
+    public InterestDto.Response interestEntityToDto() {
+        return InterestMapper.INSTANCE.entityToDto(interest);
+    }
+}
@@ -0,0 +1,68 @@
+package com.ken207.openbank.benchmark;
+
+import com.ken207.openbank.common.OBDateUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 일자 계산 비용 비교. gc 프로파일러(gc.alloc.rate.norm)로 호출당 할당량을 함께 본다.
+ * legacy* : epoch day 계산 도입 전 구현 (substring + LocalDate / Calendar)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OBDateUtilsBenchmark {
+
+    private String from = "20170101";
+    private String to = "20191231";
+
+    @Benchmark
+    public int legacyGetNumberOfDays() {
+        int yearOfFrom = Integer.parseInt(from.substring(0,4));
+        int monthOfFrom = Integer.parseInt(from.substring(4,6)) - 1;
+        int dayOfFrom = Integer.parseInt(from.substring(6,8));
+
+        int yearOfTo = Integer.parseInt(to.substring(0,4));
+        int monthOfTo = Integer.parseInt(to.substring(4,6)) - 1;
+        int dayOfTo = Integer.parseInt(to.substring(6,8));
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(yearOfFrom, monthOfFrom, dayOfFrom);
+        long timeInMillisFrom = calendar.getTimeInMillis();
+
+        calendar.set(yearOfTo, monthOfTo, dayOfTo);
+        long timeInMillisTo = calendar.getTimeInMillis();
+        Double result = Math.ceil((timeInMillisTo - timeInMillisFrom) / (24 * 60 * 60 * 1000));
+        return result.intValue();
+    }
+
+    @Benchmark
+    public int getNumberOfDays() {
+        return OBDateUtils.getNumberOfDays(from, to);
+    }
+
+    @Benchmark
+    public String legacyAddDays() {
+        LocalDate localDate = LocalDate.of(
+                Integer.parseInt(to.substring(0,4)),
+                Integer.parseInt(to.substring(4,6)),
+                Integer.parseInt(to.substring(6,8)));
+        return OBDateUtils.parseString(localDate.plusDays(-1));
+    }
+
+    @Benchmark
+    public String addDays() {
+        return OBDateUtils.addDays(to, -1);
+    }
+
+    @Benchmark
+    public int toEpochDay() {
+        return OBDateUtils.toEpochDay(to);
+    }
+}
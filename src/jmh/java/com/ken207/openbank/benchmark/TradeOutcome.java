@@ -0,0 +1,26 @@
+package com.ken207.openbank.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 거래 성공/실패 건수 보조 카운터.
+ * 실패(재시도 초과 등)도 벤치마크 호출 1건으로 집계되므로, 처리량 결과와 함께 success / failure 를 따로 보고한다.
+ * (Throughput 모드에서 단위시간당 건수로 표시)
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class TradeOutcome {
+
+    public long success;
+    public long failure;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        success = 0;
+        failure = 0;
+    }
+}
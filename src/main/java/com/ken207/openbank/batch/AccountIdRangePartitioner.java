@@ -0,0 +1,50 @@
+package com.ken207.openbank.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 계좌ID 범위로 파티션 분할.
+ * 각 파티션의 ExecutionContext 에 minId, maxId 를 담는다.
+ */
+public class AccountIdRangePartitioner implements Partitioner {
+
+    public static final String MIN_ID = "minId";
+    public static final String MAX_ID = "maxId";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountIdRangePartitioner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, Long> range = jdbcTemplate.queryForObject(
+                "select min(account_id) as min_id, max(account_id) as max_id from account",
+                (rs, rowNum) -> {
+                    Map<String, Long> result = new HashMap<>();
+                    result.put(MIN_ID, rs.getLong("min_id"));
+                    result.put(MAX_ID, rs.getLong("max_id"));
+                    return result;
+                });
+
+        long min = range.get(MIN_ID);
+        long max = range.get(MAX_ID);
+        long size = Math.max(1, (max - min) / gridSize + 1);
+
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        int number = 0;
+        for (long start = min; start <= max; start += size) {
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(MIN_ID, start);
+            context.putLong(MAX_ID, Math.min(start + size - 1, max));
+            partitions.put("partition" + number++, context);
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ken207.openbank.batch;
+
+import com.ken207.openbank.repository.query.EndOfDayJdbcRepository;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 관리점, 상품으로 파티션 분할. (gridSize 와 무관하게 계좌가 있는 관리점, 상품 조합마다 하나)
+ * 각 파티션의 ExecutionContext 에 branchId, productId 를 담는다.
+ */
+public class BranchProductPartitioner implements Partitioner {
+
+    public static final String BRANCH_ID = "branchId";
+    public static final String PRODUCT_ID = "productId";
+
+    private final EndOfDayJdbcRepository endOfDayJdbcRepository;
+
+    public BranchProductPartitioner(EndOfDayJdbcRepository endOfDayJdbcRepository) {
+        this.endOfDayJdbcRepository = endOfDayJdbcRepository;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        for (long[] partition : endOfDayJdbcRepository.findPartitions()) {
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(BRANCH_ID, partition[0]);
+            context.putLong(PRODUCT_ID, partition[1]);
+            partitions.put("branch" + partition[0] + "-product" + partition[1], context);
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,105 @@
+package com.ken207.openbank.batch;
+
+import com.ken207.openbank.domain.DailyClosing;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.repository.DailyClosingRepository;
+import com.ken207.openbank.repository.query.EndOfDayJdbcRepository;
+import com.ken207.openbank.service.CodeGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.util.List;
+
+/**
+ * 일마감 파티션(관리점, 상품) 처리. 하나의 트랜잭션에서 다음을 처리한다.
+ * 1. 마감일자 거래 합계 (거래코드별)
+ * 2. 계좌별 마감 잔액 스냅샷 저장
+ * 3. 잔액 대사 : 이전 마감 잔액 + 기간 거래 합계 = 마감 잔액. 불일치 계좌는 로그로 남긴다.
+ * 결과는 DailyClosing 한 행으로 저장하고, 불일치 건수는 StepExecution 의 ExecutionContext 에도 담는다.
+ */
+@Slf4j
+public class EndOfDayPartitionTasklet implements Tasklet {
+
+    public static final String MISMATCH_COUNT = "mismatchCount";
+
+    private final EndOfDayJdbcRepository endOfDayJdbcRepository;
+    private final DailyClosingRepository dailyClosingRepository;
+    private final CodeGeneratorService codeGeneratorService;
+    private final long branchId;
+    private final long productId;
+    private final String bzDate;
+    private final String fromDate;
+
+    public EndOfDayPartitionTasklet(EndOfDayJdbcRepository endOfDayJdbcRepository,
+                                    DailyClosingRepository dailyClosingRepository,
+                                    CodeGeneratorService codeGeneratorService,
+                                    long branchId, long productId, String bzDate, String fromDate) {
+        this.endOfDayJdbcRepository = endOfDayJdbcRepository;
+        this.dailyClosingRepository = dailyClosingRepository;
+        this.codeGeneratorService = codeGeneratorService;
+        this.branchId = branchId;
+        this.productId = productId;
+        this.bzDate = bzDate;
+        this.fromDate = fromDate;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        long startNanos = System.nanoTime();
+        endOfDayJdbcRepository.deletePartition(branchId, productId, bzDate);
+
+        long[] totals = new long[4]; // [거래건수, 입금, 출금, 이자]
+        for (EndOfDayJdbcRepository.TradeTotal tradeTotal : endOfDayJdbcRepository.findTradeTotals(branchId, productId, bzDate)) {
+            totals[0] += tradeTotal.getTradeCount();
+            if ( tradeTotal.getTradeCd() == TradeCd.INTEREST ) {
+                totals[3] += tradeTotal.getAmount();
+            }
+            else if ( TradeCd.IO.out.contains(tradeTotal.getTradeCd()) ) {
+                totals[2] += tradeTotal.getAmount();
+            }
+            else {
+                totals[1] += tradeTotal.getAmount();
+            }
+        }
+
+        List<EndOfDayJdbcRepository.AccountBalance> balances = endOfDayJdbcRepository.findAccountBalances(branchId, productId, bzDate, fromDate);
+        long[] ids = new long[balances.size()];
+        long balanceAmount = 0;
+        long mismatchCount = 0;
+        for (int i = 0; i < balances.size(); i++) {
+            EndOfDayJdbcRepository.AccountBalance balance = balances.get(i);
+            ids[i] = codeGeneratorService.nextClosingBalanceId();
+            balanceAmount += balance.getClosingBalance();
+            if ( !balance.isMatched() ) {
+                mismatchCount++;
+                log.warn("balance mismatch {} account {} : closing={}, previous={}, trades={}", bzDate, balance.getAccountId(),
+                        balance.getClosingBalance(), balance.getPrevClosingBalance(), balance.getPeriodAmount());
+            }
+        }
+        endOfDayJdbcRepository.insertClosingBalances(bzDate, balances, ids);
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        dailyClosingRepository.save(DailyClosing.builder()
+                .bzDate(bzDate)
+                .branchId(branchId)
+                .productId(productId)
+                .accountCount(balances.size())
+                .tradeCount(totals[0])
+                .depositAmount(totals[1])
+                .withdrawAmount(totals[2])
+                .interestAmount(totals[3])
+                .balanceAmount(balanceAmount)
+                .mismatchCount(mismatchCount)
+                .elapsedMillis(elapsedMillis)
+                .build());
+
+        contribution.incrementWriteCount(balances.size());
+        chunkContext.getStepContext().getStepExecution().getExecutionContext().putLong(MISMATCH_COUNT, mismatchCount);
+        log.info("end of day {} branch {} product {} : {} accounts, {} trades, {} ms",
+                bzDate, branchId, productId, balances.size(), totals[0], elapsedMillis);
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ken207.openbank.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+
+import java.util.Date;
+
+/**
+ * 이자결산 처리량 리포트.
+ * 파티션별, 전체 처리 계좌수와 초당 처리 계좌수를 로그로 남기고 JobExecution 의 ExecutionContext 에 담는다.
+ */
+public class InterestSettlementListener implements JobExecutionListener {
+
+    public static final String ACCOUNT_COUNT = "accountCount";
+    public static final String ACCOUNTS_PER_SECOND = "accountsPerSecond";
+
+    private final Logger logger = LoggerFactory.getLogger(InterestSettlementListener.class);
+
+    private final String partitionStepName;
+
+    public InterestSettlementListener(String partitionStepName) {
+        this.partitionStepName = partitionStepName;
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        long accountCount = 0;
+
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            if ( !stepExecution.getStepName().startsWith(partitionStepName + ":") ) {
+                continue;
+            }
+            long millis = elapsedMillis(stepExecution.getStartTime(), stepExecution.getEndTime());
+            logger.info("{} : {} accounts, {} ms, {} accounts/s", stepExecution.getStepName(),
+                    stepExecution.getWriteCount(), millis, perSecond(stepExecution.getWriteCount(), millis));
+            accountCount += stepExecution.getWriteCount();
+        }
+
+        long millis = elapsedMillis(jobExecution.getStartTime(), jobExecution.getEndTime());
+        double accountsPerSecond = perSecond(accountCount, millis);
+        logger.info("{} {} : {} accounts, {} ms, {} accounts/s", jobExecution.getJobInstance().getJobName(),
+                jobExecution.getStatus(), accountCount, millis, accountsPerSecond);
+
+        jobExecution.getExecutionContext().putLong(ACCOUNT_COUNT, accountCount);
+        jobExecution.getExecutionContext().putDouble(ACCOUNTS_PER_SECOND, accountsPerSecond);
+    }
+
+    private long elapsedMillis(Date startTime, Date endTime) {
+        if ( startTime == null ) {
+            return 0;
+        }
+        long end = endTime == null ? System.currentTimeMillis() : endTime.getTime();
+        return end - startTime.getTime();
+    }
+
+    private double perSecond(long count, long millis) {
+        return millis == 0 ? count : count * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ken207.openbank.batch;
+
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Interest;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.service.AccountEventStore;
+import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.AccountSnapshotCache;
+import com.ken207.openbank.service.BusinessDateService;
+import com.ken207.openbank.service.JournalService;
+import org.springframework.batch.item.ItemWriter;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 이자결산 writer.
+ * chunk 단위로 원장을 한 번에 조회해서 이자를 계산/지급하고,
+ * 거래내역/이자/이자상세/일별잔액은 flush 시점에 JDBC batch insert 로 저장된다. (hibernate.jdbc.batch_size)
+ */
+public class InterestSettlementWriter implements ItemWriter<Long> {
+
+    private final AccountRepository accountRepository;
+    private final AccountService accountService;
+    private final AccountSnapshotCache accountSnapshotCache;
+    private final JournalService journalService;
+    private final AccountEventStore accountEventStore;
+    private final BusinessDateService businessDateService;
+    private final EntityManager em;
+    private final String untilDate;
+    private final String reckonDate;
+
+    public InterestSettlementWriter(AccountRepository accountRepository, AccountService accountService,
+                                    AccountSnapshotCache accountSnapshotCache, JournalService journalService,
+                                    AccountEventStore accountEventStore,
+                                    BusinessDateService businessDateService, EntityManager em,
+                                    String untilDate, String reckonDate) {
+        this.accountRepository = accountRepository;
+        this.accountService = accountService;
+        this.accountSnapshotCache = accountSnapshotCache;
+        this.journalService = journalService;
+        this.accountEventStore = accountEventStore;
+        this.businessDateService = businessDateService;
+        this.em = em;
+        this.untilDate = untilDate;
+        this.reckonDate = reckonDate;
+    }
+
+    @Override
+    public void write(List<? extends Long> accountIds) {
+        List<Account> accounts = accountRepository.findForInterestByIdIn(new ArrayList<>(accountIds));
+        String bzDate = businessDateService.getBusinessDate();
+
+        for (Account account : accounts) {
+            account.setBzDate(bzDate);
+            Interest interest = accountService.calculateInterest(account, untilDate);
+            Trade trade = interest.payInterest(reckonDate);
+            accountSnapshotCache.evict(account.getAccountNum());
+            journalService.post(trade);
+            accountEventStore.append(trade);
+        }
+
+        em.flush();
+        em.clear();
+    }
+}
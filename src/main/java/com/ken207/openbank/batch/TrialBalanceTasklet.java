@@ -0,0 +1,91 @@
+package com.ken207.openbank.batch;
+
+import com.ken207.openbank.domain.enums.DebitCreditCd;
+import com.ken207.openbank.exception.BizRuntimeException;
+import com.ken207.openbank.repository.query.StatementJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 일계표(시산표) 검증.
+ * 회계일자의 전표를 거래 순서로 스트리밍하면서 과목별 차변, 대변 합계를 구하고 거래마다 차대 일치를 확인한다.
+ * 결과는 JobExecution 의 ExecutionContext 에 담고(과목별 합계는 debit.{과목코드}, credit.{과목코드}),
+ * 차대가 일치하지 않으면 실패한다.
+ */
+@Slf4j
+public class TrialBalanceTasklet implements Tasklet {
+
+    public static final String LINE_COUNT = "lineCount";
+    public static final String DEBIT_AMOUNT = "debitAmount";
+    public static final String CREDIT_AMOUNT = "creditAmount";
+    public static final String UNBALANCED_TRADE_COUNT = "unbalancedTradeCount";
+    public static final String DEBIT_PREFIX = "debit.";
+    public static final String CREDIT_PREFIX = "credit.";
+
+    private final StatementJdbcRepository statementJdbcRepository;
+    private final String journalDate;
+    private final int fetchSize;
+
+    public TrialBalanceTasklet(StatementJdbcRepository statementJdbcRepository, String journalDate, int fetchSize) {
+        this.statementJdbcRepository = statementJdbcRepository;
+        this.journalDate = journalDate;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        Map<String, long[]> subjects = new TreeMap<>(); // [차변, 대변]
+        long[] totals = new long[3]; // [건수, 차변, 대변]
+        long[] currentTrade = {0, 0}; // [거래 id, 차변 - 대변]
+        long[] unbalancedTradeCount = {0};
+
+        statementJdbcRepository.streamByJournalDate(journalDate, fetchSize, rs -> {
+            long tradeId = rs.getLong("trade_id");
+            String subjectCode = rs.getString("account_subject_code");
+            boolean debit = DebitCreditCd.DEBIT.name().equals(rs.getString("debit_credit_cd"));
+            long amount = rs.getLong("trade_amount");
+
+            if ( tradeId != currentTrade[0] ) {
+                if ( currentTrade[1] != 0 ) {
+                    unbalancedTradeCount[0]++;
+                }
+                currentTrade[0] = tradeId;
+                currentTrade[1] = 0;
+            }
+            currentTrade[1] += debit ? amount : -amount;
+
+            long[] subject = subjects.computeIfAbsent(subjectCode, k -> new long[2]);
+            subject[debit ? 0 : 1] += amount;
+            totals[0]++;
+            totals[debit ? 1 : 2] += amount;
+        });
+        if ( currentTrade[1] != 0 ) {
+            unbalancedTradeCount[0]++;
+        }
+
+        ExecutionContext context = chunkContext.getStepContext().getStepExecution().getJobExecution().getExecutionContext();
+        context.putLong(LINE_COUNT, totals[0]);
+        context.putLong(DEBIT_AMOUNT, totals[1]);
+        context.putLong(CREDIT_AMOUNT, totals[2]);
+        context.putLong(UNBALANCED_TRADE_COUNT, unbalancedTradeCount[0]);
+        subjects.forEach((subjectCode, amounts) -> {
+            context.putLong(DEBIT_PREFIX + subjectCode, amounts[0]);
+            context.putLong(CREDIT_PREFIX + subjectCode, amounts[1]);
+            log.info("trial balance {} subject {} : debit={}, credit={}", journalDate, subjectCode, amounts[0], amounts[1]);
+        });
+        log.info("trial balance {} : {} lines, debit={}, credit={}, unbalanced trades={}",
+                journalDate, totals[0], totals[1], totals[2], unbalancedTradeCount[0]);
+
+        if ( totals[1] != totals[2] || unbalancedTradeCount[0] > 0 ) {
+            throw new BizRuntimeException("차대 불일치. 회계일자:" + journalDate);
+        }
+        return RepeatStatus.FINISHED;
+    }
+}
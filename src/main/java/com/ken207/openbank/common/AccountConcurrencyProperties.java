@@ -0,0 +1,27 @@
+package com.ken207.openbank.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app-concurrency")
+@Getter @Setter
+public class AccountConcurrencyProperties {
+
+    /**
+     * OPTIMISTIC : Account @Version 충돌 시 트랜잭션을 재시도
+     * STRIPED_LOCK : 계좌번호 기준 프로세스 내 잠금 후 트랜잭션 실행
+     */
+    public enum Mode {
+        OPTIMISTIC, STRIPED_LOCK
+    }
+
+    private Mode mode = Mode.OPTIMISTIC;
+
+    private int maxRetry = 3;
+
+    private int stripes = 64;
+
+}
@@ -0,0 +1,50 @@
+package com.ken207.openbank.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "app-engine")
+@Getter @Setter
+public class AccountEngineProperties {
+
+    /**
+     * true : 입금, 출금을 인메모리 계좌 엔진(AccountEngine)에서 처리
+     */
+    private boolean enabled = false;
+
+    private int shards = 4;
+
+    /**
+     * 엔진에서 처리할 계좌번호. 비어 있으면 전체 계좌
+     */
+    private List<String> accountNums = new ArrayList<>();
+
+    private String journalDir = "journal";
+
+    /**
+     * 저널 한 번의 fsync 로 처리하는 최대 거래 건수 (group commit)
+     */
+    private int maxBatch = 256;
+
+    private Duration checkpointInterval = Duration.ofMillis(200);
+
+    private int checkpointBatchSize = 1000;
+
+    /**
+     * 입출금, release 응답 최대 대기 시간
+     */
+    private Duration commandTimeout = Duration.ofSeconds(30);
+
+    /**
+     * 연속으로 이 횟수만큼 체크포인트가 실패하면 샤드를 장애 처리
+     */
+    private int checkpointMaxAttempts = 5;
+
+}
@@ -0,0 +1,24 @@
+package com.ken207.openbank.common;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+
+/**
+ * DB 종류 확인. 운영/테스트는 PostgreSQL, local 은 H2 이므로 PostgreSQL 전용 SQL 은 확인 후 사용한다.
+ */
+public final class DatabaseDialect {
+
+    private DatabaseDialect() {
+    }
+
+    public static boolean isPostgreSQL(DataSource dataSource) {
+        try {
+            String productName = (String) JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName");
+            return "PostgreSQL".equals(JdbcUtils.commonDatabaseName(productName));
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
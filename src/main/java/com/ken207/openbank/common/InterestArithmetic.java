@@ -0,0 +1,73 @@
+package com.ken207.openbank.common;
+
+import java.math.BigInteger;
+
+/**
+ * 일수이자 계산용 고정소수점(scaled long) 연산.
+ * 금액은 원 단위 long, 이자상세 금액은 1/1000 원(milli) 단위 long, 이율(%)은 1/1,000,000 % 단위 long 으로 계산한다.
+ * 월수이자는 이자상세를 절사하지 않으므로 InterestDetail 에서 BigDecimal 로 계산한다.
+ *
+ * 반올림 규칙
+ *  - 이율 : 소수점 6자리(%)로 반올림 (1.2% -> 1,200,000)
+ *  - 이자상세 : 1/1000 원 미만 절사 (RoundingMode.DOWN)
+ *  - 이자합계 : 이자상세 합계의 원 미만 절상 (Math.ceil)
+ *
+ * long 범위 안에서는 객체를 생성하지 않고, 잔액 * 이율이 long 범위를 넘는 경우에만 BigInteger 로 계산한다.
+ */
+public final class InterestArithmetic {
+
+    public static final long RATE_SCALE = 1_000_000L;
+    public static final long AMOUNT_SCALE = 1_000L;
+    private static final long PERCENT = 100L;
+    private static final long DAYS_OF_YEAR = 365L;
+
+    // 잔액 * 이율(milli 단위 환산) / DIVISOR
+    private static final long DAILY_DIVISOR = PERCENT * RATE_SCALE * DAYS_OF_YEAR / AMOUNT_SCALE;
+
+    private InterestArithmetic() {
+    }
+
+    /**
+     * 이율(%)을 1/1,000,000 % 단위로 변환
+     */
+    public static long toRateMicros(double interestRate) {
+        return Math.round(interestRate * RATE_SCALE);
+    }
+
+    /**
+     * 일수이자
+     * @return 이자(1/1000 원) = 잔액 * 이율 * 일수 / 100 / 365, 1/1000 원 미만 절사
+     */
+    public static long dailyInterestMilli(long balance, long rateMicros, int days) {
+        return interestMilli(balance, rateMicros, days, DAILY_DIVISOR);
+    }
+
+    /**
+     * 이자합계(1/1000 원)를 원 단위로 절상
+     */
+    public static long ceilToWon(long amountMilli) {
+        return -Math.floorDiv(-amountMilli, AMOUNT_SCALE);
+    }
+
+    public static double milliToDouble(long amountMilli) {
+        return (double) amountMilli / AMOUNT_SCALE;
+    }
+
+    private static long interestMilli(long balance, long rateMicros, int period, long divisor) {
+        long principal;
+        try {
+            principal = Math.multiplyExact(balance, rateMicros);
+        } catch (ArithmeticException e) {
+            return BigInteger.valueOf(balance)
+                    .multiply(BigInteger.valueOf(rateMicros))
+                    .multiply(BigInteger.valueOf(period))
+                    .divide(BigInteger.valueOf(divisor))
+                    .longValueExact();
+        }
+
+        // principal * period 가 넘치지 않도록 몫과 나머지로 나눠서 계산 (음수 잔액은 0 방향 절사)
+        long quotient = principal / divisor;
+        long remainder = principal % divisor;
+        return Math.addExact(Math.multiplyExact(quotient, (long) period), remainder * period / divisor);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ken207.openbank.common;
+
+import com.ken207.openbank.exception.BizRuntimeException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * keyset 페이지 조회 위치 (srno, id 등 정렬키).
+ * 클라이언트에는 next, prev 링크의 cursor 파라미터로만 노출하므로 형식은 바뀔 수 있다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class KeysetCursor {
+
+    public enum Direction { NEXT, PREV }
+
+    private final Direction direction;
+    private final long key;
+
+    public static KeysetCursor next(long key) {
+        return new KeysetCursor(Direction.NEXT, key);
+    }
+
+    public static KeysetCursor prev(long key) {
+        return new KeysetCursor(Direction.PREV, key);
+    }
+
+    public boolean isPrev() {
+        return direction == Direction.PREV;
+    }
+
+    /**
+     * @return 빈 값이면 첫 페이지(null)
+     */
+    public static KeysetCursor decode(String cursor) {
+        if ( cursor == null || cursor.isEmpty() ) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new KeysetCursor(Direction.valueOf(decoded.substring(0, separator)), Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BizRuntimeException("잘못된 cursor 입니다. cursor:" + cursor);
+        }
+    }
+
+    public String encode() {
+        String value = direction.name() + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
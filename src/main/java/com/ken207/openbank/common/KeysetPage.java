@@ -0,0 +1,54 @@
+package com.ken207.openbank.common;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * keyset 페이지 조회 결과. OFFSET, COUNT 없이 size + 1 건을 조회해서 다음 페이지 존재 여부를 판단한다.
+ */
+@Getter
+public class KeysetPage<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final KeysetCursor nextCursor; //다음 페이지가 없으면 null
+    private final KeysetCursor prevCursor; //이전 페이지가 없으면 null
+
+    private KeysetPage(List<T> content, int size, KeysetCursor nextCursor, KeysetCursor prevCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+    }
+
+    /**
+     * @param rows NEXT(첫 페이지 포함)는 정렬키 오름차순, PREV 는 정렬키 내림차순으로 최대 size + 1 건 조회한 결과
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, KeysetCursor cursor, ToLongFunction<T> keyOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> content = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+
+        boolean hasNext;
+        boolean hasPrev;
+        if ( cursor != null && cursor.isPrev() ) {
+            Collections.reverse(content);
+            hasNext = true;
+            hasPrev = hasMore;
+        }
+        else {
+            hasNext = hasMore;
+            hasPrev = cursor != null;
+        }
+
+        if ( content.isEmpty() ) {
+            return new KeysetPage<>(content, size, null, null);
+        }
+        KeysetCursor next = hasNext ? KeysetCursor.next(keyOf.applyAsLong(content.get(content.size() - 1))) : null;
+        KeysetCursor prev = hasPrev ? KeysetCursor.prev(keyOf.applyAsLong(content.get(0))) : null;
+        return new KeysetPage<>(content, size, next, prev);
+    }
+}
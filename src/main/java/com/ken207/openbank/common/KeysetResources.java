@@ -0,0 +1,51 @@
+package com.ken207.openbank.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Resources;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * keyset 페이지 응답. 페이지 번호 대신 next, prev 링크로 이동한다.
+ * totalCount 는 count=true 로 요청한 경우에만 조회해서 응답 함.
+ */
+@Getter
+public class KeysetResources<T> extends Resources<T> {
+
+    private final int size;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Long totalCount;
+
+    private KeysetResources(List<T> content, int size, Long totalCount) {
+        super(content);
+        this.size = size;
+        this.totalCount = totalCount;
+    }
+
+    public static <E, T> KeysetResources<T> of(KeysetPage<E> page, Function<E, T> converter, Long totalCount) {
+        List<T> content = page.getContent().stream().map(converter).collect(Collectors.toList());
+        KeysetResources<T> resources = new KeysetResources<>(content, page.getSize(), totalCount);
+
+        resources.add(new Link(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+        if ( page.getNextCursor() != null ) {
+            resources.add(new Link(linkOf(page.getNextCursor())).withRel(Link.REL_NEXT));
+        }
+        if ( page.getPrevCursor() != null ) {
+            resources.add(new Link(linkOf(page.getPrevCursor())).withRel(Link.REL_PREVIOUS));
+        }
+        return resources;
+    }
+
+    private static String linkOf(KeysetCursor cursor) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", cursor.encode())
+                .replaceQueryParam("count")
+                .toUriString();
+    }
+}
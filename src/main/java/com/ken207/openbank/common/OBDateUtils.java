@@ -1,9 +1,12 @@
 package com.ken207.openbank.common;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.util.Calendar;
-import java.util.Date;
 
+/**
+ * 일자는 yyyymmdd 문자열을 사용한다.
+ * 일수 계산은 문자열을 epoch day(1970-01-01 부터의 일수, int)로 바꿔서 객체 생성 없이 계산한다.
+ */
 public class OBDateUtils {
     public static final String MIN_DATE = "19550101";
     public static final String MAX_DATE = "99991231";
@@ -20,9 +23,7 @@ public class OBDateUtils {
     }
 
     public static String addDays(String date, long days) {
-        return parseString(
-                parseLocalDate(date).plusDays(days)
-        );
+        return fromEpochDay(toEpochDay(date) + (int) days);
     }
 
     public static String
@@ -33,15 +34,124 @@ public class OBDateUtils {
     }
 
     public static LocalDate parseLocalDate(String date) {
-        int year = Integer.parseInt(date.substring(0,4));
-        int month = Integer.parseInt(date.substring(4,6));
-        int dayOfMonth = Integer.parseInt(date.substring(6,8));
-
-        Date a = new Date();
+        int year = parseDigits(date, 0, 4);
+        int month = parseDigits(date, 4, 6);
+        int dayOfMonth = parseDigits(date, 6, 8);
 
         return LocalDate.of(year, month, dayOfMonth);
     }
 
+    /**
+     * @return yyyymmdd 형식의 존재하는 일자이면 true
+     */
+    public static boolean isValidDate(String date) {
+        if ( date == null ) {
+            return false;
+        }
+        try {
+            toEpochDay(date);
+            return true;
+        } catch (DateTimeException | NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * yyyymmdd -> epoch day
+     * @param date yyyymmdd
+     * @return 1970-01-01 부터의 일수
+     */
+    public static int toEpochDay(String date) {
+        int year = parseDigits(date, 0, 4);
+        int month = parseDigits(date, 4, 6);
+        int dayOfMonth = parseDigits(date, 6, 8);
+        checkDate(date, year, month, dayOfMonth);
+
+        // 3월을 한 해의 시작으로 보고 계산 (윤일이 해의 마지막 날이 됨)
+        if ( month <= 2 ) {
+            year--;
+        }
+        int era = (year >= 0 ? year : year - 399) / 400;
+        int yearOfEra = year - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * epoch day -> yyyymmdd
+     * @param epochDay 1970-01-01 부터의 일수
+     * @return yyyymmdd
+     * @throws IllegalArgumentException 연도가 4자리(0~9999)를 벗어남
+     */
+    public static String fromEpochDay(int epochDay) {
+        int days = epochDay + 719468;
+        int era = (days >= 0 ? days : days - 146096) / 146097;
+        int dayOfEra = days - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthIndex = (5 * dayOfYear + 2) / 153;
+        int dayOfMonth = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if ( year < 0 || year > 9999 ) {
+            throw new IllegalArgumentException("yyyymmdd 로 표현할 수 없는 연도:" + year);
+        }
+
+        char[] buf = new char[8];
+        buf[0] = (char) ('0' + year / 1000);
+        buf[1] = (char) ('0' + year / 100 % 10);
+        buf[2] = (char) ('0' + year / 10 % 10);
+        buf[3] = (char) ('0' + year % 10);
+        buf[4] = (char) ('0' + month / 10);
+        buf[5] = (char) ('0' + month % 10);
+        buf[6] = (char) ('0' + dayOfMonth / 10);
+        buf[7] = (char) ('0' + dayOfMonth % 10);
+        return new String(buf);
+    }
+
+    /**
+     * 월(1~12), 일(1~월말일) 범위 확인. 20190230 같은 날짜를 다른 날로 계산하지 않도록 LocalDate.of 와 같이 거부한다.
+     */
+    private static void checkDate(String date, int year, int month, int dayOfMonth) {
+        if ( month < 1 || month > 12 ) {
+            throw new DateTimeException("월이 범위를 벗어남:" + date);
+        }
+        if ( dayOfMonth < 1 || dayOfMonth > lengthOfMonth(year, month) ) {
+            throw new DateTimeException("일이 범위를 벗어남:" + date);
+        }
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch ( month ) {
+            case 2:
+                boolean leapYear = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+                return leapYear ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int parseDigits(String date, int beginIndex, int endIndex) {
+        if ( date.length() != 8 ) {
+            throw new NumberFormatException("yyyymmdd 형식이 아님:" + date);
+        }
+        int value = 0;
+        for (int i = beginIndex; i < endIndex; i++) {
+            char c = date.charAt(i);
+            if ( c < '0' || c > '9' ) {
+                throw new NumberFormatException("yyyymmdd 형식이 아님:" + date);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
     public static String parseString(LocalDate localDate) {
         int yearValue = localDate.getYear();
         int monthValue = localDate.getMonthValue();
@@ -154,22 +264,7 @@ public class OBDateUtils {
      * @return 두 날짜의 일수 차이. 음수 포함.
      */
     public static int getNumberOfDays(String from, String to) {
-        int yearOfFrom = Integer.parseInt(from.substring(0,4));
-        int monthOfFrom = Integer.parseInt(from.substring(4,6)) - 1;
-        int dayOfFrom = Integer.parseInt(from.substring(6,8));
-
-        int yearOfTo = Integer.parseInt(to.substring(0,4));
-        int monthOfTo = Integer.parseInt(to.substring(4,6)) - 1;
-        int dayOfTo = Integer.parseInt(to.substring(6,8));
-
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(yearOfFrom, monthOfFrom, dayOfFrom);
-        long timeInMillisFrom = calendar.getTimeInMillis();
-
-        calendar.set(yearOfTo, monthOfTo, dayOfTo);
-        long timeInMillisTo = calendar.getTimeInMillis();
-        Double result = Math.ceil((timeInMillisTo - timeInMillisFrom) / (24 * 60 * 60 * 1000));
-        return result.intValue();
+        return toEpochDay(to) - toEpochDay(from);
     }
 
     /**
@@ -0,0 +1,49 @@
+package com.ken207.openbank.common;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 현재 스레드에서 Hibernate 가 준비한 SQL 건수.
+ * hibernate.session_factory.statement_inspector 로 등록하고 SqlStatementGuardInterceptor 가 요청 단위로 상한을 지정한다.
+ * 상한을 넘는 SQL 은 실행 전에 실패시키므로, 요청의 트랜잭션은 커밋되지 않고 롤백된다.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    // [0] : 실행 건수, [1] : 상한 (0 이면 검사 안함)
+    private static final ThreadLocal<int[]> STATE = ThreadLocal.withInitial(() -> new int[2]);
+
+    @Override
+    public String inspect(String sql) {
+        int[] state = STATE.get();
+        state[0]++;
+        if ( state[1] > 0 && state[0] > state[1] ) {
+            throw new IllegalStateException(String.format("SQL 실행 건수 초과. %d > %d : %s", state[0], state[1], sql));
+        }
+        return sql;
+    }
+
+    /**
+     * 건수 초기화 후 상한 지정
+     * @param maxStatements 0 이면 검사 안함
+     */
+    public static void start(int maxStatements) {
+        int[] state = STATE.get();
+        state[0] = 0;
+        state[1] = maxStatements;
+    }
+
+    /**
+     * 상한 해제. 스레드가 재사용되어도 요청 밖의 SQL 은 검사하지 않도록 요청 종료 시 호출.
+     */
+    public static void stop() {
+        STATE.get()[1] = 0;
+    }
+
+    public static void reset() {
+        STATE.get()[0] = 0;
+    }
+
+    public static int getCount() {
+        return STATE.get()[0];
+    }
+}
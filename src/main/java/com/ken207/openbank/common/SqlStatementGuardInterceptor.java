@@ -0,0 +1,54 @@
+package com.ken207.openbank.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 요청 하나가 실행한 SQL 건수를 openbank.http.sql.statements(uri 태그) 로 기록하고,
+ * app-sql-guard.max-statements 를 넘으면 실패. (N+1 조회 검출용, 0 이면 검사 안함)
+ * 상한 검사는 SqlStatementCounter 가 SQL 실행 전에 하므로 초과한 요청의 트랜잭션은 커밋되지 않는다.
+ * SqlStatementCounter 가 statement_inspector 로 등록된 경우에만 동작한다.
+ */
+@Component
+public class SqlStatementGuardInterceptor implements HandlerInterceptor {
+
+    public static final String METRIC_NAME = "openbank.http.sql.statements";
+
+    private final int maxStatements;
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementGuardInterceptor(@Value("${app-sql-guard.max-statements:0}") int maxStatements,
+                                        MeterRegistry meterRegistry) {
+        this.maxStatements = maxStatements;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.start(maxStatements);
+        return true;
+    }
+
+    /**
+     * 실패한 요청도 건수를 기록하도록 afterCompletion 에서 기록
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementCounter.stop();
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC_NAME)
+                .description("SQL statements per request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                .register(meterRegistry)
+                .record(SqlStatementCounter.getCount());
+    }
+}
@@ -0,0 +1,107 @@
+package com.ken207.openbank.configs;
+
+import com.ken207.openbank.batch.BranchProductPartitioner;
+import com.ken207.openbank.batch.EndOfDayPartitionTasklet;
+import com.ken207.openbank.repository.DailyClosingRepository;
+import com.ken207.openbank.repository.query.EndOfDayJdbcRepository;
+import com.ken207.openbank.service.BusinessDateService;
+import com.ken207.openbank.service.CodeGeneratorService;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 일마감(EOD) 배치.
+ * 1. 영업일자 변경 : 이후 거래는 다음 영업일자로 처리되므로 마감 중에도 거래를 받을 수 있다.
+ * 2. 관리점, 상품별 파티션을 스레드 풀에서 병렬로 집계, 마감 잔액 저장, 잔액 대사 (EndOfDayPartitionTasklet)
+ * 3. 최종 마감일자 변경
+ * job parameters : bzDate(마감일자), fromDate(이전 마감일자)
+ */
+@Configuration
+public class EndOfDayJobConfig {
+
+    public static final String JOB_NAME = "endOfDayJob";
+    public static final String ROLL_STEP_NAME = "endOfDayRollStep";
+    public static final String MASTER_STEP_NAME = "endOfDayMasterStep";
+    public static final String PARTITION_STEP_NAME = "endOfDayStep";
+    public static final String CLOSE_STEP_NAME = "endOfDayCloseStep";
+
+    @Value("${app-batch.end-of-day.threads:4}")
+    private int threads;
+
+    @Bean
+    public Job endOfDayJob(JobBuilderFactory jobBuilderFactory,
+                           Step endOfDayRollStep, Step endOfDayMasterStep, Step endOfDayCloseStep) {
+        return jobBuilderFactory.get(JOB_NAME)
+                .start(endOfDayRollStep)
+                .next(endOfDayMasterStep)
+                .next(endOfDayCloseStep)
+                .build();
+    }
+
+    @Bean
+    public Step endOfDayRollStep(StepBuilderFactory stepBuilderFactory, BusinessDateService businessDateService) {
+        return stepBuilderFactory.get(ROLL_STEP_NAME)
+                .tasklet((contribution, chunkContext) -> {
+                    businessDateService.roll((String) chunkContext.getStepContext().getJobParameters().get("bzDate"));
+                    return RepeatStatus.FINISHED;
+                })
+                .build();
+    }
+
+    @Bean
+    public Step endOfDayMasterStep(StepBuilderFactory stepBuilderFactory, EndOfDayJdbcRepository endOfDayJdbcRepository,
+                                   Step endOfDayStep) {
+        // 파티션은 관리점, 상품 조합마다 하나이므로 스레드 수로 동시 처리 파티션을 제한
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setThreadNamePrefix("end-of-day-");
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setDaemon(true);
+        taskExecutor.initialize();
+
+        return stepBuilderFactory.get(MASTER_STEP_NAME)
+                .partitioner(PARTITION_STEP_NAME, new BranchProductPartitioner(endOfDayJdbcRepository))
+                .step(endOfDayStep)
+                .gridSize(threads)
+                .taskExecutor(taskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step endOfDayStep(StepBuilderFactory stepBuilderFactory, EndOfDayPartitionTasklet endOfDayPartitionTasklet) {
+        return stepBuilderFactory.get(PARTITION_STEP_NAME)
+                .tasklet(endOfDayPartitionTasklet)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public EndOfDayPartitionTasklet endOfDayPartitionTasklet(EndOfDayJdbcRepository endOfDayJdbcRepository,
+                                                             DailyClosingRepository dailyClosingRepository,
+                                                             CodeGeneratorService codeGeneratorService,
+                                                             @Value("#{stepExecutionContext['branchId']}") Long branchId,
+                                                             @Value("#{stepExecutionContext['productId']}") Long productId,
+                                                             @Value("#{jobParameters['bzDate']}") String bzDate,
+                                                             @Value("#{jobParameters['fromDate']}") String fromDate) {
+        return new EndOfDayPartitionTasklet(endOfDayJdbcRepository, dailyClosingRepository, codeGeneratorService,
+                branchId, productId, bzDate, fromDate);
+    }
+
+    @Bean
+    public Step endOfDayCloseStep(StepBuilderFactory stepBuilderFactory, BusinessDateService businessDateService) {
+        return stepBuilderFactory.get(CLOSE_STEP_NAME)
+                .tasklet((contribution, chunkContext) -> {
+                    businessDateService.close((String) chunkContext.getStepContext().getJobParameters().get("bzDate"));
+                    return RepeatStatus.FINISHED;
+                })
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.ken207.openbank.configs;
+
+import com.ken207.openbank.batch.AccountIdRangePartitioner;
+import com.ken207.openbank.batch.InterestSettlementListener;
+import com.ken207.openbank.batch.InterestSettlementWriter;
+import com.ken207.openbank.domain.enums.AccountStatusCode;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.service.AccountEventStore;
+import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.AccountSnapshotCache;
+import com.ken207.openbank.service.BusinessDateService;
+import com.ken207.openbank.service.JournalService;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 이자결산 배치.
+ * 활동계좌를 계좌ID 범위로 파티션을 나누어 병렬로 이자를 계산/지급 한다.
+ * job parameters : untilDate(이자계산 종료일), reckonDate(이자지급일)
+ */
+@Configuration
+public class InterestSettlementJobConfig {
+
+    public static final String JOB_NAME = "interestSettlementJob";
+    public static final String MASTER_STEP_NAME = "interestSettlementMasterStep";
+    public static final String PARTITION_STEP_NAME = "interestSettlementStep";
+
+    @Value("${app-batch.interest-settlement.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app-batch.interest-settlement.partition-count:4}")
+    private int partitionCount;
+
+    @Bean
+    public Job interestSettlementJob(JobBuilderFactory jobBuilderFactory, Step interestSettlementMasterStep) {
+        return jobBuilderFactory.get(JOB_NAME)
+                .listener(new InterestSettlementListener(PARTITION_STEP_NAME))
+                .start(interestSettlementMasterStep)
+                .build();
+    }
+
+    @Bean
+    public Step interestSettlementMasterStep(StepBuilderFactory stepBuilderFactory, DataSource dataSource,
+                                             Step interestSettlementStep) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("interest-settlement-");
+        taskExecutor.setConcurrencyLimit(partitionCount);
+
+        return stepBuilderFactory.get(MASTER_STEP_NAME)
+                .partitioner(PARTITION_STEP_NAME, new AccountIdRangePartitioner(new JdbcTemplate(dataSource)))
+                .step(interestSettlementStep)
+                .gridSize(partitionCount)
+                .taskExecutor(taskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step interestSettlementStep(StepBuilderFactory stepBuilderFactory,
+                                       JdbcPagingItemReader<Long> interestSettlementReader,
+                                       InterestSettlementWriter interestSettlementWriter) {
+        return stepBuilderFactory.get(PARTITION_STEP_NAME)
+                .<Long, Long>chunk(chunkSize)
+                .reader(interestSettlementReader)
+                .writer(interestSettlementWriter)
+                .faultTolerant()
+                .retry(OptimisticLockingFailureException.class)
+                .retryLimit(3)
+                .build();
+    }
+
+    /**
+     * 파티션 범위의 이자계산 대상 계좌ID 를 account_id 순서로 읽는다.
+     * 정렬키 기준 페이징이라 재시작 시 마지막으로 commit 된 계좌 이후 부터 처리 함.
+     * 이자지급일 이후 거래가 있는 계좌는 지급할 수 없으므로(기산일 거래 필요) 대상에서 제외한다.
+     */
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<Long> interestSettlementReader(DataSource dataSource,
+                                                               @Value("#{stepExecutionContext['minId']}") Long minId,
+                                                               @Value("#{stepExecutionContext['maxId']}") Long maxId,
+                                                               @Value("#{jobParameters['untilDate']}") String untilDate,
+                                                               @Value("#{jobParameters['reckonDate']}") String reckonDate) throws Exception {
+        SqlPagingQueryProviderFactoryBean queryProvider = new SqlPagingQueryProviderFactoryBean();
+        queryProvider.setDataSource(dataSource);
+        queryProvider.setSelectClause("select account_id");
+        queryProvider.setFromClause("from account");
+        queryProvider.setWhereClause("where account_id between :minId and :maxId"
+                + " and account_status_code = :accountStatusCode"
+                + " and last_ints_dt < :untilDate"
+                + " and last_trade_date <= :reckonDate");
+        queryProvider.setSortKeys(Collections.singletonMap("account_id", Order.ASCENDING));
+
+        Map<String, Object> parameterValues = new HashMap<>();
+        parameterValues.put("minId", minId);
+        parameterValues.put("maxId", maxId);
+        parameterValues.put("accountStatusCode", AccountStatusCode.ACTIVE.name());
+        parameterValues.put("untilDate", untilDate);
+        parameterValues.put("reckonDate", reckonDate);
+
+        JdbcPagingItemReader<Long> reader = new JdbcPagingItemReader<>();
+        reader.setName("interestSettlementReader");
+        reader.setDataSource(dataSource);
+        reader.setQueryProvider(queryProvider.getObject());
+        reader.setParameterValues(parameterValues);
+        reader.setPageSize(chunkSize);
+        reader.setRowMapper((rs, rowNum) -> rs.getLong("account_id"));
+        reader.afterPropertiesSet();
+        return reader;
+    }
+
+    @Bean
+    @StepScope
+    public InterestSettlementWriter interestSettlementWriter(AccountRepository accountRepository,
+                                                             AccountService accountService,
+                                                             AccountSnapshotCache accountSnapshotCache,
+                                                             JournalService journalService,
+                                                             AccountEventStore accountEventStore,
+                                                             BusinessDateService businessDateService,
+                                                             EntityManager em,
+                                                             @Value("#{jobParameters['untilDate']}") String untilDate,
+                                                             @Value("#{jobParameters['reckonDate']}") String reckonDate) {
+        return new InterestSettlementWriter(accountRepository, accountService, accountSnapshotCache, journalService, accountEventStore,
+                businessDateService, em, untilDate, reckonDate);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ken207.openbank.configs;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 메트릭. /actuator/prometheus 로 노출
+ * - openbank.account.service : AccountService 업무별 처리시간 (@Timed)
+ * - http.server.requests : API 별 응답시간 히스토그램
+ * - openbank.http.sql.statements : 요청당 SQL 실행 건수
+ * - hibernate.* : 쿼리, 엔티티 로드, flush 건수 (hibernate.generate_statistics)
+ * - hikaricp.connections.* : 커넥션 풀
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ken207.openbank.configs;
+
+import com.ken207.openbank.batch.TrialBalanceTasklet;
+import com.ken207.openbank.repository.query.StatementJdbcRepository;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 일계표(시산표) 배치.
+ * job parameters : journalDate(회계일자)
+ */
+@Configuration
+public class TrialBalanceJobConfig {
+
+    public static final String JOB_NAME = "trialBalanceJob";
+    public static final String STEP_NAME = "trialBalanceStep";
+
+    @Value("${app-batch.trial-balance.fetch-size:1000}")
+    private int fetchSize;
+
+    @Bean
+    public Job trialBalanceJob(JobBuilderFactory jobBuilderFactory, Step trialBalanceStep) {
+        return jobBuilderFactory.get(JOB_NAME)
+                .start(trialBalanceStep)
+                .build();
+    }
+
+    @Bean
+    public Step trialBalanceStep(StepBuilderFactory stepBuilderFactory, TrialBalanceTasklet trialBalanceTasklet) {
+        return stepBuilderFactory.get(STEP_NAME)
+                .tasklet(trialBalanceTasklet)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public TrialBalanceTasklet trialBalanceTasklet(StatementJdbcRepository statementJdbcRepository,
+                                                   @Value("#{jobParameters['journalDate']}") String journalDate) {
+        return new TrialBalanceTasklet(statementJdbcRepository, journalDate, fetchSize);
+    }
+}
@@ -1,6 +1,7 @@
 package com.ken207.openbank.configs;
 
 import com.ken207.openbank.common.ProfileHeaderInterceptor;
+import com.ken207.openbank.common.SqlStatementGuardInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -12,8 +13,12 @@ public class WebConfig implements WebMvcConfigurer {
     @Autowired
     ProfileHeaderInterceptor profileHeaderInterceptor;
 
+    @Autowired
+    SqlStatementGuardInterceptor sqlStatementGuardInterceptor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(profileHeaderInterceptor).addPathPatterns("/api/**");
+        registry.addInterceptor(sqlStatementGuardInterceptor).addPathPatterns("/api/**");
     }
 }
@@ -2,6 +2,10 @@ package com.ken207.openbank.controller;
 
 import com.ken207.openbank.annotation.CurrentUser;
 import com.ken207.openbank.common.ErrorsResource;
+import com.ken207.openbank.common.KeysetCursor;
+import com.ken207.openbank.common.KeysetPage;
+import com.ken207.openbank.common.KeysetResources;
+import com.ken207.openbank.common.OBDateUtils;
 import com.ken207.openbank.domain.*;
 import com.ken207.openbank.dto.AccountDto;
 import com.ken207.openbank.dto.TradeDto;
@@ -9,9 +13,12 @@ import com.ken207.openbank.dto.request.RequestValidator;
 import com.ken207.openbank.mapper.AccountMapper;
 import com.ken207.openbank.mapper.TradeMapper;
 import com.ken207.openbank.repository.AccountRepository;
-import com.ken207.openbank.repository.ProductRepository;
-import com.ken207.openbank.repository.TradeRepository;
+import com.ken207.openbank.repository.query.TradeQueryRepository;
 import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.AccountSnapshotCache;
+import com.ken207.openbank.service.BulkTradeService;
+import com.ken207.openbank.service.TradeArchiveService;
+import com.ken207.openbank.service.TradeExportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -21,6 +28,7 @@ import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.Resource;
 import org.springframework.hateoas.mvc.ControllerLinkBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -28,7 +36,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
 
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
@@ -39,9 +49,12 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 public class AccountRegularController {
 
     private final AccountService accountService;
+    private final AccountSnapshotCache accountSnapshotCache;
+    private final BulkTradeService bulkTradeService;
+    private final TradeExportService tradeExportService;
     private final AccountRepository accountRepository;
-    private final TradeRepository tradeRepository;
-    private final ProductRepository productRepository;
+    private final TradeArchiveService tradeArchiveService;
+    private final TradeQueryRepository tradeQueryRepository;
     private final ControllerLinkBuilder controllerLinkBuilder = linkTo(AccountRegularController.class);
     private final AccountMapper accountMapper = AccountMapper.INSTANCE;
     private final TradeMapper tradeMapper = TradeMapper.INSTANCE;
@@ -56,11 +69,9 @@ public class AccountRegularController {
             return new ResponseEntity(new ErrorsResource(errors), httpStatus);
         }
 
-        Product product = productRepository.findByProductCode(accountRequestOpen.getProductCode());
-
         //Create Entity and save to database
         Long accountId = accountService.openRegularAccount(accountRequestOpen);
-        Account account = accountRepository.findById(accountId).get();
+        Account account = accountRepository.findForListById(accountId).get();
 
         //Set response data
         AccountDto.Response newAccount = accountMapper.accountForResponse(account);
@@ -81,13 +92,33 @@ public class AccountRegularController {
     }
 
 
+    /**
+     * 계좌 목록 조회. cursor 파라미터가 있으면(첫 페이지는 빈 값) id 기준 keyset 페이지로 조회 함.
+     */
     @GetMapping
-    public ResponseEntity queryAccounts(Pageable pageable, PagedResourcesAssembler<Account> assembler,
+    public ResponseEntity queryAccounts(Pageable pageable, PagedResourcesAssembler<AccountDto.Response> assembler,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "false") boolean count,
                                         @CurrentUser Member member) {
-        Page<Account> page = this.accountRepository.findAll(pageable);
+        if ( cursor != null ) {
+            KeysetPage<AccountDto.Response> page = this.accountRepository.findResponses(KeysetCursor.decode(cursor), pageable.getPageSize());
+            KeysetResources<Resource> keysetResources = KeysetResources.of(page,
+                    e -> new Resource(e,
+                            controllerLinkBuilder.slash(e.getAccountNum()).withSelfRel()
+                    ),
+                    count ? this.accountRepository.count() : null);
+
+            keysetResources.add(getLinkOfProfile("#resources-accounts-list"));
+            if ( member != null ) {
+                keysetResources.add(controllerLinkBuilder.withRel("create-account"));
+            }
+            return ResponseEntity.ok(keysetResources);
+        }
+
+        Page<AccountDto.Response> page = this.accountRepository.findResponses(pageable);
         //Page<AccountEntity> page = this.accountService.getAccountList(pageable);
         PagedResources<Resource> pagedResources = assembler.toResource(page,
-                e -> new Resource(accountMapper.accountForResponse(e),
+                e -> new Resource(e,
                         controllerLinkBuilder.slash(e.getAccountNum()).withSelfRel()
                 ));
 
@@ -102,7 +133,7 @@ public class AccountRegularController {
     public ResponseEntity getAccount(@PathVariable String accountNum) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        Account account = this.accountRepository.findByAccountNum(accountNum);
+        AccountDto.Snapshot account = this.accountSnapshotCache.get(accountNum);
 
         //Request Data Validation
         if ( account == null ) {
@@ -110,7 +141,7 @@ public class AccountRegularController {
         }
 
         //Set response data
-        AccountDto.Response response = accountMapper.accountForResponse(account);
+        AccountDto.Response response = account.getResponse();
 
         //HATEOAS REST API
         Resource resource = new Resource(response,
@@ -125,6 +156,42 @@ public class AccountRegularController {
         return ResponseEntity.ok().body(resource);
     }
 
+    /**
+     * 기준일자(asOf) 마감잔액 조회. asOf 가 없으면 오늘.
+     */
+    @GetMapping("/{accountNum}/balance")
+    public ResponseEntity getBalance(@PathVariable String accountNum,
+                                     @RequestParam(required = false) String asOf) {
+
+        AccountDto.Snapshot account = this.accountSnapshotCache.get(accountNum);
+
+        //Request Data Validation
+        if ( account == null ) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if ( asOf != null && !OBDateUtils.isValidDate(asOf) ) {
+            return ResponseEntity.badRequest().build();
+        }
+        String asOfDate = asOf == null ? OBDateUtils.getToday() : asOf;
+
+        //Set response data
+        AccountDto.ResponseBalance response = AccountDto.ResponseBalance.builder()
+                .accountNum(accountNum)
+                .asOf(asOfDate)
+                .balance(this.tradeQueryRepository.getBalanceAsOf(account.getId(), asOfDate))
+                .build();
+
+        //HATEOAS REST API
+        Resource resource = new Resource(response,
+                controllerLinkBuilder.slash(accountNum).slash("balance").withSelfRel(),
+                controllerLinkBuilder.slash(accountNum).withRel("account"),
+                getLinkOfProfile("#resources-account-balance")
+        );
+
+        return ResponseEntity.ok().body(resource);
+    }
+
     @PutMapping("/{accountNum}/deposit")
     public ResponseEntity accountDeposit(@PathVariable String accountNum,
                                   @RequestBody @Valid TradeDto.RequestDeposit requestDeposit,
@@ -176,6 +243,29 @@ public class AccountRegularController {
         return ResponseEntity.ok().body(resource);
     }
 
+    /**
+     * 다건 입출금. 계좌별 처리 결과를 요청 순서대로 응답
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity accountBulkTrade(@RequestBody TradeDto.RequestBulk requestBulk,
+                                           @CurrentUser Member currentMember) {
+
+        if ( requestBulk.getTrades() == null || requestBulk.getTrades().isEmpty() ) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TradeDto.ResponseBulk response = this.bulkTradeService.execute(requestBulk);
+
+        //HATEOAS REST API
+        Resource resource = new Resource(response,
+                controllerLinkBuilder.slash("bulk").withSelfRel(),
+                getLinkOfList(),
+                getLinkOfProfile("#resources-account-bulk-trade")
+        );
+
+        return ResponseEntity.ok().body(resource);
+    }
+
     @PutMapping("/{accountNum}/close")
     public ResponseEntity accountClose(@PathVariable String accountNum,
                                           @RequestBody @Valid TradeDto.RequestDeposit requestDeposit,
@@ -202,22 +292,35 @@ public class AccountRegularController {
     }
 
 
+    /**
+     * 거래내역 조회. cursor 파라미터가 있으면(첫 페이지는 빈 값) srno 기준 keyset 페이지로 조회 함.
+     */
     @GetMapping("/{accountNum}/trade")
-    public ResponseEntity getTradeList(@PathVariable String accountNum, Pageable pageable, PagedResourcesAssembler<Trade> assembler,
+    public ResponseEntity getTradeList(@PathVariable String accountNum, Pageable pageable, PagedResourcesAssembler<TradeDto.Response> assembler,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "false") boolean count,
                                        @CurrentUser Member member) {
 
-        Account account = this.accountRepository.findByAccountNum(accountNum);
+        AccountDto.Snapshot account = this.accountSnapshotCache.get(accountNum);
 
         //Request Data Validation
         if ( account == null ) {
             return ResponseEntity.notFound().build();
         }
 
-        Page<Trade> page = this.tradeRepository.findByAccount(account, pageable);
+        if ( cursor != null ) {
+            KeysetPage<TradeDto.Response> page = this.tradeArchiveService.findResponsesByAccountId(account.getId(), KeysetCursor.decode(cursor), pageable.getPageSize());
+            KeysetResources<Resource> keysetResources = KeysetResources.of(page,
+                    e -> new Resource(e),
+                    count ? this.tradeArchiveService.countByAccountId(account.getId()) : null);
+
+            keysetResources.add(getLinkOfProfile("#resources-trade-list"));
+            return ResponseEntity.ok(keysetResources);
+        }
+
+        Page<TradeDto.Response> page = this.tradeArchiveService.findResponsesByAccountId(account.getId(), pageable);
         PagedResources<Resource> pagedResources = assembler.toResource(page,
-                e -> new Resource(
-                        tradeMapper.entityToResponse(e)
-                ));
+                e -> new Resource(e));
 
         pagedResources.add(new Link("/docs/index.html#resources-trade-list").withRel("profile"));
 
@@ -231,6 +334,30 @@ public class AccountRegularController {
         return ResponseEntity.ok(pagedResources);
     }
 
+    /**
+     * 거래내역 전체 내보내기 (NDJSON, CSV). 페이지, COUNT 없이 srno 순서대로 응답에 바로 씀.
+     */
+    @GetMapping("/{accountNum}/trade/export")
+    public void exportTradeList(@PathVariable String accountNum,
+                                @RequestParam(defaultValue = "NDJSON") TradeExportService.Format format,
+                                HttpServletResponse response) throws IOException {
+
+        AccountDto.Snapshot account = this.accountSnapshotCache.get(accountNum);
+
+        //Request Data Validation
+        if ( account == null ) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        String extension = format == TradeExportService.Format.CSV ? "csv" : "ndjson";
+        response.setContentType(format == TradeExportService.Format.CSV ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + accountNum + "-trade." + extension + "\"");
+
+        this.tradeExportService.export(account.getId(), format, response.getOutputStream());
+    }
+
     private Link getLinkOfDeposit(String accountNum) {
         return controllerLinkBuilder.slash(accountNum).slash("deposit").withRel("deposit");
     }
@@ -85,12 +85,12 @@ public class BranchController {
     }
 
     @GetMapping
-    public ResponseEntity queryBranches(Pageable pageable, PagedResourcesAssembler<Branch> assembler,
+    public ResponseEntity queryBranches(Pageable pageable, PagedResourcesAssembler<BranchResponse> assembler,
                                         @CurrentUser Member member) {
-        Page<Branch> page = this.branchRepository.findAll(pageable);
+        Page<BranchResponse> page = this.branchRepository.findResponses(pageable);
         PagedResources<ResponseResource> pagedResources = assembler.toResource(page,
                 e -> new ResponseResource(
-                        branchMapper.entityToResponse(e),
+                        e,
                         controllerLinkBuilder.slash(e.getId()).withSelfRel()
                 ));
 
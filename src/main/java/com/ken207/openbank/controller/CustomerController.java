@@ -64,7 +64,7 @@ public class CustomerController {
         Long customerId = customerService.createCustomer(customer, employee.getId());
 
         //Set response data
-        Customer newCustomer = customerRepository.findById(customerId).get();
+        Customer newCustomer = customerRepository.findDetailById(customerId).get();
         CustomerDto.Response customerResponse = customerMapper.entityToDto(newCustomer);
 
         //HATEOAS REST API
@@ -83,11 +83,11 @@ public class CustomerController {
 
 
     @GetMapping
-    public ResponseEntity queryCustomers(Pageable pageable, PagedResourcesAssembler<Customer> assembler) {
-        Page<Customer> page = this.customerRepository.findAll(pageable);
+    public ResponseEntity queryCustomers(Pageable pageable, PagedResourcesAssembler<CustomerResponse> assembler) {
+        Page<CustomerResponse> page = this.customerRepository.findResponses(pageable);
         PagedResources<ResponseResource> pagedResources = assembler.toResource(page,
                 e -> new ResponseResource(
-                        CustomerResponse.transform(e),
+                        e,
                         controllerLinkBuilder.slash(e.getId()).withSelfRel()
                 ));
         pagedResources.add(new Link("/docs/index.html#resources-customers-list").withRel("profile"));
@@ -96,7 +96,7 @@ public class CustomerController {
 
     @GetMapping("/{customerId}")
     public ResponseEntity getCustomer(@PathVariable Long customerId) {
-        Optional<Customer> customerEntity = this.customerRepository.findById(customerId);
+        Optional<Customer> customerEntity = this.customerRepository.findDetailById(customerId);
 
         if ( !customerEntity.isPresent() ) {
             return ResponseEntity.notFound().build();
@@ -0,0 +1,61 @@
+package com.ken207.openbank.controller;
+
+import com.ken207.openbank.annotation.CurrentUser;
+import com.ken207.openbank.domain.Member;
+import com.ken207.openbank.dto.EndOfDayDto;
+import com.ken207.openbank.service.EndOfDayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.Resource;
+import org.springframework.hateoas.mvc.ControllerLinkBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(value = "/api/end-of-day", produces = MediaTypes.HAL_JSON_UTF8_VALUE)
+public class EndOfDayController {
+
+    private final EndOfDayService endOfDayService;
+    private final ControllerLinkBuilder controllerLinkBuilder = linkTo(EndOfDayController.class);
+
+    /**
+     * 현재 영업일자 일마감. 마감 후 영업일자가 다음날로 변경 됨.
+     */
+    @PostMapping
+    public ResponseEntity runEndOfDay(@CurrentUser Member member) {
+
+        EndOfDayDto.Result response = endOfDayService.run();
+
+        return toResponse(response);
+    }
+
+    /**
+     * bzDate 일자 일마감 재실행. 해당 일자의 집계와 마감 잔액을 다시 만듦.
+     */
+    @PostMapping("/{bzDate}")
+    public ResponseEntity rerunEndOfDay(@PathVariable String bzDate,
+                                        @CurrentUser Member member) {
+
+        EndOfDayDto.Result response = endOfDayService.run(bzDate);
+
+        return toResponse(response);
+    }
+
+    private ResponseEntity toResponse(EndOfDayDto.Result response) {
+        //HATEOAS REST API
+        Resource resource = new Resource(response,
+                controllerLinkBuilder.slash(response.getBzDate()).withSelfRel(),
+                getLinkOfProfile("#resources-end-of-day")
+        );
+
+        return ResponseEntity.ok().body(resource);
+    }
+
+    private Link getLinkOfProfile(String resourceUri) {
+        return new Link("/docs/index.html"+resourceUri).withRel("profile");
+    }
+}
@@ -1,18 +1,22 @@
 package com.ken207.openbank.controller;
 
 import com.ken207.openbank.annotation.CurrentUser;
+import com.ken207.openbank.common.KeysetCursor;
+import com.ken207.openbank.common.KeysetPage;
+import com.ken207.openbank.common.KeysetResources;
 import com.ken207.openbank.common.OBDateUtils;
-import com.ken207.openbank.domain.Account;
 import com.ken207.openbank.domain.Interest;
 import com.ken207.openbank.domain.Member;
 import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.dto.AccountDto;
 import com.ken207.openbank.dto.InterestDto;
 import com.ken207.openbank.dto.TradeDto;
 import com.ken207.openbank.mapper.InterestMapper;
 import com.ken207.openbank.mapper.TradeMapper;
-import com.ken207.openbank.repository.AccountRepository;
 import com.ken207.openbank.repository.InterestRepository;
 import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.AccountSnapshotCache;
+import com.ken207.openbank.service.InterestSettlementService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -33,28 +37,48 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 public class InterestController {
 
     private final AccountService accountService;
-    private final AccountRepository accountRepository;
+    private final AccountSnapshotCache accountSnapshotCache;
+    private final InterestSettlementService interestSettlementService;
     private final InterestRepository interestRepository;
     private final ControllerLinkBuilder controllerLinkBuilder = linkTo(InterestController.class);
     private final InterestMapper interestMapper = InterestMapper.INSTANCE;
     private final TradeMapper tradeMapper = TradeMapper.INSTANCE;
 
+    /**
+     * 이자지급 내역 조회. cursor 파라미터가 있으면(첫 페이지는 빈 값) id 기준 keyset 페이지로 조회 함.
+     */
     @GetMapping("/{accountNum}/log")
-    public ResponseEntity getInterestList(@PathVariable String accountNum, Pageable pageable, PagedResourcesAssembler<Interest> assembler,
+    public ResponseEntity getInterestList(@PathVariable String accountNum, Pageable pageable, PagedResourcesAssembler<InterestDto.Dto> assembler,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "false") boolean count,
                                        @CurrentUser Member currentMember) {
 
-        Account account = this.accountRepository.findByAccountNum(accountNum);
+        AccountDto.Snapshot account = this.accountSnapshotCache.get(accountNum);
 
         //Request Data Validation
         if ( account == null ) {
             return ResponseEntity.notFound().build();
         }
 
-        Page<Interest> page = this.interestRepository.findByAccount(account, pageable);
+        if ( cursor != null ) {
+            KeysetPage<InterestDto.Dto> page = this.interestRepository.findDtosByAccountId(account.getId(), KeysetCursor.decode(cursor), pageable.getPageSize());
+            KeysetResources<Resource> keysetResources = KeysetResources.of(page,
+                    e -> new Resource(
+                            e,
+                            getLinkOfDetail(accountNum, e.getId())
+                    ),
+                    count ? this.interestRepository.countByAccountId(account.getId()) : null);
+
+            keysetResources.add(getLinkOfProfile("#resources-interest-list"));
+            keysetResources.add(getLinkOfIndex(accountNum));
+            return ResponseEntity.ok(keysetResources);
+        }
+
+        Page<InterestDto.Dto> page = this.interestRepository.findDtosByAccountId(account.getId(), pageable);
 
         PagedResources<Resource> pagedResources = assembler.toResource(page,
                 e -> new Resource(
-                        interestMapper.entityToDtoForList(e),
+                        e,
                         getLinkOfDetail(accountNum, e.getId())
                 ));
 
@@ -70,14 +94,14 @@ public class InterestController {
                                             @PathVariable Long detailId,
                                           @CurrentUser Member currentMember) {
 
-        Account account = this.accountRepository.findByAccountNum(accountNum);
+        AccountDto.Snapshot account = this.accountSnapshotCache.get(accountNum);
 
         //Request Data Validation
         if ( account == null ) {
             return ResponseEntity.notFound().build();
         }
 
-        Interest interest = this.interestRepository.findById(detailId).get();
+        Interest interest = this.interestRepository.findDetailById(detailId).get();
 
         InterestDto.ResponseDetail responseDetail = interestMapper.entityToDetail(interest);
 
@@ -96,7 +120,7 @@ public class InterestController {
     public ResponseEntity payInterest(@PathVariable String accountNum,
                                           @CurrentUser Member member) {
 
-        Account account = this.accountRepository.findByAccountNum(accountNum);
+        AccountDto.Snapshot account = this.accountSnapshotCache.get(accountNum);
 
         //Request Data Validation
         if ( account == null ) {
@@ -120,11 +144,29 @@ public class InterestController {
         return ResponseEntity.ok().body(resource);
     }
 
+    /**
+     * 전체 활동계좌 이자결산. untilDate 까지 이자를 계산해서 다음날 지급 함.
+     */
+    @PostMapping("/settlement/{untilDate}")
+    public ResponseEntity settleInterest(@PathVariable String untilDate,
+                                         @CurrentUser Member member) {
+
+        InterestDto.Settlement response = interestSettlementService.settle(untilDate, OBDateUtils.addDays(untilDate, 1));
+
+        //HATEOAS REST API
+        Resource resource = new Resource(response,
+                controllerLinkBuilder.slash("settlement").slash(untilDate).withSelfRel(),
+                getLinkOfProfile("#resources-interest-settlement")
+        );
+
+        return ResponseEntity.ok().body(resource);
+    }
+
     @GetMapping("/{accountNum}")
     public ResponseEntity indexInterest(@PathVariable String accountNum,
                                       @CurrentUser Member member) {
 
-        Account account = this.accountRepository.findByAccountNum(accountNum);
+        AccountDto.Snapshot account = this.accountSnapshotCache.get(accountNum);
 
         //Request Data Validation
         if ( account == null ) {
@@ -157,7 +199,7 @@ public class InterestController {
                                         @PathVariable String until,
                                         @CurrentUser Member member) {
 
-        Account account = this.accountRepository.findByAccountNum(accountNum);
+        AccountDto.Snapshot account = this.accountSnapshotCache.get(accountNum);
 
         //Request Data Validation
         if ( account == null ) {
@@ -0,0 +1,46 @@
+package com.ken207.openbank.controller;
+
+import com.ken207.openbank.annotation.CurrentUser;
+import com.ken207.openbank.domain.Member;
+import com.ken207.openbank.dto.JournalDto;
+import com.ken207.openbank.service.TrialBalanceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.Resource;
+import org.springframework.hateoas.mvc.ControllerLinkBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(value = "/api/journal", produces = MediaTypes.HAL_JSON_UTF8_VALUE)
+public class JournalController {
+
+    private final TrialBalanceService trialBalanceService;
+    private final ControllerLinkBuilder controllerLinkBuilder = linkTo(JournalController.class);
+
+    /**
+     * 일계표(시산표). journalDate 회계일자의 전표를 과목별로 집계하고 차대 일치 여부를 검증 함.
+     */
+    @PostMapping("/trial-balance/{journalDate}")
+    public ResponseEntity runTrialBalance(@PathVariable String journalDate,
+                                          @CurrentUser Member member) {
+
+        JournalDto.TrialBalance response = trialBalanceService.run(journalDate);
+
+        //HATEOAS REST API
+        Resource resource = new Resource(response,
+                controllerLinkBuilder.slash("trial-balance").slash(journalDate).withSelfRel(),
+                getLinkOfProfile("#resources-journal-trial-balance")
+        );
+
+        return ResponseEntity.ok().body(resource);
+    }
+
+    private Link getLinkOfProfile(String resourceUri) {
+        return new Link("/docs/index.html"+resourceUri).withRel("profile");
+    }
+}
@@ -14,10 +14,32 @@ import java.util.List;
 @Entity
 @Getter
 @Builder @NoArgsConstructor @AllArgsConstructor
-@Table(name="Account")
+@Table(name="Account",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_account_num", columnNames = "accountNum"),
+        indexes = @Index(name = "idx_account_product_customer", columnList = "product_id, customer_id"))
 @AttributeOverride(name = "id",column = @Column(name = "account_id"))
+@NamedEntityGraphs({
+        // 입출금 : 일별 마감잔액 갱신
+        @NamedEntityGraph(name = Account.GRAPH_FOR_TRADE, attributeNodes = @NamedAttributeNode("lastDailyBalance")),
+        // 이자계산, 이자지급, 해지 : 계좌 기본이율 + 일별 마감잔액 갱신
+        @NamedEntityGraph(name = Account.GRAPH_FOR_INTEREST, attributeNodes = {
+                @NamedAttributeNode("basicRate"),
+                @NamedAttributeNode("lastDailyBalance")
+        }),
+        // 조회 응답(AccountMapper) : 상품, 상품 기본이율
+        @NamedEntityGraph(name = Account.GRAPH_FOR_LIST,
+                attributeNodes = {
+                        @NamedAttributeNode(value = "product", subgraph = "product-rate"),
+                        @NamedAttributeNode("basicRate")
+                },
+                subgraphs = @NamedSubgraph(name = "product-rate", attributeNodes = @NamedAttributeNode("basicRate")))
+})
 public class Account extends BaseEntity<Account> {
 
+    public static final String GRAPH_FOR_TRADE = "account-for-trade";
+    public static final String GRAPH_FOR_INTEREST = "account-for-interest";
+    public static final String GRAPH_FOR_LIST = "account-for-list";
+
     private String accountNum; //계좌번호
     private String password; //비밀번호
     private String regDate; //신규일자
@@ -28,6 +50,9 @@ public class Account extends BaseEntity<Account> {
     private long lastTrnSrno; //최종거래일련번호
     private String lastTradeDate; //최종거래일자
 
+    @Version
+    private Long version; //동시 거래 충돌 감지
+
     @Enumerated(EnumType.STRING)
     @Builder.Default
     private YesNo loanYn = YesNo.N; //대출계좌여부
@@ -42,14 +67,18 @@ public class Account extends BaseEntity<Account> {
     private ChnlDvcd regChnlDvcd;
 
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "rate_id")
     private Rate basicRate;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id")
+    private Customer customer; //고객. 고객의 관리점이 계좌의 관리점
+
     @Builder.Default
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL)
     private List<Trade> tradeEntities = new ArrayList<>();
@@ -58,9 +87,16 @@ public class Account extends BaseEntity<Account> {
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL)
     private List<Interest> interestEntities = new ArrayList<>();
 
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @JoinColumn(name = "last_daily_balance_id")
+    private DailyBalance lastDailyBalance; //최종 일별 마감잔액
+
     @Transient
     private String reckonDt; //기산일자
 
+    @Transient
+    private String bzDate; //처리일자 (영업일자)
+
     @Transient
     private long blncBefore; //거래전잔액
 
@@ -71,6 +107,21 @@ public class Account extends BaseEntity<Account> {
      * @return
      */
     public static Account openAccount(Product product, String accountNum, String regDate, TaxationCode taxationCode) {
+        return openAccount(product, product.getBasicRate(), accountNum, regDate, taxationCode);
+    }
+
+    /**
+     * 신규. 상품 카탈로그를 사용하는 경우 상품, 기본이율은 id 참조(프록시)만 전달 함.
+     * @return
+     */
+    public static Account openAccount(Product product, Rate basicRate, String accountNum, String regDate, TaxationCode taxationCode) {
+        return openAccount(product, basicRate, accountNum, regDate, taxationCode, null);
+    }
+
+    /**
+     * 신규. bzDate 는 신규 거래의 처리일자(영업일자), null 이면 오늘.
+     */
+    public static Account openAccount(Product product, Rate basicRate, String accountNum, String regDate, TaxationCode taxationCode, String bzDate) {
         Account account = Account.builder()
                 .accountNum(accountNum) //계좌번호
                 .regDate(regDate) //신규일자
@@ -84,7 +135,8 @@ public class Account extends BaseEntity<Account> {
                 .blncBefore(0)
                 .tradeAmount(0)
                 .product(product)
-                .basicRate(product.getBasicRate())
+                .basicRate(basicRate)
+                .bzDate(bzDate)
                 .build();
 
         account.addTradeLog(TradeCd.OPEN);
@@ -145,6 +197,11 @@ public class Account extends BaseEntity<Account> {
      */
     public Trade payInterest(Interest interest) {
 
+        // 일별 마감잔액은 최종 일자만 갱신하므로, 최종거래일자 이전 기산일 이자지급은 받지 않음
+        if ( OBDateUtils.compareDate(lastTradeDate, getReckonDt()) > 0 ) {
+            throw new BizRuntimeException("지정일 이 후 거래가 존재. 기산일 거래를 요청해야 함.");
+        }
+
         this.lastIntsDt = interest.getToDate();
         this.tradeAmount = interest.getInterestAmount();
         this.blncBefore = this.balance;
@@ -182,18 +239,39 @@ public class Account extends BaseEntity<Account> {
                 .blncAfter(this.balance)
                 .tradeCd(tradeCd)
                 .tradeDate(this.getReckonDt())
-                .bzDate(OBDateUtils.getToday())
+                .bzDate(this.getBzDate())
                 .account(this)
                 .build();
 
-        // 전표 생성
-        trade.createStatement();
+        // 일별 마감잔액 반영. 기산일 거래는 최종거래일자 이후만 가능하므로 최종 일자만 갱신하면 됨.
+        if ( this.lastDailyBalance != null && this.lastDailyBalance.isSameDay(trade) ) {
+            this.lastDailyBalance.apply(trade);
+        }
+        else {
+            this.lastDailyBalance = DailyBalance.createDailyBalance(trade);
+        }
 
         this.lastTradeDate = this.getReckonDt();
         this.tradeEntities.add(trade);
         return trade;
     }
 
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
+
+    public void setBzDate(String bzDate) {
+        this.bzDate = bzDate;
+    }
+
+    public String getBzDate() {
+        if ( bzDate == null ) {
+            return OBDateUtils.getToday();
+        }
+
+        return bzDate;
+    }
+
     public void setReckonDt(String reckonDt) {
         this.reckonDt = reckonDt;
     }
@@ -0,0 +1,59 @@
+package com.ken207.openbank.domain;
+
+import com.ken207.openbank.domain.enums.TradeCd;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 계좌 이벤트 (append-only). 계좌의 신규, 입금, 출금, 이자지급, 해지 한 건이 이벤트 한 건이며 수정, 삭제하지 않는다.
+ * 거래일련번호(srno)가 계좌별 이벤트 순번이고, 계좌 상태(AccountState)는 스냅샷 이후 이벤트를 순서대로 적용해서 만든다.
+ */
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name="AccountEvent",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_event_account_srno", columnNames = {"account_id", "srno"}))
+public class AccountEvent {
+
+    @Id
+    @GeneratedValue
+    @Column(name = "account_event_id")
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+    private long srno; //계좌별 이벤트 순번 (거래일련번호)
+    private TradeCd tradeCd;
+    private String tradeDate;
+    private String bzDate;
+    private long amount;
+    private String lastIntsDt; //신규, 이자지급 후 최종이자계산일자
+    private LocalDateTime createdDate;
+
+    public AccountEvent(Long accountId, long srno, TradeCd tradeCd, String tradeDate, String bzDate, long amount, String lastIntsDt) {
+        this.accountId = accountId;
+        this.srno = srno;
+        this.tradeCd = tradeCd;
+        this.tradeDate = tradeDate;
+        this.bzDate = bzDate;
+        this.amount = amount;
+        this.lastIntsDt = lastIntsDt;
+        this.createdDate = LocalDateTime.now();
+    }
+
+    /**
+     * 거래 직후(원장 반영 후) 호출해야 함.
+     */
+    public static AccountEvent of(Trade trade) {
+        Account account = trade.getAccount();
+        String lastIntsDt = trade.getTradeCd() == TradeCd.OPEN || trade.getTradeCd() == TradeCd.INTEREST ? account.getLastIntsDt() : null;
+        return new AccountEvent(account.getId(), trade.getSrno(), trade.getTradeCd(), trade.getTradeDate(), trade.getBzDate(),
+                trade.getAmount(), lastIntsDt);
+    }
+}
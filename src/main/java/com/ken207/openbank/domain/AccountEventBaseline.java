@@ -0,0 +1,56 @@
+package com.ken207.openbank.domain;
+
+import com.ken207.openbank.domain.enums.AccountStatusCode;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 계좌 이벤트 기준 상태. adopt 한 계좌(이벤트 소싱 모드 이전에 신규한 계좌)의 원장 상태이며 srno 이전 이벤트를 대신한다.
+ * 스냅샷과 달리 이후 이벤트로 갱신하지 않으므로, 전체 이벤트 재생은 이 상태에서 시작한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name="AccountEventBaseline")
+public class AccountEventBaseline {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+    private long srno; //기준 상태에 반영된 마지막 거래일련번호
+    private long balance;
+    private String lastTradeDate;
+    private String lastIntsDt;
+    private String closeDate;
+
+    @Enumerated(EnumType.STRING)
+    private AccountStatusCode accountStatusCode;
+
+    private LocalDateTime createdDate;
+
+    public AccountEventBaseline(AccountState state) {
+        this.accountId = state.getAccountId();
+        update(state);
+    }
+
+    /**
+     * 다시 adopt 한 경우 (이벤트가 누락된 기간 이후 원장 기준으로 재등록)
+     */
+    public void update(AccountState state) {
+        this.srno = state.getSrno();
+        this.balance = state.getBalance();
+        this.lastTradeDate = state.getLastTradeDate();
+        this.lastIntsDt = state.getLastIntsDt();
+        this.closeDate = state.getCloseDate();
+        this.accountStatusCode = state.getAccountStatusCode();
+        this.createdDate = LocalDateTime.now();
+    }
+
+    public AccountState toState() {
+        return new AccountState(accountId, srno, balance, lastTradeDate, lastIntsDt, closeDate, accountStatusCode);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ken207.openbank.domain;
+
+import com.ken207.openbank.domain.enums.AccountStatusCode;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 계좌 상태 스냅샷. 계좌별 최근 한 건만 유지하며, 상태 복원 시 srno 이후 이벤트만 적용한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name="AccountEventSnapshot")
+public class AccountEventSnapshot {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+    private long srno; //스냅샷에 반영된 마지막 이벤트 순번
+    private long balance;
+    private String lastTradeDate;
+    private String lastIntsDt;
+    private String closeDate;
+
+    @Enumerated(EnumType.STRING)
+    private AccountStatusCode accountStatusCode;
+
+    private LocalDateTime updatedDate;
+
+    public AccountEventSnapshot(AccountState state) {
+        this.accountId = state.getAccountId();
+        update(state);
+    }
+
+    public void update(AccountState state) {
+        this.srno = state.getSrno();
+        this.balance = state.getBalance();
+        this.lastTradeDate = state.getLastTradeDate();
+        this.lastIntsDt = state.getLastIntsDt();
+        this.closeDate = state.getCloseDate();
+        this.accountStatusCode = state.getAccountStatusCode();
+        this.updatedDate = LocalDateTime.now();
+    }
+
+    public AccountState toState() {
+        return new AccountState(accountId, srno, balance, lastTradeDate, lastIntsDt, closeDate, accountStatusCode);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ken207.openbank.domain;
+
+import com.ken207.openbank.domain.enums.AccountStatusCode;
+import com.ken207.openbank.domain.enums.TradeCd;
+import lombok.Getter;
+
+import java.util.Objects;
+
+/**
+ * 계좌 이벤트를 순서대로 적용한 계좌 상태. (이벤트 소싱)
+ * 거래금액만 사용하므로 원장(Account)의 잔액, 임시 필드(blncBefore, tradeAmount)와 무관하게 같은 결과를 만든다.
+ */
+@Getter
+public class AccountState {
+
+    private final Long accountId;
+    private long srno; //마지막으로 적용한 이벤트 순번
+    private long balance;
+    private String lastTradeDate;
+    private String lastIntsDt;
+    private String closeDate;
+    private AccountStatusCode accountStatusCode;
+
+    public AccountState(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public AccountState(Long accountId, long srno, long balance, String lastTradeDate, String lastIntsDt,
+                        String closeDate, AccountStatusCode accountStatusCode) {
+        this.accountId = accountId;
+        this.srno = srno;
+        this.balance = balance;
+        this.lastTradeDate = lastTradeDate;
+        this.lastIntsDt = lastIntsDt;
+        this.closeDate = closeDate;
+        this.accountStatusCode = accountStatusCode;
+    }
+
+    public AccountState apply(AccountEvent event) {
+        return apply(event.getSrno(), event.getTradeCd(), event.getTradeDate(), event.getAmount(), event.getLastIntsDt());
+    }
+
+    /**
+     * @throws IllegalStateException 이벤트 순번이 연속되지 않는 경우 (누락, 중복)
+     */
+    public AccountState apply(long srno, TradeCd tradeCd, String tradeDate, long amount, String lastIntsDt) {
+        if ( srno != this.srno + 1 ) {
+            throw new IllegalStateException("계좌 이벤트 순번 오류. account_id:" + accountId + ", 마지막 순번:" + this.srno + ", 이벤트 순번:" + srno);
+        }
+
+        this.srno = srno;
+        this.balance += TradeCd.IO.in.contains(tradeCd) ? amount : -amount;
+        this.lastTradeDate = tradeDate;
+
+        if ( tradeCd == TradeCd.OPEN ) {
+            this.accountStatusCode = AccountStatusCode.ACTIVE;
+            this.lastIntsDt = lastIntsDt;
+        }
+        else if ( tradeCd == TradeCd.INTEREST ) {
+            this.lastIntsDt = lastIntsDt;
+        }
+        else if ( tradeCd == TradeCd.CLOSE ) {
+            this.accountStatusCode = AccountStatusCode.CLOSE;
+            this.closeDate = tradeDate;
+        }
+        return this;
+    }
+
+    /**
+     * @return 원장의 잔액, 최종거래일련번호, 최종거래일자, 최종이자계산일자, 상태가 같으면 true
+     */
+    public boolean matches(Account account) {
+        return srno == account.getLastTrnSrno()
+                && balance == account.getBalance()
+                && Objects.equals(lastTradeDate, account.getLastTradeDate())
+                && Objects.equals(lastIntsDt, account.getLastIntsDt())
+                && accountStatusCode == account.getAccountStatusCode();
+    }
+}
@@ -23,7 +23,7 @@ public class Branch extends BaseEntity<Branch> {
     @Enumerated(EnumType.STRING)
     private BranchType branchType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Member manager;
 
     public Branch(String name, String businessNumber, String taxOfficeCode, String telNumber, BranchType branchType) {
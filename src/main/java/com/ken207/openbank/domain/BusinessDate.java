@@ -0,0 +1,45 @@
+package com.ken207.openbank.domain;
+
+import com.ken207.openbank.common.OBDateUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * 영업일자. 거래의 처리일자(Trade.bzDate)는 현재 영업일자이며, 일마감(EOD) 배치가 다음 날로 변경한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name="BusinessDate")
+public class BusinessDate {
+
+    public static final String DEFAULT_NAME = "OPENBANK";
+
+    @Id
+    private String name;
+    private String bzDate; //현재 영업일자
+    private String lastClosedDate; //최종 마감일자
+
+    public BusinessDate(String name, String bzDate) {
+        this.name = name;
+        this.bzDate = bzDate;
+    }
+
+    /**
+     * 마감일자가 현재 영업일자이면 다음 날로 변경. 이미 변경된 경우(재실행)는 그대로 둔다.
+     */
+    public void roll(String closeDate) {
+        if ( OBDateUtils.isSameDate(this.bzDate, closeDate) ) {
+            this.bzDate = OBDateUtils.addDays(closeDate, 1);
+        }
+    }
+
+    public void close(String closeDate) {
+        this.lastClosedDate = closeDate;
+    }
+}
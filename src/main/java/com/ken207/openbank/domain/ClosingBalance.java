@@ -0,0 +1,24 @@
+package com.ken207.openbank.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * 계좌 마감 잔액 스냅샷. 일마감 배치가 마감일자마다 계좌별로 한 행을 JDBC batch insert 한다.
+ * 다음 마감의 잔액 대사는 이 잔액에 이후 거래 합계를 더한 값과 원장 잔액을 비교한다.
+ */
+@Entity
+@Getter
+@Builder @AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name="ClosingBalance", indexes = @Index(name = "idx_closing_balance_account_date", columnList = "account_id, bzDate"))
+@AttributeOverride(name = "id",column = @Column(name = "closing_balance_id"))
+public class ClosingBalance extends BaseEntity<ClosingBalance> {
+
+    private String bzDate; //마감일자
+    private long balance; //마감 잔액
+
+    @Column(name = "account_id")
+    private Long accountId;
+}
@@ -0,0 +1,38 @@
+package com.ken207.openbank.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * 채번 테이블. 번호 종류(prefix)별로 한 행을 두고 블록 단위로 번호를 예약한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name="CodeSequence")
+public class CodeSequence {
+
+    @Id
+    private String sequenceName;
+    private long nextValue; //다음 블록의 시작 번호
+
+    public CodeSequence(String sequenceName) {
+        this.sequenceName = sequenceName;
+        this.nextValue = 1;
+    }
+
+    /**
+     * blockSize 만큼 번호를 예약
+     * @return 예약된 블록의 첫번째 번호
+     */
+    public long reserve(int blockSize) {
+        long start = this.nextValue;
+        this.nextValue += blockSize;
+        return start;
+    }
+}
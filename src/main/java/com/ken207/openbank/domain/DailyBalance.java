@@ -0,0 +1,53 @@
+package com.ken207.openbank.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import javax.persistence.*;
+
+import static javax.persistence.FetchType.LAZY;
+
+/**
+ * 계좌 일별 마감 잔액.
+ * 거래가 있었던 날마다 한 행이며 그 날의 마지막 거래 후 잔액을 가진다.
+ * 이자계산은 거래내역 대신 이 테이블을 사용한다.
+ * 기준일자 잔액(as-of) 조회도 이 테이블을 잔액 체크포인트로 사용한다.
+ */
+@Entity
+@Getter
+@Builder @AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name="DailyBalance", indexes = @Index(name = "idx_daily_balance_account_date", columnList = "account_id, tradeDate"))
+@AttributeOverride(name = "id",column = @Column(name = "daily_balance_id"))
+public class DailyBalance extends BaseEntity<DailyBalance> {
+
+    private String tradeDate; //거래일자(기산일)
+    private long balance; //마감잔액
+    private long lastSrno; //해당일 마지막 거래일련번호
+
+    @JsonIgnore
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "account_id")
+    private Account account;
+
+    public static DailyBalance createDailyBalance(Trade trade) {
+        return DailyBalance.builder()
+                .account(trade.getAccount())
+                .tradeDate(trade.getTradeDate())
+                .balance(trade.getBlncAfter())
+                .lastSrno(trade.getSrno())
+                .build();
+    }
+
+    public boolean isSameDay(Trade trade) {
+        return this.tradeDate.equals(trade.getTradeDate());
+    }
+
+    /**
+     * 같은 날 거래 발생 시 마감 잔액 갱신
+     */
+    public void apply(Trade trade) {
+        this.balance = trade.getBlncAfter();
+        this.lastSrno = trade.getSrno();
+    }
+}
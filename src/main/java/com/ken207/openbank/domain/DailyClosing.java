@@ -0,0 +1,31 @@
+package com.ken207.openbank.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * 일마감 집계. 처리일자(bzDate)의 관리점, 상품별 거래 합계와 마감 잔액 합계.
+ * 관리점이 없는 계좌(고객 미연결)는 branchId 0 으로 집계한다.
+ */
+@Entity
+@Getter
+@Builder @AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name="DailyClosing", indexes = @Index(name = "idx_daily_closing_date", columnList = "bzDate, branchId, productId"))
+@AttributeOverride(name = "id",column = @Column(name = "daily_closing_id"))
+public class DailyClosing extends BaseEntity<DailyClosing> {
+
+    private String bzDate; //마감일자
+    private long branchId; //관리점 id
+    private long productId; //상품 id
+
+    private long accountCount; //계좌수
+    private long tradeCount; //거래건수
+    private long depositAmount; //입금 합계 (신규, 입금)
+    private long withdrawAmount; //출금 합계 (출금, 해지)
+    private long interestAmount; //이자지급 합계
+    private long balanceAmount; //마감 잔액 합계
+    private long mismatchCount; //잔액 대사 불일치 계좌수
+    private long elapsedMillis; //파티션 처리시간
+}
@@ -13,7 +13,7 @@ import static javax.persistence.FetchType.LAZY;
 @Entity
 @Getter @Setter
 @Builder @NoArgsConstructor @AllArgsConstructor
-@Table(name="Employee")
+@Table(name="Employee", uniqueConstraints = @UniqueConstraint(name = "uk_employee_employee_code", columnNames = "employeeCode"))
 @AttributeOverride(name = "id",column = @Column(name = "employee_id"))
 public class Employee extends BaseEntity<Employee> {
 
@@ -1,6 +1,7 @@
 package com.ken207.openbank.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ken207.openbank.common.InterestArithmetic;
 import com.ken207.openbank.common.OBDateUtils;
 import com.ken207.openbank.domain.enums.PeriodType;
 import lombok.AllArgsConstructor;
@@ -20,10 +21,16 @@ import static javax.persistence.FetchType.LAZY;
 @Getter
 @Builder @NoArgsConstructor
 @AllArgsConstructor
-@Table(name="Interest")
+@Table(name="Interest", indexes = @Index(name = "idx_interest_account", columnList = "account_id"))
 @AttributeOverride(name = "id",column = @Column(name = "interest_id"))
+@NamedEntityGraph(name = Interest.GRAPH_DETAIL, attributeNodes = {
+        @NamedAttributeNode("interestDetails"),
+        @NamedAttributeNode("account")
+})
 public class Interest extends BaseEntity<Interest> {
 
+    public static final String GRAPH_DETAIL = "interest-detail";
+
     private String reckonDate;
     private String fromDate;
     private String toDate;
@@ -53,6 +60,9 @@ public class Interest extends BaseEntity<Interest> {
     @Transient
     private boolean isSorted = false;
 
+    @Transient
+    private RateSchedule rateSchedule; //기본이율 변경 이력. 없으면 basicRate 로 계산
+
     //==연관관계 메서드==//
     public void setAccount(Account account) {
         this.account = account;
@@ -75,6 +85,10 @@ public class Interest extends BaseEntity<Interest> {
         this.periodType = periodType;
     }
 
+    public void setRateSchedule(RateSchedule rateSchedule) {
+        this.rateSchedule = rateSchedule;
+    }
+
     public void setTradeListForInterest(List<Trade> tradeListForInterest) {
         this.tradeListForInterest = tradeListForInterest;
     }
@@ -97,37 +111,94 @@ public class Interest extends BaseEntity<Interest> {
             sortedTradeList();
         }
 
-        String flagTradeDate = this.toDate;
+        // 일자는 epoch day 로 계산하고 InterestDetail 저장 시에만 문자열로 변환
+        int flagTradeDay = OBDateUtils.toEpochDay(this.toDate);
         for (Trade trade: tradeListForInterest) {
+            int tradeDay = OBDateUtils.toEpochDay(trade.getTradeDate());
+
+            addInterestDetails(trade.getBlncAfter(), tradeDay, flagTradeDay);
+
+            flagTradeDay = tradeDay - 1;
+        }
+    }
+
+    /**
+     * 일별 마감잔액을 이용해 이자계산 상세 내역을 생성
+     * 일별 마감잔액은 최근 일자 -> 오래된 일자 순서여야 함.
+     */
+    public void makeInterestDetail(List<DailyBalance> dailyBalances) {
+
+        int fromDay = OBDateUtils.toEpochDay(this.fromDate);
+        int flagTradeDay = OBDateUtils.toEpochDay(this.toDate);
+        for (DailyBalance dailyBalance : dailyBalances) {
+            int tradeDay = OBDateUtils.toEpochDay(dailyBalance.getTradeDate());
+
+            if ( tradeDay > flagTradeDay || tradeDay < fromDay ) {
+                continue;
+            }
+
+            addInterestDetails(dailyBalance.getBalance(), tradeDay, flagTradeDay);
 
-            InterestDetail interestDetail = InterestDetail.builder()
-                    .interest(this)
-                    .interestRate(this.basicRate)
-                    .balance(trade.getBlncAfter())
-                    .fromDate(trade.getTradeDate())
-                    .toDate(flagTradeDate)
-                    .build();
+            flagTradeDay = tradeDay - 1;
+        }
+    }
+
+    /**
+     * 같은 잔액 구간을 이율 변경일 기준으로 나눠서 이자계산 상세 추가. (최근 구간 -> 오래된 구간 순서)
+     */
+    private void addInterestDetails(long balance, int fromDay, int toDay) {
 
-            interestDetails.add(interestDetail);
+        if ( rateSchedule == null || fromDay >= toDay ) {
+            double interestRate = rateSchedule == null ? this.basicRate : rateSchedule.getRate(rateSchedule.indexOf(fromDay));
+            addInterestDetail(balance, interestRate, fromDay, toDay);
+            return;
+        }
 
-            flagTradeDate = OBDateUtils.addDays(trade.getTradeDate(), -1);
+        int index = rateSchedule.indexOf(toDay);
+        int segmentToDay = toDay;
+        while (true) {
+            int segmentFromDay = Math.max(fromDay, rateSchedule.getStartDay(index));
+            addInterestDetail(balance, rateSchedule.getRate(index), segmentFromDay, segmentToDay);
+
+            if ( segmentFromDay == fromDay ) {
+                return;
+            }
+            segmentToDay = segmentFromDay - 1;
+            index--;
         }
     }
 
+    private void addInterestDetail(long balance, double interestRate, int fromDay, int toDay) {
+        InterestDetail interestDetail = InterestDetail.builder()
+                .interest(this)
+                .interestRate(interestRate)
+                .balance(balance)
+                .fromDate(OBDateUtils.fromEpochDay(fromDay))
+                .toDate(OBDateUtils.fromEpochDay(toDay))
+                .build();
 
+        interestDetails.add(interestDetail);
+    }
+
+    /**
+     * 이자계산상세별 이자를 합산해서 원 미만 절상.
+     * 일수이자는 1/1000 원 미만 절사한 값, 월수이자는 절사하지 않은 값을 합산한다.
+     */
     public void calculate() {
         if ( this.periodType == PeriodType.DAILY) {
-            interestDetails.stream().forEach(o -> {
-                o.calculateByDays();
-            });
+            long interestSumMilli = 0;
+            for (InterestDetail interestDetail : interestDetails) {
+                interestSumMilli += interestDetail.calculateMilliByDays();
+            }
+            this.interestAmount = InterestArithmetic.ceilToWon(interestSumMilli);
         }
         else {
-            interestDetails.stream().forEach(o -> {
-                o.calculateByMonths();
-            });
+            for (InterestDetail interestDetail : interestDetails) {
+                interestDetail.calculateByMonths();
+            }
+            Double interestSum = interestDetails.stream().collect(Collectors.summingDouble(InterestDetail::getInterestAmount));
+            this.interestAmount = Double.valueOf(Math.ceil(interestSum)).longValue();
         }
-        Double interestSum = interestDetails.stream().collect(Collectors.summingDouble(InterestDetail::getInterestAmount));
-        this.interestAmount = Double.valueOf(Math.ceil(interestSum)).longValue();
     }
 
     /**
@@ -140,22 +211,21 @@ public class Interest extends BaseEntity<Interest> {
             sortedTradeList();
         }
 
-        var ref = new Object() {
-            String finalFlagTradeDate = toDate;
-        };
-
-        this.tradeListForInterest = tradeListForInterest.stream()
-                .filter(trade -> {
-                    if (OBDateUtils.isLeftLater(trade.getTradeDate(), ref.finalFlagTradeDate)) {
-                        return false;
-                    } else if (OBDateUtils.isLeftEarlier(trade.getTradeDate(), this.fromDate)) {
-                        return false;
-                    }
-
-                    ref.finalFlagTradeDate = OBDateUtils.addDays(trade.getTradeDate(), -1);
-                    return true;
-                })
-                .collect(Collectors.toList());
+        int fromDay = OBDateUtils.toEpochDay(this.fromDate);
+        int flagTradeDay = OBDateUtils.toEpochDay(this.toDate);
+
+        List<Trade> lastTradeOfDays = new ArrayList<>();
+        for (Trade trade : tradeListForInterest) {
+            int tradeDay = OBDateUtils.toEpochDay(trade.getTradeDate());
+
+            if ( tradeDay > flagTradeDay || tradeDay < fromDay ) {
+                continue;
+            }
+
+            lastTradeOfDays.add(trade);
+            flagTradeDay = tradeDay - 1;
+        }
+        this.tradeListForInterest = lastTradeOfDays;
     }
 
     public Trade payInterest(String reckonDate) {
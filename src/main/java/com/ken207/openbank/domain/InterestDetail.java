@@ -1,6 +1,7 @@
 package com.ken207.openbank.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ken207.openbank.common.InterestArithmetic;
 import com.ken207.openbank.common.OBDateUtils;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,7 +11,6 @@ import lombok.NoArgsConstructor;
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.math.MathContext;
-import java.math.RoundingMode;
 
 import static javax.persistence.FetchType.LAZY;
 
@@ -39,28 +39,31 @@ public class InterestDetail extends BaseEntity<InterestDetail> {
 
     /**
      * 일수이자계산
-     * @return 이자 = 잔액 * 이율 * 일수 / 100 / 365
+     * @return 이자 = 잔액 * 이율 * 일수 / 100 / 365 (소수점 3자리 미만 절사)
      */
     public double calculateByDays() {
-        setDays();
-
-        BigDecimal balanceBig = new BigDecimal(balance);
-        BigDecimal interestRateBig = new BigDecimal(interestRate);
-        BigDecimal daysBig = new BigDecimal(days);
-        BigDecimal number100ForRate = new BigDecimal(100);
-        BigDecimal daysOfYear = new BigDecimal(365);
-        BigDecimal interestBig = balanceBig.multiply(interestRateBig).divide(number100ForRate, MathContext.DECIMAL64).multiply(daysBig).divide(daysOfYear, MathContext.DECIMAL64);
-        this.interestAmount = interestBig.setScale(3, RoundingMode.DOWN).doubleValue();
+        calculateMilliByDays();
         return this.interestAmount;
     }
 
+    /**
+     * 일수이자계산
+     * @return 이자(1/1000 원 단위)
+     */
+    public long calculateMilliByDays() {
+        setDays();
+        long interestMilli = InterestArithmetic.dailyInterestMilli(balance, InterestArithmetic.toRateMicros(interestRate), days);
+        this.interestAmount = InterestArithmetic.milliToDouble(interestMilli);
+        return interestMilli;
+    }
+
     public void setDays() {
         this.days = OBDateUtils.getNumberOfDaysInclude(fromDate, toDate);
     }
 
     /**
-     * 월수이자계산
-     * @return 이자 = 잔액 * 이율 * 일수 / 100 / 365
+     * 월수이자계산. 이자상세는 절사하지 않는다.
+     * @return 이자 = 잔액 * 이율 * 월수 / 100 / 12
      */
     public double calculateByMonths() {
         BigDecimal balanceBig = new BigDecimal(balance);
@@ -0,0 +1,33 @@
+package com.ken207.openbank.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * 전표 기표 대기(outbox). 거래와 같은 트랜잭션에서 거래 한 건당 한 행을 추가하고,
+ * JournalOutboxDispatcher 가 전표를 저장한 후 삭제한다.
+ * 거래 id 를 키로 사용하므로 채번이 없고, 같은 거래가 두 번 등록되지 않는다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name="JournalOutbox")
+public class JournalOutbox {
+
+    @Id
+    private Long tradeId;
+    private String accountSubjectCode; //계좌 상품의 과목코드
+    private LocalDateTime createdDate;
+
+    public JournalOutbox(Long tradeId, String accountSubjectCode) {
+        this.tradeId = tradeId;
+        this.accountSubjectCode = accountSubjectCode;
+        this.createdDate = LocalDateTime.now();
+    }
+}
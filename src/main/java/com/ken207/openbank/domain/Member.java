@@ -20,7 +20,7 @@ public class Member {
 
     private String password;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
     @Enumerated(EnumType.STRING)
     private Set<MemberRole> roles;
 
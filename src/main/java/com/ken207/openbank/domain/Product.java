@@ -1,20 +1,24 @@
 package com.ken207.openbank.domain;
 
+import com.ken207.openbank.common.OBDateUtils;
 import com.ken207.openbank.domain.enums.SubjectCode;
 import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.exception.BizRuntimeException;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Getter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name="Product")
+@Table(name="Product", uniqueConstraints = @UniqueConstraint(name = "uk_product_product_code", columnNames = "productCode"))
 @AttributeOverride(name = "id",column = @Column(name = "product_id"))
 public class Product extends BaseEntity<Product> {
 
@@ -29,7 +33,12 @@ public class Product extends BaseEntity<Product> {
 
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "rate_id")
-    private Rate basicRate;
+    private Rate basicRate; //현재 기본이율
+
+    @Builder.Default
+    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
+    @OrderBy("startDate")
+    private List<Rate> rates = new ArrayList<>(); //기본이율 변경 이력
 
     public static Product createProduct(ProductDto.Create productCreateDto) {
 
@@ -53,33 +62,47 @@ public class Product extends BaseEntity<Product> {
                 .basicRate(basicRate)
                 .build();
 
-//        product.addRate(basicRate);
+        product.addRate(basicRate);
 
         return product;
     }
 
-//    private void addRate(RateEntity rateEntity) {
-//        this.allBasicRate.add(rateEntity);
-//    }
-//
-//    public RateEntity addRate(String changeDate, double changeRate) {
-//
-//        RateEntity rateEntity = getLastBasicRate();
-//        String endDate = rateEntity.getEndDate();
-//        rateEntity.setEndDate(OBDateUtils.addDays(changeDate, -1));
-//
-//        RateEntity newRateEntity = RateEntity.builder()
-//                .rate(changeRate)
-//                .startDate(changeDate)
-//                .endDate(endDate)
-//                .build();
-//        this.allBasicRate.add(newRateEntity);
-//
-//        return newRateEntity;
-//
-//    }
-//
-//    public RateEntity getLastBasicRate() {
-//        return this.allBasicRate.get(this.allBasicRate.size() - 1);
-//    }
+    private void addRate(Rate rate) {
+        rate.setProduct(this);
+        this.rates.add(rate);
+    }
+
+    /**
+     * 기본이율 변경. 이전 이율은 변경일 전날 종료하고, 변경일부터 새 이율을 적용한다.
+     */
+    public Rate changeRate(String changeDate, double changeRate) {
+
+        // 이력 도입 전에 등록된 상품은 현재 기본이율을 첫 이력으로 등록
+        if ( this.rates.isEmpty() ) {
+            addRate(this.basicRate);
+        }
+
+        Rate lastRate = getLastBasicRate();
+        if ( changeDate.compareTo(lastRate.getStartDate()) <= 0 ) {
+            throw new BizRuntimeException("이율 변경일은 현재 이율 시작일 이후여야 합니다. 변경일:" + changeDate);
+        }
+
+        String endDate = lastRate.getEndDate();
+        lastRate.setEndDate(OBDateUtils.addDays(changeDate, -1));
+
+        Rate newRate = Rate.builder()
+                .name(lastRate.getName())
+                .rate(changeRate)
+                .startDate(changeDate)
+                .endDate(endDate)
+                .build();
+        addRate(newRate);
+        this.basicRate = newRate;
+
+        return newRate;
+    }
+
+    public Rate getLastBasicRate() {
+        return this.rates.get(this.rates.size() - 1);
+    }
 }
@@ -2,10 +2,11 @@ package com.ken207.openbank.domain;
 
 import lombok.*;
 
-import javax.persistence.AttributeOverride;
-import javax.persistence.Column;
-import javax.persistence.Entity;
-import javax.persistence.Table;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import javax.persistence.*;
+
+import static javax.persistence.FetchType.LAZY;
 
 @Entity
 @Getter @Setter
@@ -21,4 +22,9 @@ public class Rate extends BaseEntity<Rate> {
     private String endDate;
     private double rate;
 
+    @JsonIgnore
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "product_id")
+    private Product product; //이율 변경 이력의 상품
+
 }
@@ -0,0 +1,82 @@
+package com.ken207.openbank.domain;
+
+import com.ken207.openbank.common.OBDateUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 상품 기본이율 변경 이력의 구간 인덱스. (변경 불가)
+ * 이율 시작일(epoch day)을 정렬된 배열로 보관하고 이진 탐색으로 적용 이율을 찾는다.
+ * 각 이율은 다음 이율 시작일 전날까지 적용하고, 첫 이율은 시작일 이전 기간에도 적용한다.
+ * 한 번 만들어서 여러 계좌의 이자계산에서 공유하므로 구간마다 이율을 다시 조회하지 않는다.
+ */
+public final class RateSchedule {
+
+    private final int[] startDays;
+    private final double[] rates;
+
+    private RateSchedule(int[] startDays, double[] rates) {
+        this.startDays = startDays;
+        this.rates = rates;
+    }
+
+    /**
+     * @return 이율이 없으면 null
+     */
+    public static RateSchedule of(List<Rate> rateHistory) {
+        if ( rateHistory == null || rateHistory.isEmpty() ) {
+            return null;
+        }
+
+        List<Rate> sorted = new ArrayList<>(rateHistory);
+        sorted.sort(Comparator.comparing(Rate::getStartDate));
+
+        int[] startDays = new int[sorted.size()];
+        double[] rates = new double[sorted.size()];
+        int size = 0;
+        for (Rate rate : sorted) {
+            int startDay = OBDateUtils.toEpochDay(rate.getStartDate());
+            // 같은 날 시작하는 이율은 나중에 등록된 이율 적용
+            if ( size > 0 && startDays[size - 1] == startDay ) {
+                size--;
+            }
+            startDays[size] = startDay;
+            rates[size] = rate.getRate();
+            size++;
+        }
+        return new RateSchedule(Arrays.copyOf(startDays, size), Arrays.copyOf(rates, size));
+    }
+
+    public int size() {
+        return startDays.length;
+    }
+
+    /**
+     * @return epochDay 에 적용되는 이율의 index
+     */
+    public int indexOf(int epochDay) {
+        int index = Arrays.binarySearch(startDays, epochDay);
+        if ( index < 0 ) {
+            index = -index - 2; // 시작일이 epochDay 보다 작은 마지막 이율
+        }
+        return Math.max(index, 0);
+    }
+
+    public double getRate(int index) {
+        return rates[index];
+    }
+
+    /**
+     * @return index 이율의 적용 시작일. 첫 이율은 Integer.MIN_VALUE
+     */
+    public int getStartDay(int index) {
+        return index == 0 ? Integer.MIN_VALUE : startDays[index];
+    }
+
+    public double rateAt(String date) {
+        return rates[indexOf(OBDateUtils.toEpochDay(date))];
+    }
+}
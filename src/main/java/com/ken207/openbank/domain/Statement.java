@@ -1,28 +1,49 @@
 package com.ken207.openbank.domain;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.enums.DebitCreditCd;
 import com.ken207.openbank.domain.enums.InOutCd;
 import com.ken207.openbank.domain.enums.TradeCd;
 import com.ken207.openbank.domain.enums.YesNo;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static javax.persistence.FetchType.LAZY;
 
+/**
+ * 전표(분개). 거래 한 건은 금액이 같은 차변, 대변 두 행으로 기록한다.
+ * 추가만 하고 변경하지 않으며, JournalWriter 가 여러 거래의 전표를 모아서 한 번에 저장한다.
+ * 거래, 순번(trade_id, subSrno)은 unique 이므로 같은 거래를 두 번 기표할 수 없다.
+ */
 @Entity
+@Getter
+@Immutable
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(name="Statement", indexes = @Index(name = "idx_statement_journal_date", columnList = "journalDate, trade_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_statement_trade_sub_srno", columnNames = {"trade_id", "subSrno"}))
 public class Statement extends BaseEntity<Statement> {
 
+    public static final String CASH_SUBJECT_CODE = "11"; //현금
+    public static final String INTEREST_EXPENSE_SUBJECT_CODE = "51"; //이자비용
+
     private LocalDateTime tradeDate;
+    private String journalDate; //회계일자 (거래 처리일자)
     private int subSrno;
     private String accountSubjectCode;
+
+    @Enumerated(EnumType.STRING)
+    private DebitCreditCd debitCreditCd;
+
     private Long tradeAmount;
 
     @Enumerated(EnumType.STRING)
@@ -31,23 +52,51 @@ public class Statement extends BaseEntity<Statement> {
     @Enumerated(EnumType.STRING)
     private InOutCd inOutCd;
 
-    @ManyToOne(fetch = LAZY, cascade = CascadeType.ALL)
-    @JoinColumn(name = "trade_id")
+    // 보관(TradeArchiveService)된 거래는 거래내역 테이블에서 삭제되므로 FK 를 만들지 않음
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "trade_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Trade trade;
 
-    public static Statement makeStatement(Trade trade) {
+    /**
+     * 거래의 차변, 대변 전표
+     * - 입금 : (차) 현금 / (대) 예금과목
+     * - 출금, 해지 : (차) 예금과목 / (대) 현금
+     * - 이자지급 : (차) 이자비용 / (대) 예금과목
+     * @param depositSubjectCode 계좌 상품의 과목코드
+     * @return 거래금액이 0 이면 빈 목록
+     */
+    public static List<Statement> makeStatements(Trade trade, String depositSubjectCode) {
+        if ( trade.getAmount() == 0 ) {
+            return Collections.emptyList();
+        }
+
         InOutCd ioCd = InOutCd.PAID;
+        String debitSubjectCode = depositSubjectCode;
+        String creditSubjectCode = CASH_SUBJECT_CODE;
 
         // in = OPEN, DEPOSIT, INTEREST
         // out = WITHDRAW, CLOSE
         if ( TradeCd.IO.in.contains(trade.getTradeCd()) ) {
             ioCd = InOutCd.RECEVIED;
+            debitSubjectCode = trade.getTradeCd() == TradeCd.INTEREST ? INTEREST_EXPENSE_SUBJECT_CODE : CASH_SUBJECT_CODE;
+            creditSubjectCode = depositSubjectCode;
         }
+
+        List<Statement> statements = new ArrayList<>(2);
+        statements.add(makeStatement(trade, 1, debitSubjectCode, DebitCreditCd.DEBIT, ioCd));
+        statements.add(makeStatement(trade, 2, creditSubjectCode, DebitCreditCd.CREDIT, ioCd));
+        return statements;
+    }
+
+    private static Statement makeStatement(Trade trade, int subSrno, String accountSubjectCode,
+                                           DebitCreditCd debitCreditCd, InOutCd ioCd) {
         return Statement.builder()
                 .trade(trade)
                 .tradeDate(LocalDateTime.now())
-                .subSrno(0)
-                .accountSubjectCode("13")
+                .journalDate(trade.getBzDate())
+                .subSrno(subSrno)
+                .accountSubjectCode(accountSubjectCode)
+                .debitCreditCd(debitCreditCd)
                 .tradeAmount(trade.getAmount())
                 .isCancel(YesNo.N)
                 .inOutCd(ioCd)
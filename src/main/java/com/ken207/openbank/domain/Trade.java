@@ -16,7 +16,15 @@ import static javax.persistence.FetchType.LAZY;
 @Getter @Setter
 @Builder @AllArgsConstructor
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@Table(name="Trade")
+@Table(name="Trade",
+        // 계좌별 거래일련번호 : keyset 조회, 중복 거래 방지
+        uniqueConstraints = @UniqueConstraint(name = "uk_trade_account_srno", columnNames = {"account_id", "srno"}),
+        indexes = {
+                // 기산일 거래 조회 (findByAccountIdAndTradeDateGreaterThanOrderBySrnoDesc)
+                @Index(name = "idx_trade_account_trade_date", columnList = "account_id, tradeDate, srno"),
+                // 처리일자 조회, 일마감 집계
+                @Index(name = "idx_trade_account_bz_date", columnList = "account_id, bzDate")
+        })
 @AttributeOverride(name = "id",column = @Column(name = "trade_id"))
 public class Trade extends BaseEntity<Trade> {
 
@@ -39,12 +47,14 @@ public class Trade extends BaseEntity<Trade> {
     private Interest interest;
 
     @Builder.Default
-    @OneToMany(mappedBy = "trade", cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "trade")
     private List<Statement> statements = new ArrayList();
 
-    public Statement createStatement() {
-
-        return Statement.makeStatement(this);
+    /**
+     * 거래의 차변, 대변 전표. 거래 트랜잭션에서는 JournalService 가 outbox 에 등록만 하고, 저장은 JournalOutboxDispatcher 가 한다.
+     */
+    public List<Statement> createStatements(String depositSubjectCode) {
+        return Statement.makeStatements(this, depositSubjectCode);
     }
 
 
@@ -0,0 +1,23 @@
+package com.ken207.openbank.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * 보관 거래내역 세그먼트 파일 목록.
+ * 세그먼트 등록과 거래내역 삭제는 같은 트랜잭션이므로, 등록되지 않은 파일(작성 중 실패)은 읽지 않는다.
+ */
+@Entity
+@Getter
+@Builder @AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name="TradeArchiveSegment")
+@AttributeOverride(name = "id",column = @Column(name = "trade_archive_segment_id"))
+public class TradeArchiveSegment extends BaseEntity<TradeArchiveSegment> {
+
+    private String fileName;
+    private int rowCount;
+    private long minAccountId;
+    private long maxAccountId;
+}
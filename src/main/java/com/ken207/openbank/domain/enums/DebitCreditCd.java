@@ -0,0 +1,8 @@
+package com.ken207.openbank.domain.enums;
+
+/**
+ * 차변(DEBIT), 대변(CREDIT)
+ */
+public enum DebitCreditCd {
+    DEBIT, CREDIT
+}
@@ -1,5 +1,6 @@
 package com.ken207.openbank.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.ken207.openbank.domain.enums.AccountStatusCode;
 import com.ken207.openbank.domain.enums.SubjectCode;
 import com.ken207.openbank.domain.enums.TaxationCode;
@@ -16,12 +17,15 @@ public class AccountDto {
         private String regDate; //신규일자
         @NonNull
         private TaxationCode taxationCode; //과세구분코드
+        private Long customerId; //고객 id (선택)
     }
 
     @Builder
     @NoArgsConstructor @AllArgsConstructor
     @Getter @Setter
     public static class Response {
+        @JsonIgnore
+        private Long id; //keyset 페이지 키
         private String productCode;
         private String productName;
         private SubjectCode subjectCode;
@@ -37,4 +41,23 @@ public class AccountDto {
         private AccountStatusCode accountStatusCode; //계좌상태코드
     }
 
+    @Builder
+    @NoArgsConstructor @AllArgsConstructor
+    @Getter @Setter
+    public static class ResponseBalance {
+        private String accountNum; //계좌번호
+        private String asOf; //기준일자
+        private long balance; //기준일자 마감잔액
+    }
+
+    /**
+     * 계좌 조회 캐시에 보관하는 계좌 정보. 잔액 변경 거래 시 캐시에서 제거 됨.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final Long id;
+        private final String accountNum;
+        private final Response response;
+    }
 }
@@ -0,0 +1,62 @@
+package com.ken207.openbank.dto;
+
+import lombok.*;
+import org.springframework.batch.core.BatchStatus;
+
+import java.util.List;
+
+public class EndOfDayDto {
+
+    /**
+     * 파티션(관리점, 상품) 처리 결과
+     */
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter @Setter
+    public static class Partition {
+        private long branchId; //관리점 id (0: 관리점 없음)
+        private long productId; //상품 id
+        private BatchStatus status;
+        private long accountCount; //계좌수
+        private long mismatchCount; //잔액 대사 불일치 계좌수
+        private long elapsedMillis; //처리시간
+    }
+
+    /**
+     * 관리점별, 상품별 합계
+     */
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter @Setter
+    public static class Total {
+        private long id; //관리점 id 또는 상품 id
+        private long accountCount; //계좌수
+        private long tradeCount; //거래건수
+        private long depositAmount; //입금 합계
+        private long withdrawAmount; //출금 합계
+        private long interestAmount; //이자지급 합계
+        private long balanceAmount; //마감 잔액 합계
+    }
+
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter @Setter
+    public static class Result {
+        private Long jobExecutionId;
+        private BatchStatus status;
+        private String bzDate; //마감일자
+        private String nextBzDate; //변경된 영업일자
+        private long elapsedMillis; //전체 처리시간
+        private long mismatchCount; //잔액 대사 불일치 계좌수
+        private List<Partition> partitions; //파티션별 처리 결과 (관리점, 상품 순서)
+        private List<Total> branches; //관리점별 합계
+        private List<Total> products; //상품별 합계
+
+        public boolean isReconciled() {
+            return status == BatchStatus.COMPLETED && mismatchCount == 0;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.ken207.openbank.dto;
 import com.ken207.openbank.domain.InterestDetail;
 import com.ken207.openbank.domain.enums.PeriodType;
 import lombok.*;
+import org.springframework.batch.core.BatchStatus;
 
 public class InterestDto {
 
@@ -53,4 +54,17 @@ public class InterestDto {
         private PeriodType periodType;
     }
 
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter @Setter
+    public static class Settlement {
+        private Long jobExecutionId;
+        private BatchStatus status;
+        private String untilDate; //이자계산 종료일
+        private String reckonDate; //이자지급일
+        private long accountCount; //처리 계좌수
+        private double accountsPerSecond; //초당 처리 계좌수
+    }
+
 }
@@ -0,0 +1,52 @@
+package com.ken207.openbank.dto;
+
+import com.ken207.openbank.domain.enums.TradeCd;
+import lombok.*;
+import org.springframework.batch.core.BatchStatus;
+
+import java.util.List;
+
+public class JournalDto {
+
+    /**
+     * 전표 기표 대기 거래. (outbox + 거래)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class OutboxTrade {
+        private final Long tradeId;
+        private final String accountSubjectCode; //계좌 상품의 과목코드
+        private final TradeCd tradeCd;
+        private final long amount;
+        private final String bzDate; //거래 처리일자
+    }
+
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter @Setter
+    public static class SubjectTotal {
+        private String accountSubjectCode; //과목코드
+        private long debitAmount; //차변합계
+        private long creditAmount; //대변합계
+    }
+
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter @Setter
+    public static class TrialBalance {
+        private Long jobExecutionId;
+        private BatchStatus status;
+        private String journalDate; //회계일자
+        private long lineCount; //전표 건수
+        private long debitAmount; //차변합계
+        private long creditAmount; //대변합계
+        private long unbalancedTradeCount; //차대 불일치 거래 건수
+        private List<SubjectTotal> subjects; //과목별 합계 (과목코드 순서)
+
+        public boolean isBalanced() {
+            return debitAmount == creditAmount && unbalancedTradeCount == 0;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ken207.openbank.dto;
 
+import com.ken207.openbank.domain.RateSchedule;
 import com.ken207.openbank.domain.enums.SubjectCode;
 import com.sun.istack.NotNull;
 import lombok.*;
@@ -20,5 +21,20 @@ public class ProductDto {
         private double basicRate;
     }
 
-
+    /**
+     * 상품 카탈로그(ProductCatalog) 항목. 여러 스레드가 공유하므로 변경 불가.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CatalogItem {
+        private final Long productId;
+        private final String productCode;
+        private final String name;
+        private final SubjectCode subjectCode; //과목코드
+        private final String startDate;
+        private final String endDate;
+        private final Long basicRateId;
+        private final double basicRate;
+        private final RateSchedule rateSchedule; //기본이율 변경 이력. 이력이 없으면 null
+    }
 }
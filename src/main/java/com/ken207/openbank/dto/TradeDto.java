@@ -4,6 +4,8 @@ import com.ken207.openbank.domain.enums.TaxationCode;
 import com.ken207.openbank.domain.enums.TradeCd;
 import lombok.*;
 
+import java.util.List;
+
 public class TradeDto {
 
     @Builder
@@ -26,4 +28,53 @@ public class TradeDto {
         private long blncAfter;
         private TradeCd tradeCd;
     }
+
+    /**
+     * 다건 거래 요청. 급여이체, 가맹점 정산 파일 등
+     */
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter @Setter
+    public static class RequestBulk {
+        private List<RequestBulkItem> trades;
+    }
+
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter @Setter
+    public static class RequestBulkItem {
+        private String accountNum;
+        private TradeCd tradeCd; //DEPOSIT, WITHDRAW
+        private String tradeDate;
+        private long amount;
+    }
+
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter @Setter
+    public static class ResponseBulk {
+        private int totalCount;
+        private int successCount;
+        private int failCount;
+        private long elapsedMillis;
+        private double tradesPerSecond;
+        private List<ResponseBulkItem> results; //요청 순서와 같음
+    }
+
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter @Setter
+    public static class ResponseBulkItem {
+        private int seq; //요청 목록의 index
+        private String accountNum;
+        private TradeCd tradeCd;
+        private boolean success;
+        private long srno;
+        private long blncAfter;
+        private String message;
+    }
 }
@@ -1,6 +1,7 @@
 package com.ken207.openbank.dto.response;
 
 import com.ken207.openbank.domain.Customer;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -8,7 +9,7 @@ import javax.validation.constraints.Email;
 import javax.validation.constraints.NotEmpty;
 import java.time.LocalDateTime;
 
-@Builder
+@Builder @AllArgsConstructor
 @Getter
 public class CustomerResponse implements BaseResponse {
 
@@ -0,0 +1,9 @@
+package com.ken207.openbank.repository;
+
+import com.ken207.openbank.domain.AccountEventBaseline;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountEventBaselineRepository extends JpaRepository<AccountEventBaseline, Long> {
+}
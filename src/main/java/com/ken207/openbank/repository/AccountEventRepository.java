@@ -0,0 +1,15 @@
+package com.ken207.openbank.repository;
+
+import com.ken207.openbank.domain.AccountEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountEventRepository extends JpaRepository<AccountEvent, Long> {
+
+    List<AccountEvent> findByAccountIdAndSrnoGreaterThanOrderBySrno(Long accountId, long srno);
+
+    long countByAccountId(Long accountId);
+}
@@ -0,0 +1,9 @@
+package com.ken207.openbank.repository;
+
+import com.ken207.openbank.domain.AccountEventSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountEventSnapshotRepository extends JpaRepository<AccountEventSnapshot, Long> {
+}
@@ -1,10 +1,70 @@
 package com.ken207.openbank.repository;
 
+import com.ken207.openbank.common.KeysetCursor;
+import com.ken207.openbank.common.KeysetPage;
 import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.dto.AccountDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Account findByAccountNum(String accountNum);
+
+    //== 용도별 fetch plan (Account 의 @NamedEntityGraph) ==//
+    @EntityGraph(Account.GRAPH_FOR_TRADE)
+    Account findForTradeByAccountNum(String accountNum);
+
+    @EntityGraph(Account.GRAPH_FOR_INTEREST)
+    Account findForInterestByAccountNum(String accountNum);
+
+    @EntityGraph(Account.GRAPH_FOR_INTEREST)
+    List<Account> findForInterestByIdIn(Collection<Long> ids);
+
+    @EntityGraph(Account.GRAPH_FOR_LIST)
+    Account findForListByAccountNum(String accountNum);
+
+    @EntityGraph(Account.GRAPH_FOR_LIST)
+    Optional<Account> findForListById(Long id);
+
+    @Override
+    @EntityGraph(Account.GRAPH_FOR_LIST)
+    Page<Account> findAll(Pageable pageable);
+
+    String RESPONSE_SELECT = "select new com.ken207.openbank.dto.AccountDto$Response(a.id, p.productCode, p.name, p.subjectCode, r.rate," +
+            " a.regDate, a.taxationCode, a.accountNum, a.closeDate, a.lastIntsDt, a.balance, a.accountStatusCode)" +
+            " from Account a join a.product p join p.basicRate r";
+
+    /**
+     * 계좌 목록. 엔티티 대신 응답 DTO 로 바로 조회 (상품, 이율은 join 한 번으로 조회)
+     */
+    @Query(value = RESPONSE_SELECT, countQuery = "select count(a) from Account a")
+    Page<AccountDto.Response> findResponses(Pageable pageable);
+
+    @Query(RESPONSE_SELECT + " where a.id > :id order by a.id")
+    List<AccountDto.Response> findResponsesAfterId(@Param("id") Long id, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + " where a.id < :id order by a.id desc")
+    List<AccountDto.Response> findResponsesBeforeId(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * id 기준 keyset 페이지를 응답 DTO 로 조회. OFFSET, COUNT 쿼리 없음.
+     */
+    default KeysetPage<AccountDto.Response> findResponses(KeysetCursor cursor, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<AccountDto.Response> rows = cursor != null && cursor.isPrev()
+                ? findResponsesBeforeId(cursor.getKey(), limit)
+                : findResponsesAfterId(cursor == null ? 0L : cursor.getKey(), limit);
+        return KeysetPage.of(rows, size, cursor, AccountDto.Response::getId);
+    }
 }
@@ -1,9 +1,21 @@
 package com.ken207.openbank.repository;
 
 import com.ken207.openbank.domain.Branch;
+import com.ken207.openbank.dto.response.BranchResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface BranchRepository extends JpaRepository<Branch, Long> {
+
+    /**
+     * 지점 목록. 엔티티 대신 응답 DTO 로 바로 조회 (관리자 조회 없음)
+     */
+    @Query(value = "select new com.ken207.openbank.dto.response.BranchResponse(b.id, b.name, b.businessNumber, b.taxOfficeCode, b.telNumber, b.regDateTime, b.branchType)" +
+            " from Branch b",
+            countQuery = "select count(b) from Branch b")
+    Page<BranchResponse> findResponses(Pageable pageable);
 }
@@ -0,0 +1,19 @@
+package com.ken207.openbank.repository;
+
+import com.ken207.openbank.domain.BusinessDate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface BusinessDateRepository extends JpaRepository<BusinessDate, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from BusinessDate b where b.name = :name")
+    Optional<BusinessDate> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,19 @@
+package com.ken207.openbank.repository;
+
+import com.ken207.openbank.domain.CodeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface CodeSequenceRepository extends JpaRepository<CodeSequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from CodeSequence s where s.sequenceName = :sequenceName")
+    Optional<CodeSequence> findForUpdate(@Param("sequenceName") String sequenceName);
+}
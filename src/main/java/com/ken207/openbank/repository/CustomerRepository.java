@@ -1,9 +1,30 @@
 package com.ken207.openbank.repository;
 
 import com.ken207.openbank.domain.Customer;
+import com.ken207.openbank.dto.response.CustomerResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    /**
+     * 고객 상세 응답(CustomerResponse) : 등록점, 관리점, 등록직원
+     */
+    @EntityGraph(attributePaths = {"regBranch", "mngBranch", "regEmployee"})
+    Optional<Customer> findDetailById(Long id);
+
+    /**
+     * 고객 목록. 관리점, 등록직원 이름을 join 으로 함께 조회 (고객별 연관관계 조회 없음)
+     */
+    @Query(value = "select new com.ken207.openbank.dto.response.CustomerResponse(c.id, c.name, c.email, c.nation, rb.name, mb.name, e.name, c.regDateTime)" +
+            " from Customer c left join c.regBranch rb left join c.mngBranch mb left join c.regEmployee e",
+            countQuery = "select count(c) from Customer c")
+    Page<CustomerResponse> findResponses(Pageable pageable);
 }
@@ -0,0 +1,19 @@
+package com.ken207.openbank.repository;
+
+import com.ken207.openbank.domain.DailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, Long> {
+
+    List<DailyBalance> findByAccountIdAndTradeDateBetweenOrderByTradeDateDescIdDesc(Long accountId, String fromDate, String toDate);
+
+    /**
+     * 기준일자 이전 마지막 일별 마감잔액. (account_id, tradeDate) 인덱스 한 번 탐색
+     */
+    DailyBalance findFirstByAccountIdAndTradeDateLessThanEqualOrderByTradeDateDescIdDesc(Long accountId, String asOf);
+
+}
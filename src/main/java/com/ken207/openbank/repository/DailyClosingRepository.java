@@ -0,0 +1,13 @@
+package com.ken207.openbank.repository;
+
+import com.ken207.openbank.domain.DailyClosing;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DailyClosingRepository extends JpaRepository<DailyClosing, Long> {
+
+    List<DailyClosing> findByBzDateOrderByBranchIdAscProductIdAsc(String bzDate);
+}
@@ -1,15 +1,55 @@
 package com.ken207.openbank.repository;
 
+import com.ken207.openbank.common.KeysetCursor;
+import com.ken207.openbank.common.KeysetPage;
 import com.ken207.openbank.domain.Account;
 import com.ken207.openbank.domain.Interest;
+import com.ken207.openbank.dto.InterestDto;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface InterestRepository extends JpaRepository<Interest, Long> {
 
     Page<Interest> findByAccount(Account account, Pageable pageable);
 
+    @EntityGraph(Interest.GRAPH_DETAIL)
+    Optional<Interest> findDetailById(Long id);
+
+    String DTO_SELECT = "select new com.ken207.openbank.dto.InterestDto$Dto(i.id, a.accountNum, i.fromDate, i.toDate, i.basicRate, i.interestAmount, i.periodType)" +
+            " from Interest i join i.account a where a.id = :accountId";
+
+    /**
+     * 이자지급 내역 목록. 엔티티 대신 목록 DTO 로 바로 조회 (이자계산상세, 거래 로딩 없음)
+     */
+    @Query(value = DTO_SELECT, countQuery = "select count(i) from Interest i where i.account.id = :accountId")
+    Page<InterestDto.Dto> findDtosByAccountId(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Query(DTO_SELECT + " and i.id > :id order by i.id")
+    List<InterestDto.Dto> findDtosAfterId(@Param("accountId") Long accountId, @Param("id") Long id, Pageable pageable);
+
+    @Query(DTO_SELECT + " and i.id < :id order by i.id desc")
+    List<InterestDto.Dto> findDtosBeforeId(@Param("accountId") Long accountId, @Param("id") Long id, Pageable pageable);
+
+    long countByAccountId(Long accountId);
+
+    /**
+     * id 기준 keyset 페이지를 목록 DTO 로 조회. OFFSET, COUNT 쿼리 없음.
+     */
+    default KeysetPage<InterestDto.Dto> findDtosByAccountId(Long accountId, KeysetCursor cursor, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<InterestDto.Dto> rows = cursor != null && cursor.isPrev()
+                ? findDtosBeforeId(accountId, cursor.getKey(), limit)
+                : findDtosAfterId(accountId, cursor == null ? 0L : cursor.getKey(), limit);
+        return KeysetPage.of(rows, size, cursor, InterestDto.Dto::getId);
+    }
 }
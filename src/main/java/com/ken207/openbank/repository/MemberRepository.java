@@ -1,6 +1,7 @@
 package com.ken207.openbank.repository;
 
 import com.ken207.openbank.domain.Member;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.lang.NonNull;
 
@@ -8,5 +9,9 @@ import java.util.Optional;
 
 public interface MemberRepository extends JpaRepository<Member, Long> {
 
+    /**
+     * 로그인 : 권한(roles) 을 함께 조회
+     */
+    @EntityGraph(attributePaths = "roles")
     Optional<Member> findByEmailIgnoreCase(@NonNull String email);
 }
@@ -4,6 +4,10 @@ import com.ken207.openbank.domain.Statement;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface StatementRepository extends JpaRepository<Statement, Long> {
+
+    List<Statement> findByTradeIdOrderBySubSrno(Long tradeId);
 }
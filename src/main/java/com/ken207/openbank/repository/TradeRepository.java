@@ -1,10 +1,16 @@
 package com.ken207.openbank.repository;
 
+import com.ken207.openbank.common.KeysetCursor;
+import com.ken207.openbank.common.KeysetPage;
 import com.ken207.openbank.domain.Account;
 import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.dto.TradeDto;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,4 +25,37 @@ public interface TradeRepository extends JpaRepository<Trade, Long> {
 
     List<Trade> findByAccountIdAndTradeDateGreaterThanOrderBySrnoDesc(Long accountId, String tradeDate);
 
+    Trade findFirstByAccountIdAndTradeDateLessThanEqualOrderBySrnoDesc(Long accountId, String tradeDate);
+
+    /**
+     * srno 기준 keyset 조회. 엔티티를 만들지 않고 응답 DTO 로 바로 조회하며 COUNT 쿼리는 실행하지 않음.
+     */
+    @Query("select new com.ken207.openbank.dto.TradeDto$Response(t.srno, t.tradeDate, t.bzDate, t.amount, t.blncBefore, t.blncAfter, t.tradeCd)" +
+            " from Trade t where t.account.id = :accountId and t.srno > :srno order by t.srno")
+    List<TradeDto.Response> findResponsesAfterSrno(@Param("accountId") Long accountId, @Param("srno") long srno, Pageable pageable);
+
+    /**
+     * 거래내역 목록. 엔티티 대신 응답 DTO 로 바로 조회 (연관관계 로딩, 영속성 컨텍스트 스냅샷 없음)
+     */
+    @Query(value = "select new com.ken207.openbank.dto.TradeDto$Response(t.srno, t.tradeDate, t.bzDate, t.amount, t.blncBefore, t.blncAfter, t.tradeCd)" +
+            " from Trade t where t.account.id = :accountId",
+            countQuery = "select count(t) from Trade t where t.account.id = :accountId")
+    Page<TradeDto.Response> findResponsesByAccountId(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Query("select new com.ken207.openbank.dto.TradeDto$Response(t.srno, t.tradeDate, t.bzDate, t.amount, t.blncBefore, t.blncAfter, t.tradeCd)" +
+            " from Trade t where t.account.id = :accountId and t.srno < :srno order by t.srno desc")
+    List<TradeDto.Response> findResponsesBeforeSrno(@Param("accountId") Long accountId, @Param("srno") long srno, Pageable pageable);
+
+    long countByAccountId(Long accountId);
+
+    /**
+     * srno 기준 keyset 페이지를 응답 DTO 로 조회. OFFSET, COUNT 쿼리 없음.
+     */
+    default KeysetPage<TradeDto.Response> findResponsesByAccountId(Long accountId, KeysetCursor cursor, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<TradeDto.Response> rows = cursor != null && cursor.isPrev()
+                ? findResponsesBeforeSrno(accountId, cursor.getKey(), limit)
+                : findResponsesAfterSrno(accountId, cursor == null ? 0 : cursor.getKey(), limit);
+        return KeysetPage.of(rows, size, cursor, TradeDto.Response::getSrno);
+    }
 }
@@ -0,0 +1,183 @@
+package com.ken207.openbank.repository.archive;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.dto.TradeDto;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 보관 거래내역 세그먼트 파일 (읽기 전용, memory-mapped).
+ * 여러 계좌의 거래를 (계좌 id, 거래일련번호) 순서로 컬럼별로 저장한다.
+ *
+ * header   : magic, version, rowCount, indexInterval (int), minAccountId, maxAccountId (long)
+ * index    : indexInterval 행마다 (계좌 id, 거래일련번호) long 2개
+ * columns  : accountId long[], srno long[], tradeDate int[], bzDate int[] (epoch day), amount long[], blncAfter long[], tradeCd byte[]
+ *
+ * 조회는 sparse index 를 이진 탐색한 후 indexInterval 행 이내만 순차로 읽으므로 필요한 페이지만 메모리에 올라온다.
+ * 거래전잔액은 저장하지 않고 거래후잔액과 거래금액으로 계산한다.
+ */
+public class TradeSegment {
+
+    static final int MAGIC = 0x4F425453; // OBTS
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final TradeCd[] TRADE_CDS = TradeCd.values();
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final int indexInterval;
+    private final int indexCount;
+    private final long minAccountId;
+    private final long maxAccountId;
+
+    private final int indexOffset;
+    private final int accountIdOffset;
+    private final int srnoOffset;
+    private final int tradeDateOffset;
+    private final int bzDateOffset;
+    private final int amountOffset;
+    private final int blncAfterOffset;
+    private final int tradeCdOffset;
+
+    private TradeSegment(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if ( buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION ) {
+            throw new IllegalStateException("거래내역 세그먼트 파일이 아님. " + file);
+        }
+        this.rowCount = buffer.getInt(8);
+        this.indexInterval = buffer.getInt(12);
+        this.minAccountId = buffer.getLong(16);
+        this.maxAccountId = buffer.getLong(24);
+        this.indexCount = (rowCount + indexInterval - 1) / indexInterval;
+
+        this.indexOffset = HEADER_SIZE;
+        this.accountIdOffset = indexOffset + indexCount * 16;
+        this.srnoOffset = accountIdOffset + rowCount * 8;
+        this.tradeDateOffset = srnoOffset + rowCount * 8;
+        this.bzDateOffset = tradeDateOffset + rowCount * 4;
+        this.amountOffset = bzDateOffset + rowCount * 4;
+        this.blncAfterOffset = amountOffset + rowCount * 8;
+        this.tradeCdOffset = blncAfterOffset + rowCount * 8;
+    }
+
+    public static TradeSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new TradeSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public boolean mayContain(long accountId) {
+        return minAccountId <= accountId && accountId <= maxAccountId;
+    }
+
+    public int count(long accountId) {
+        if ( !mayContain(accountId) ) {
+            return 0;
+        }
+        return lowerBound(accountId, Long.MAX_VALUE) - lowerBound(accountId, Long.MIN_VALUE);
+    }
+
+    /**
+     * @return 거래일련번호가 srno 보다 큰 거래 최대 limit 건 (거래일련번호 오름차순)
+     */
+    public List<TradeDto.Response> findAfterSrno(long accountId, long srno, int limit) {
+        List<TradeDto.Response> rows = new ArrayList<>();
+        if ( !mayContain(accountId) || srno == Long.MAX_VALUE ) {
+            return rows;
+        }
+        for (int row = lowerBound(accountId, srno + 1); row < rowCount && rows.size() < limit && accountId(row) == accountId; row++) {
+            rows.add(toResponse(row));
+        }
+        return rows;
+    }
+
+    /**
+     * @return 거래일련번호가 srno 보다 작은 거래 최대 limit 건 (거래일련번호 내림차순)
+     */
+    public List<TradeDto.Response> findBeforeSrno(long accountId, long srno, int limit) {
+        List<TradeDto.Response> rows = new ArrayList<>();
+        if ( !mayContain(accountId) ) {
+            return rows;
+        }
+        for (int row = lowerBound(accountId, srno) - 1; row >= 0 && rows.size() < limit && accountId(row) == accountId; row--) {
+            rows.add(toResponse(row));
+        }
+        return rows;
+    }
+
+    /**
+     * @return (accountId, srno) 이상인 첫 행. 없으면 rowCount
+     */
+    int lowerBound(long accountId, long srno) {
+        // key 보다 작은 마지막 index 항목
+        int low = 0;
+        int high = indexCount - 1;
+        int start = 0;
+        while ( low <= high ) {
+            int mid = (low + high) >>> 1;
+            long indexAccountId = buffer.getLong(indexOffset + mid * 16);
+            long indexSrno = buffer.getLong(indexOffset + mid * 16 + 8);
+            if ( compare(indexAccountId, indexSrno, accountId, srno) < 0 ) {
+                start = mid;
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+
+        int end = Math.min(rowCount, (start + 1) * indexInterval);
+        for (int row = start * indexInterval; row < end; row++) {
+            if ( compare(accountId(row), srno(row), accountId, srno) >= 0 ) {
+                return row;
+            }
+        }
+        return end;
+    }
+
+    static int compare(long accountId1, long srno1, long accountId2, long srno2) {
+        int result = Long.compare(accountId1, accountId2);
+        return result != 0 ? result : Long.compare(srno1, srno2);
+    }
+
+    private long accountId(int row) {
+        return buffer.getLong(accountIdOffset + row * 8);
+    }
+
+    private long srno(int row) {
+        return buffer.getLong(srnoOffset + row * 8);
+    }
+
+    private TradeDto.Response toResponse(int row) {
+        long amount = buffer.getLong(amountOffset + row * 8);
+        long blncAfter = buffer.getLong(blncAfterOffset + row * 8);
+        TradeCd tradeCd = TRADE_CDS[buffer.get(tradeCdOffset + row)];
+        long blncBefore = TradeCd.IO.out.contains(tradeCd) ? blncAfter + amount : blncAfter - amount;
+
+        return new TradeDto.Response(
+                srno(row),
+                OBDateUtils.fromEpochDay(buffer.getInt(tradeDateOffset + row * 4)),
+                OBDateUtils.fromEpochDay(buffer.getInt(bzDateOffset + row * 4)),
+                amount,
+                blncBefore,
+                blncAfter,
+                tradeCd);
+    }
+}
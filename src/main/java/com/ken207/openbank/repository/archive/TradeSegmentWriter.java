@@ -0,0 +1,109 @@
+package com.ken207.openbank.repository.archive;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.enums.TradeCd;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * 거래내역 세그먼트 파일 작성.
+ * (계좌 id, 거래일련번호) 순서로 add 한 거래를 컬럼별 배열로 모아서 한 번에 쓴다. 파일 형식은 TradeSegment 참고.
+ */
+public class TradeSegmentWriter {
+
+    private final int indexInterval;
+
+    private int size;
+    private long[] accountIds = new long[1024];
+    private long[] srnos = new long[1024];
+    private int[] tradeDates = new int[1024];
+    private int[] bzDates = new int[1024];
+    private long[] amounts = new long[1024];
+    private long[] blncAfters = new long[1024];
+    private byte[] tradeCds = new byte[1024];
+
+    public TradeSegmentWriter(int indexInterval) {
+        this.indexInterval = indexInterval;
+    }
+
+    /**
+     * @throws IllegalArgumentException (계좌 id, 거래일련번호) 순서가 아닌 경우
+     */
+    public void add(long accountId, long srno, String tradeDate, String bzDate, long amount, long blncAfter, TradeCd tradeCd) {
+        if ( size > 0 && TradeSegment.compare(accountIds[size - 1], srnos[size - 1], accountId, srno) >= 0 ) {
+            throw new IllegalArgumentException("계좌 id, 거래일련번호 순서가 아님. account_id:" + accountId + ", srno:" + srno);
+        }
+        if ( size == accountIds.length ) {
+            grow();
+        }
+
+        accountIds[size] = accountId;
+        srnos[size] = srno;
+        tradeDates[size] = OBDateUtils.toEpochDay(tradeDate);
+        bzDates[size] = OBDateUtils.toEpochDay(bzDate);
+        amounts[size] = amount;
+        blncAfters[size] = blncAfter;
+        tradeCds[size] = (byte) tradeCd.ordinal();
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getMinAccountId() {
+        return accountIds[0];
+    }
+
+    public long getMaxAccountId() {
+        return accountIds[size - 1];
+    }
+
+    /**
+     * 파일 작성 후 디스크에 동기화(fsync)
+     */
+    public void write(Path file) throws IOException {
+        try (FileOutputStream fileOutputStream = new FileOutputStream(file.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOutputStream, 64 * 1024))) {
+            out.writeInt(TradeSegment.MAGIC);
+            out.writeInt(TradeSegment.VERSION);
+            out.writeInt(size);
+            out.writeInt(indexInterval);
+            out.writeLong(getMinAccountId());
+            out.writeLong(getMaxAccountId());
+
+            // sparse index : indexInterval 행마다 (계좌 id, 거래일련번호)
+            for (int row = 0; row < size; row += indexInterval) {
+                out.writeLong(accountIds[row]);
+                out.writeLong(srnos[row]);
+            }
+
+            for (int row = 0; row < size; row++) out.writeLong(accountIds[row]);
+            for (int row = 0; row < size; row++) out.writeLong(srnos[row]);
+            for (int row = 0; row < size; row++) out.writeInt(tradeDates[row]);
+            for (int row = 0; row < size; row++) out.writeInt(bzDates[row]);
+            for (int row = 0; row < size; row++) out.writeLong(amounts[row]);
+            for (int row = 0; row < size; row++) out.writeLong(blncAfters[row]);
+            out.write(tradeCds, 0, size);
+
+            out.flush();
+            fileOutputStream.getFD().sync();
+        }
+    }
+
+    private void grow() {
+        int capacity = accountIds.length * 2;
+        accountIds = Arrays.copyOf(accountIds, capacity);
+        srnos = Arrays.copyOf(srnos, capacity);
+        tradeDates = Arrays.copyOf(tradeDates, capacity);
+        bzDates = Arrays.copyOf(bzDates, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        blncAfters = Arrays.copyOf(blncAfters, capacity);
+        tradeCds = Arrays.copyOf(tradeCds, capacity);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ken207.openbank.repository.query;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+
+/**
+ * 계좌 이벤트 재생(replay) 조회. 엔티티를 만들지 않고 (계좌 id, 순번) 순서로 읽는다.
+ * adopt 한 계좌의 기준 상태(account_event_baseline)도 같은 순서로 합쳐서 읽는다. (baseline = 1, 같은 순번의 이벤트 다음)
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountEventJdbcRepository {
+
+    private static final String SELECT_ALL_SQL = "select account_id, srno, trade_cd, trade_date, amount, last_ints_dt,"
+            + " cast(null as varchar(255)) as close_date, cast(null as varchar(255)) as account_status_code, 0 as baseline"
+            + " from account_event"
+            + " union all"
+            + " select account_id, srno, cast(null as integer), last_trade_date, balance, last_ints_dt,"
+            + " close_date, account_status_code, 1"
+            + " from account_event_baseline"
+            + " order by account_id, srno, baseline";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 전체 이벤트와 기준 상태를 (계좌 id, 순번) 순서로 fetchSize 건씩 읽어서 handler 에 전달.
+     * 기준 상태 행은 trade_cd 가 null 이고, trade_date 는 최종거래일자, amount 는 잔액이다.
+     */
+    public void streamAll(int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_ALL_SQL);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, handler);
+    }
+}
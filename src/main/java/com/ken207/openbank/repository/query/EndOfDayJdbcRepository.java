@@ -0,0 +1,175 @@
+package com.ken207.openbank.repository.query;
+
+import com.ken207.openbank.domain.enums.TradeCd;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 일마감 배치 조회, 저장. 관리점(고객의 관리점, 없으면 0), 상품 단위로 처리한다.
+ * 거래코드는 ordinal 로 저장되어 있으므로 TradeCd 의 ordinal 을 파라미터로 전달한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EndOfDayJdbcRepository {
+
+    /** 관리점 없는 계좌 */
+    public static final long NO_BRANCH_ID = 0;
+
+    private static final String PARTITION_FROM = " from account a"
+            + " left join customer c on c.customer_id = a.customer_id";
+
+    private static final String PARTITION_WHERE = " where coalesce(c.mng_branch_id, 0) = :branchId and a.product_id = :productId";
+
+    private static final String SELECT_PARTITION_SQL = "select distinct coalesce(c.mng_branch_id, 0) as branch_id, a.product_id"
+            + PARTITION_FROM
+            + " order by branch_id, a.product_id";
+
+    private static final String SELECT_TRADE_TOTAL_SQL = "select t.trade_cd, count(*) as trade_count, coalesce(sum(t.amount), 0) as amount"
+            + PARTITION_FROM
+            + " join trade t on t.account_id = a.account_id"
+            + PARTITION_WHERE
+            + " and t.bz_date = :bzDate"
+            + " group by t.trade_cd";
+
+    /**
+     * 계좌별 원장 잔액, 마감일 이후 거래 합계, 대사 기간(이전 마감일 다음 날 ~ 마감일) 거래 합계, 이전 마감 잔액.
+     */
+    private static final String SELECT_ACCOUNT_BALANCE_SQL = "select a.account_id, a.balance, cb.balance as prev_balance,"
+            + " coalesce(sum(case when t.bz_date > :bzDate then " + signedAmount() + " else 0 end), 0) as after_amount,"
+            + " coalesce(sum(case when t.bz_date <= :bzDate then " + signedAmount() + " else 0 end), 0) as period_amount"
+            + PARTITION_FROM
+            + " left join closing_balance cb on cb.account_id = a.account_id and cb.bz_date = :fromDate"
+            + " left join trade t on t.account_id = a.account_id and t.bz_date > :fromDate"
+            + PARTITION_WHERE
+            + " group by a.account_id, a.balance, cb.balance";
+
+    private static final String DELETE_CLOSING_BALANCE_SQL = "delete from closing_balance"
+            + " where bz_date = :bzDate and account_id in (select a.account_id" + PARTITION_FROM + PARTITION_WHERE + ")";
+
+    private static final String DELETE_DAILY_CLOSING_SQL = "delete from daily_closing"
+            + " where bz_date = :bzDate and branch_id = :branchId and product_id = :productId";
+
+    private static final String SELECT_LAST_CLOSING_DATE_SQL = "select max(bz_date) from closing_balance where bz_date < ?";
+
+    private static final String INSERT_CLOSING_BALANCE_SQL = "insert into closing_balance"
+            + " (closing_balance_id, created_date, updated_date, bz_date, balance, account_id)"
+            + " values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private static String signedAmount() {
+        return "case when t.trade_cd in (:outTradeCds) then -t.amount else t.amount end";
+    }
+
+    /**
+     * @return 계좌가 있는 [관리점 id, 상품 id]
+     */
+    public List<long[]> findPartitions() {
+        return jdbcTemplate.query(SELECT_PARTITION_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong("branch_id"), rs.getLong("product_id")});
+    }
+
+    public List<TradeTotal> findTradeTotals(long branchId, long productId, String bzDate) {
+        MapSqlParameterSource params = partitionParams(branchId, productId)
+                .addValue("bzDate", bzDate);
+        return namedParameterJdbcTemplate.query(SELECT_TRADE_TOTAL_SQL, params, (rs, rowNum) -> new TradeTotal(
+                TradeCd.values()[rs.getInt("trade_cd")], rs.getLong("trade_count"), rs.getLong("amount")));
+    }
+
+    /**
+     * @param fromDate 이전 마감일자. 마감한 적이 없으면 모든 거래를 합산하도록 가장 이른 일자를 전달.
+     */
+    public List<AccountBalance> findAccountBalances(long branchId, long productId, String bzDate, String fromDate) {
+        MapSqlParameterSource params = partitionParams(branchId, productId)
+                .addValue("bzDate", bzDate)
+                .addValue("fromDate", fromDate)
+                .addValue("outTradeCds", TradeCd.IO.out.stream().map(Enum::ordinal).collect(Collectors.toList()));
+        return namedParameterJdbcTemplate.query(SELECT_ACCOUNT_BALANCE_SQL, params, (rs, rowNum) -> new AccountBalance(
+                rs.getLong("account_id"),
+                rs.getLong("balance"),
+                rs.getLong("prev_balance"),
+                rs.getLong("after_amount"),
+                rs.getLong("period_amount")));
+    }
+
+    /**
+     * @return bzDate 이전의 마지막 마감일자. 마감 잔액이 없으면 null
+     */
+    public String findLastClosingDate(String bzDate) {
+        return jdbcTemplate.queryForObject(SELECT_LAST_CLOSING_DATE_SQL, String.class, bzDate);
+    }
+
+    /**
+     * 파티션의 마감 잔액, 일마감 집계 삭제. (같은 마감일자 재실행)
+     */
+    public void deletePartition(long branchId, long productId, String bzDate) {
+        MapSqlParameterSource params = partitionParams(branchId, productId)
+                .addValue("bzDate", bzDate);
+        namedParameterJdbcTemplate.update(DELETE_CLOSING_BALANCE_SQL, params);
+        namedParameterJdbcTemplate.update(DELETE_DAILY_CLOSING_SQL, params);
+    }
+
+    /**
+     * JDBC batch insert. ids 는 balances 와 같은 순서의 마감 잔액 id.
+     */
+    public void insertClosingBalances(String bzDate, List<AccountBalance> balances, long[] ids) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] index = {0};
+        jdbcTemplate.batchUpdate(INSERT_CLOSING_BALANCE_SQL, balances, balances.size(), (ps, balance) -> {
+            ps.setLong(1, ids[index[0]++]);
+            ps.setTimestamp(2, now);
+            ps.setTimestamp(3, now);
+            ps.setString(4, bzDate);
+            ps.setLong(5, balance.getClosingBalance());
+            ps.setLong(6, balance.getAccountId());
+        });
+    }
+
+    private MapSqlParameterSource partitionParams(long branchId, long productId) {
+        return new MapSqlParameterSource()
+                .addValue("branchId", branchId)
+                .addValue("productId", productId);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class TradeTotal {
+        private final TradeCd tradeCd;
+        private final long tradeCount;
+        private final long amount;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class AccountBalance {
+        private final long accountId;
+        private final long balance; //원장 잔액
+        private final long prevClosingBalance; //이전 마감 잔액
+        private final long afterAmount; //마감일 이후 거래 합계
+        private final long periodAmount; //대사 기간 거래 합계
+
+        /**
+         * 마감일자 잔액. 영업일자를 먼저 변경하므로 원장 잔액에는 다음 영업일 거래가 반영되어 있을 수 있다.
+         */
+        public long getClosingBalance() {
+            return balance - afterAmount;
+        }
+
+        /**
+         * 이전 마감 잔액 + 기간 거래 합계 = 마감 잔액
+         */
+        public boolean isMatched() {
+            return prevClosingBalance + periodAmount == getClosingBalance();
+        }
+    }
+}
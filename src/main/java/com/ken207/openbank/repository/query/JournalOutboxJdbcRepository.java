@@ -0,0 +1,62 @@
+package com.ken207.openbank.repository.query;
+
+import com.ken207.openbank.common.DatabaseDialect;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.dto.JournalDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 전표 기표 대기(JournalOutbox) 조회, 삭제.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JournalOutboxJdbcRepository {
+
+    private static final String SELECT_PENDING_SQL = "select o.trade_id, o.account_subject_code, t.trade_cd, t.amount, t.bz_date"
+            + " from journal_outbox o"
+            + " join trade t on t.trade_id = o.trade_id"
+            + " order by o.trade_id"
+            + " limit :limit";
+
+    // 다른 인스턴스가 처리 중인 대기 거래는 건너뜀 (PostgreSQL)
+    private static final String SKIP_LOCKED_SQL = " for update of o skip locked";
+
+    private static final String DELETE_SQL = "delete from journal_outbox where trade_id in (:tradeIds)";
+
+    private static final TradeCd[] TRADE_CDS = TradeCd.values();
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private String selectPendingSql;
+
+    @PostConstruct
+    public void init() {
+        DataSource dataSource = namedParameterJdbcTemplate.getJdbcTemplate().getDataSource();
+        selectPendingSql = DatabaseDialect.isPostgreSQL(dataSource) ? SELECT_PENDING_SQL + SKIP_LOCKED_SQL : SELECT_PENDING_SQL;
+    }
+
+    /**
+     * 오래된(거래 id 순서) 대기 거래를 limit 건 조회.
+     * PostgreSQL 은 조회한 행을 잠그고 다른 트랜잭션이 잠근 행은 건너뛰므로, 삭제할 때까지 같은 트랜잭션 안에서 호출해야 한다.
+     */
+    public List<JournalDto.OutboxTrade> findPending(int limit) {
+        return namedParameterJdbcTemplate.query(selectPendingSql, new MapSqlParameterSource("limit", limit),
+                (rs, rowNum) -> new JournalDto.OutboxTrade(
+                        rs.getLong("trade_id"),
+                        rs.getString("account_subject_code"),
+                        TRADE_CDS[rs.getInt("trade_cd")], // Trade.tradeCd 는 ordinal 로 저장
+                        rs.getLong("amount"),
+                        rs.getString("bz_date")));
+    }
+
+    public int deleteByTradeIds(Collection<Long> tradeIds) {
+        return namedParameterJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("tradeIds", tradeIds));
+    }
+}
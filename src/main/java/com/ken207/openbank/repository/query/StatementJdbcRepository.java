@@ -0,0 +1,96 @@
+package com.ken207.openbank.repository.query;
+
+import com.ken207.openbank.common.DatabaseDialect;
+import com.ken207.openbank.domain.Statement;
+import com.ken207.openbank.domain.enums.YesNo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 전표(Statement) 저장, 조회. 추가(insert)만 하며 JPA 를 거치지 않는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatementJdbcRepository {
+
+    private static final String INSERT_SQL = "insert into statement"
+            + " (id, created_date, updated_date, trade_date, journal_date, sub_srno, account_subject_code,"
+            + " debit_credit_cd, trade_amount, is_cancel, in_out_cd, trade_id)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // 이미 기표된 거래(uk_statement_trade_sub_srno)는 저장하지 않음 (PostgreSQL)
+    private static final String ON_CONFLICT_SQL = " on conflict (trade_id, sub_srno) do nothing";
+
+    private static final String SELECT_BY_JOURNAL_DATE_SQL = "select trade_id, account_subject_code, debit_credit_cd, trade_amount"
+            + " from statement"
+            + " where journal_date = ? and is_cancel = ?"
+            + " order by trade_id";
+
+    private static final String SELECT_JOURNALED_TRADE_ID_SQL = "select distinct trade_id from statement where trade_id in (:tradeIds)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private String insertSql;
+
+    @PostConstruct
+    public void init() {
+        insertSql = DatabaseDialect.isPostgreSQL(jdbcTemplate.getDataSource()) ? INSERT_SQL + ON_CONFLICT_SQL : INSERT_SQL;
+    }
+
+    /**
+     * JDBC batch insert. id 는 미리 설정되어 있어야 함.
+     * 같은 거래, 같은 순번의 전표가 이미 있으면 PostgreSQL 은 건너뛰고, 그 외 DB 는 unique 제약 위반으로 실패한다.
+     */
+    public void insertAll(List<Statement> statements) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(insertSql, statements, statements.size(), (ps, statement) -> {
+            ps.setLong(1, statement.getId());
+            ps.setTimestamp(2, now);
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, Timestamp.valueOf(statement.getTradeDate()));
+            ps.setString(5, statement.getJournalDate());
+            ps.setInt(6, statement.getSubSrno());
+            ps.setString(7, statement.getAccountSubjectCode());
+            ps.setString(8, statement.getDebitCreditCd().name());
+            ps.setLong(9, statement.getTradeAmount());
+            ps.setString(10, statement.getIsCancel().name());
+            ps.setString(11, statement.getInOutCd().name());
+            ps.setLong(12, statement.getTrade().getId());
+        });
+    }
+
+    /**
+     * 회계일자의 유효 전표를 거래 순서로 fetchSize 건씩 읽어서 handler 에 전달. (전체를 메모리에 올리지 않음)
+     * PostgreSQL 은 트랜잭션 안에서 호출해야 커서로 조회한다.
+     */
+    public void streamByJournalDate(String journalDate, int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_BY_JOURNAL_DATE_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, journalDate);
+            ps.setString(2, YesNo.N.name());
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * @return tradeIds 중 전표가 이미 저장된 거래 id
+     */
+    public Set<Long> findJournaledTradeIds(Collection<Long> tradeIds) {
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(SELECT_JOURNALED_TRADE_ID_SQL,
+                new MapSqlParameterSource("tradeIds", tradeIds), Long.class));
+    }
+}
@@ -0,0 +1,53 @@
+package com.ken207.openbank.repository.query;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * 거래내역 보관 대상 조회, 삭제.
+ * 보관 대상은 이자계산이 끝난 기간(거래일자 <= 최종이자계산일자)이면서 일마감이 끝난(처리일자 <= 최종 마감일자) 거래이며,
+ * 이자(Interest)가 참조하는 거래와 전표 기표 대기(JournalOutbox) 중인 거래는 제외한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TradeArchiveJdbcRepository {
+
+    private static final String SELECT_ARCHIVABLE_SQL = "select t.trade_id, t.account_id, t.srno, t.trade_date, t.bz_date,"
+            + " t.amount, t.blnc_after, t.trade_cd"
+            + " from trade t"
+            + " join account a on a.account_id = t.account_id"
+            + " where t.trade_date <= a.last_ints_dt"
+            + " and t.bz_date <= ?"
+            + " and not exists (select 1 from interest i where i.trade_id = t.trade_id)"
+            + " and not exists (select 1 from journal_outbox o where o.trade_id = t.trade_id)"
+            + " order by t.account_id, t.srno";
+
+    private static final String DELETE_SQL = "delete from trade where trade_id in (:tradeIds)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * 보관 대상을 (계좌 id, 거래일련번호) 순서로 최대 maxRows 건까지 fetchSize 건씩 읽어서 handler 에 전달.
+     */
+    public void streamArchivable(String closedDate, int maxRows, int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_ARCHIVABLE_SQL);
+            ps.setMaxRows(maxRows);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, closedDate);
+            return ps;
+        }, handler);
+    }
+
+    public int deleteByIds(List<Long> tradeIds) {
+        return namedParameterJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("tradeIds", tradeIds));
+    }
+}
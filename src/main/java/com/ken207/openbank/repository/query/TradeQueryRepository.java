@@ -1,6 +1,9 @@
 package com.ken207.openbank.repository.query;
 
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.DailyBalance;
 import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.repository.DailyBalanceRepository;
 import com.ken207.openbank.repository.TradeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
@@ -8,7 +11,7 @@ import org.springframework.stereotype.Repository;
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
 @Repository
 @RequiredArgsConstructor
@@ -16,10 +19,37 @@ public class TradeQueryRepository {
 
     private final EntityManager em;
     private final TradeRepository tradeRepository;
+    private final DailyBalanceRepository dailyBalanceRepository;
 
+    /**
+     * lastInterestPayDate 다음날 부터 거래일자(기산일)별 마감잔액. (거래일자 순서)
+     * 거래내역 대신 일별 마감잔액을 조회하므로 같은 날 거래가 여러 건이어도 한 건만 조회된다.
+     */
     public Map<String, Long> getDailyBalanceFrom(Long accountId, String lastInterestPayDate) {
-        List<Trade> tradeListForInterest = tradeRepository.findByAccountIdAndTradeDateGreaterThanOrderBySrnoDesc(accountId, lastInterestPayDate);
+        List<DailyBalance> dailyBalances = dailyBalanceRepository.findByAccountIdAndTradeDateBetweenOrderByTradeDateDescIdDesc(
+                accountId, OBDateUtils.addDays(lastInterestPayDate, 1), OBDateUtils.MAX_DATE);
 
-        return tradeListForInterest.stream().collect(Collectors.toMap(Trade::getBzDate, Trade::getBlncAfter));
+        Map<String, Long> dailyBalanceMap = new TreeMap<>();
+        for (DailyBalance dailyBalance : dailyBalances) {
+            // 같은 일자는 최근(id 가 큰) 마감잔액 사용
+            dailyBalanceMap.putIfAbsent(dailyBalance.getTradeDate(), dailyBalance.getBalance());
+        }
+        return dailyBalanceMap;
+    }
+
+    /**
+     * 기준일자(asOf) 마감 잔액.
+     * 일별 마감잔액을 체크포인트로 사용해서 기준일자 이전 마지막 한 건만 조회하므로 거래 건수와 무관하다.
+     * 일별 마감잔액이 없으면(일별 마감잔액 도입 전 거래) 기준일자 이전 마지막 거래의 거래후잔액을 사용한다.
+     * @return 기준일자 이전 거래가 없으면 0
+     */
+    public long getBalanceAsOf(Long accountId, String asOf) {
+        DailyBalance dailyBalance = dailyBalanceRepository.findFirstByAccountIdAndTradeDateLessThanEqualOrderByTradeDateDescIdDesc(accountId, asOf);
+        if ( dailyBalance != null ) {
+            return dailyBalance.getBalance();
+        }
+
+        Trade trade = tradeRepository.findFirstByAccountIdAndTradeDateLessThanEqualOrderBySrnoDesc(accountId, asOf);
+        return trade == null ? 0 : trade.getBlncAfter();
     }
 }
@@ -0,0 +1,77 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.common.AccountConcurrencyProperties;
+import com.ken207.openbank.exception.BizRuntimeException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 계좌 단위 동시성 제어.
+ * 잔액을 변경하는 거래는 이 템플릿 안에서 트랜잭션을 시작해야 한다.
+ */
+@Component
+public class AccountConcurrencyTemplate {
+
+    private final AccountConcurrencyProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] locks;
+
+    public AccountConcurrencyTemplate(AccountConcurrencyProperties properties, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // 2의 제곱수로 맞춰 hash & mask 로 stripe 선택
+        int stripes = Integer.highestOneBit(Math.max(1, properties.getStripes() - 1) << 1);
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T execute(String accountNum, Supplier<T> action) {
+        if ( properties.getMode() == AccountConcurrencyProperties.Mode.STRIPED_LOCK ) {
+            return executeWithLock(accountNum, action);
+        }
+        return executeWithRetry(action);
+    }
+
+    private <T> T executeWithLock(String accountNum, Supplier<T> action) {
+        ReentrantLock lock = lockOf(accountNum);
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> action.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T executeWithRetry(Supplier<T> action) {
+        // 상위 트랜잭션에 참여한 경우 재시도 해도 같은 영속성 컨텍스트를 사용하므로 의미가 없음.
+        if ( TransactionSynchronizationManager.isActualTransactionActive() ) {
+            return transactionTemplate.execute(status -> action.get());
+        }
+
+        int maxRetry = Math.max(0, properties.getMaxRetry());
+        for (int retry = 0; ; retry++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if ( retry >= maxRetry ) {
+                    throw new BizRuntimeException("동시 거래 충돌. 재시도 횟수 초과:" + maxRetry);
+                }
+            }
+        }
+    }
+
+    private ReentrantLock lockOf(String accountNum) {
+        int hash = accountNum.hashCode();
+        hash ^= (hash >>> 16);
+        return locks[hash & (locks.length - 1)];
+    }
+}
@@ -0,0 +1,220 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.AccountEvent;
+import com.ken207.openbank.domain.AccountEventBaseline;
+import com.ken207.openbank.domain.AccountEventSnapshot;
+import com.ken207.openbank.domain.AccountState;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.domain.enums.AccountStatusCode;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.repository.AccountEventBaselineRepository;
+import com.ken207.openbank.repository.AccountEventRepository;
+import com.ken207.openbank.repository.AccountEventSnapshotRepository;
+import com.ken207.openbank.repository.query.AccountEventJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 계좌 이벤트 저장소. (이벤트 소싱 모드, app-account.event-sourcing.enabled)
+ * 거래 트랜잭션에서 거래 한 건당 이벤트 한 건을 추가하고, snapshotInterval 건마다 계좌 상태 스냅샷을 갱신한다.
+ * 계좌 상태는 스냅샷 + 이후 이벤트(최대 snapshotInterval 건)로 복원하므로 거래 건수와 무관하다.
+ * 모드를 켜기 전에 신규한 계좌는 adopt 로 원장 상태를 기준 상태(AccountEventBaseline)로 등록해야 복원할 수 있다.
+ * 기준 상태는 신규 이벤트를 대신하며 스냅샷과 달리 갱신되지 않으므로 전체 이벤트 재생도 기준 상태에서 시작한다.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class AccountEventStore {
+
+    private final AccountEventRepository accountEventRepository;
+    private final AccountEventSnapshotRepository accountEventSnapshotRepository;
+    private final AccountEventBaselineRepository accountEventBaselineRepository;
+    private final AccountEventJdbcRepository accountEventJdbcRepository;
+    private final EntityManager em;
+    private final boolean enabled;
+    private final int snapshotInterval;
+    private final int fetchSize;
+
+    public AccountEventStore(AccountEventRepository accountEventRepository,
+                             AccountEventSnapshotRepository accountEventSnapshotRepository,
+                             AccountEventBaselineRepository accountEventBaselineRepository,
+                             AccountEventJdbcRepository accountEventJdbcRepository,
+                             EntityManager em,
+                             @Value("${app-account.event-sourcing.enabled:false}") boolean enabled,
+                             @Value("${app-account.event-sourcing.snapshot-interval:100}") int snapshotInterval,
+                             @Value("${app-account.event-sourcing.fetch-size:1000}") int fetchSize) {
+        this.accountEventRepository = accountEventRepository;
+        this.accountEventSnapshotRepository = accountEventSnapshotRepository;
+        this.accountEventBaselineRepository = accountEventBaselineRepository;
+        this.accountEventJdbcRepository = accountEventJdbcRepository;
+        this.em = em;
+        this.enabled = enabled;
+        this.snapshotInterval = snapshotInterval;
+        this.fetchSize = fetchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 거래 이벤트 추가. 거래(원장 반영) 직후 같은 트랜잭션에서 호출.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Trade trade) {
+        if ( !enabled ) {
+            return;
+        }
+
+        AccountEvent event = AccountEvent.of(trade);
+        em.persist(event);
+
+        if ( event.getSrno() % snapshotInterval == 0 ) {
+            AccountState state = load(event.getAccountId());
+            if ( state != null ) {
+                saveSnapshot(state);
+            }
+        }
+    }
+
+    /**
+     * 원장의 현재 상태를 기준 상태와 스냅샷으로 등록. 이벤트 소싱 모드 이전에 신규한 계좌의 기준 상태.
+     */
+    @Transactional
+    public AccountState adopt(Account account) {
+        AccountState state = new AccountState(account.getId(), account.getLastTrnSrno(), account.getBalance(),
+                account.getLastTradeDate(), account.getLastIntsDt(), account.getCloseDate(), account.getAccountStatusCode());
+
+        AccountEventBaseline baseline = accountEventBaselineRepository.findById(account.getId()).orElse(null);
+        if ( baseline == null ) {
+            accountEventBaselineRepository.save(new AccountEventBaseline(state));
+        }
+        else {
+            baseline.update(state);
+        }
+        saveSnapshot(state);
+        return state;
+    }
+
+    /**
+     * 스냅샷(없으면 기준 상태) + 이후 이벤트로 계좌 상태 복원.
+     * @return 스냅샷, 기준 상태가 없고 첫 이벤트가 신규가 아니면(adopt 하지 않은 기존 계좌) null
+     * @throws IllegalStateException 이벤트 순번이 연속되지 않는 경우
+     */
+    public AccountState load(Long accountId) {
+        AccountState state = accountEventSnapshotRepository.findById(accountId)
+                .map(AccountEventSnapshot::toState)
+                .orElseGet(() -> accountEventBaselineRepository.findById(accountId).map(AccountEventBaseline::toState).orElse(null));
+        boolean fromOpen = state == null;
+        if ( fromOpen ) {
+            state = new AccountState(accountId);
+        }
+
+        List<AccountEvent> events = accountEventRepository.findByAccountIdAndSrnoGreaterThanOrderBySrno(accountId, state.getSrno());
+        if ( fromOpen && (events.isEmpty() || events.get(0).getTradeCd() != TradeCd.OPEN) ) {
+            return null;
+        }
+
+        for (AccountEvent event : events) {
+            state.apply(event);
+        }
+        return state;
+    }
+
+    /**
+     * 전체 이벤트를 처음부터 재생해서 계좌별 최종 상태를 consumer 에 전달. (조회 모델 재구성)
+     * 계좌 순서로 읽으므로 한 번에 한 계좌의 상태만 메모리에 둔다.
+     * adopt 한 계좌는 기준 상태부터 재생하고, 신규 이벤트와 기준 상태가 모두 없거나 순번이 끊긴 계좌는 제외한다.
+     * @return 재생한 이벤트 건수
+     */
+    public long replay(Consumer<AccountState> consumer) {
+        long startNanos = System.nanoTime();
+        ReplayHandler handler = new ReplayHandler(consumer);
+        accountEventJdbcRepository.streamAll(fetchSize, handler);
+        handler.finish();
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        log.info("account event replay. events={}, skipped accounts={}, elapsed={}ms, {} events/s",
+                handler.eventCount, handler.skippedAccountCount, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                String.format("%.1f", elapsedNanos == 0 ? 0 : handler.eventCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos));
+        return handler.eventCount;
+    }
+
+    private void saveSnapshot(AccountState state) {
+        AccountEventSnapshot snapshot = accountEventSnapshotRepository.findById(state.getAccountId()).orElse(null);
+        if ( snapshot == null ) {
+            accountEventSnapshotRepository.save(new AccountEventSnapshot(state));
+        }
+        else {
+            snapshot.update(state);
+        }
+    }
+
+    private static class ReplayHandler implements RowCallbackHandler {
+        private static final TradeCd[] TRADE_CDS = TradeCd.values();
+
+        private final Consumer<AccountState> consumer;
+        private AccountState current;
+        private long currentAccountId = -1;
+        private long eventCount;
+        private long skippedAccountCount;
+
+        private ReplayHandler(Consumer<AccountState> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long accountId = rs.getLong("account_id");
+            long srno = rs.getLong("srno");
+            if ( accountId != currentAccountId ) {
+                finish();
+                currentAccountId = accountId;
+            }
+
+            // 기준 상태는 같은 순번까지의 이벤트 다음에 읽히므로 앞의 상태를 대신한다
+            if ( rs.getInt("baseline") == 1 ) {
+                String accountStatusCode = rs.getString("account_status_code");
+                current = new AccountState(accountId, srno, rs.getLong("amount"), rs.getString("trade_date"),
+                        rs.getString("last_ints_dt"), rs.getString("close_date"),
+                        accountStatusCode == null ? null : AccountStatusCode.valueOf(accountStatusCode));
+                return;
+            }
+
+            if ( current == null && srno == 1 ) {
+                current = new AccountState(accountId);
+            }
+            // 신규 이벤트가 없거나 순번이 끊기면 기준 상태가 나올 때 까지 제외
+            if ( current == null || srno != current.getSrno() + 1 ) {
+                current = null;
+                return;
+            }
+
+            current.apply(srno, TRADE_CDS[rs.getInt("trade_cd")], rs.getString("trade_date"),
+                    rs.getLong("amount"), rs.getString("last_ints_dt"));
+            eventCount++;
+        }
+
+        private void finish() {
+            if ( current != null ) {
+                consumer.accept(current);
+                current = null;
+            }
+            else if ( currentAccountId != -1 ) {
+                skippedAccountCount++;
+            }
+        }
+    }
+}
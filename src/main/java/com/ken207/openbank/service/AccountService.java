@@ -5,18 +5,24 @@ import com.ken207.openbank.domain.*;
 import com.ken207.openbank.domain.enums.PeriodType;
 import com.ken207.openbank.domain.enums.SubjectCode;
 import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.ProductDto;
 import com.ken207.openbank.dto.TradeDto;
 import com.ken207.openbank.exception.BizRuntimeException;
 import com.ken207.openbank.repository.AccountRepository;
-import com.ken207.openbank.repository.ProductRepository;
+import com.ken207.openbank.repository.DailyBalanceRepository;
 import com.ken207.openbank.repository.TradeRepository;
 import com.ken207.openbank.repository.query.TradeQueryRepository;
+import com.ken207.openbank.service.engine.AccountEngine;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
 import java.util.List;
 import java.util.Map;
@@ -26,104 +32,164 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AccountService {
 
-    private final ProductRepository productRepository;
+    /** 업무별 처리시간 timer (class, method 태그로 구분) */
+    public static final String TIMER = "openbank.account.service";
+
+    private final ProductCatalog productCatalog;
     private final AccountRepository accountRepository;
     private final TradeRepository tradeRepository;
+    private final DailyBalanceRepository dailyBalanceRepository;
     private final TradeQueryRepository tradeQueryRepository;
     private final CodeGeneratorService codeGeneratorService;
+    private final AccountConcurrencyTemplate accountConcurrencyTemplate;
+    private final AccountSnapshotCache accountSnapshotCache;
+    private final JournalService journalService;
+    private final AccountEventStore accountEventStore;
+    private final AccountEngine accountEngine;
+    private final BusinessDateService businessDateService;
+    private final EntityManager em;
+
+    /** 내부 호출도 프록시를 거쳐 @Timed 가 기록되도록 자신의 프록시를 사용 */
+    private final ObjectProvider<AccountService> self;
 
     @Transactional
+    @Timed(TIMER)
     public Long openRegularAccount(AccountDto.RequestOpen accountRequestOpen) {
 
-        Product product = productRepository.findByProductCode(accountRequestOpen.getProductCode());
+        //상품은 카탈로그에서 조회하고 원장에는 id 참조만 설정 (상품, 이율 조회 쿼리 없음)
+        ProductDto.CatalogItem catalogItem = productCatalog.getOrLoad(accountRequestOpen.getProductCode());
 
-        if ( product == null ) {
+        if ( catalogItem == null ) {
             throw new BizRuntimeException("존재하지 않는 상품 코드 입니다. 상품코드:"+accountRequestOpen.getProductCode());
         }
 
+        Product product = em.getReference(Product.class, catalogItem.getProductId());
+        Rate basicRate = em.getReference(Rate.class, catalogItem.getBasicRateId());
+
         String accountNum = codeGeneratorService.createAccountNumber(SubjectCode.REGULAR.getSubjectCode());
 
-        Account account = Account.openAccount(product, accountNum, accountRequestOpen.getRegDate(), accountRequestOpen.getTaxationCode());
+        Account account = Account.openAccount(product, basicRate, accountNum, accountRequestOpen.getRegDate(), accountRequestOpen.getTaxationCode(),
+                businessDateService.getBusinessDate());
+        if ( accountRequestOpen.getCustomerId() != null ) {
+            account.setCustomer(em.getReference(Customer.class, accountRequestOpen.getCustomerId()));
+        }
 
         Account saveAccount = accountRepository.save(account);
+        accountEventStore.append(saveAccount.getTradeEntities().get(0));
 
         return saveAccount.getId();
     }
 
     @Transactional
+    @Timed(TIMER)
     public void setPassword(String accountNum, String newPassword) {
         Account account = accountRepository.findByAccountNum(accountNum);
         account.setPassword(newPassword);
     }
 
-    @Transactional
+    /**
+     * 입금. 트랜잭션은 AccountConcurrencyTemplate 에서 시작 함.
+     * 인메모리 계좌 엔진 대상 계좌는 엔진에서 처리 (원장 반영은 체크포인트)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Timed(TIMER)
     public Trade deposit(String accountNum, TradeDto.RequestDeposit requestDeposit) {
-        Account account = getAccountEntity(accountNum);
-
-        if ( OBDateUtils.compareDate(account.getLastTradeDate(), requestDeposit.getTradeDate()) > 0 ) {
-            throw new BizRuntimeException("지정일 이 후 거래가 존재. 기산일 거래를 요청해야 함.");
+        if ( accountEngine.handles(accountNum) ) {
+            return accountEngine.deposit(accountNum, requestDeposit);
         }
 
-        account.setReckonDt(requestDeposit.getTradeDate());
-        Trade deposit = account.deposit(requestDeposit.getAmount());
+        return accountConcurrencyTemplate.execute(accountNum, () -> {
+            Account account = getAccountEntity(accountNum);
 
-        String tradeUniqueNumber = codeGeneratorService.createTradeUniqueNumber();
+            if ( OBDateUtils.compareDate(account.getLastTradeDate(), requestDeposit.getTradeDate()) > 0 ) {
+                throw new BizRuntimeException("지정일 이 후 거래가 존재. 기산일 거래를 요청해야 함.");
+            }
 
-        return tradeRepository.save(deposit);
+            account.setReckonDt(requestDeposit.getTradeDate());
+            Trade deposit = account.deposit(requestDeposit.getAmount());
+            accountSnapshotCache.evict(accountNum);
+
+            String tradeUniqueNumber = codeGeneratorService.createTradeUniqueNumber();
+
+            tradeRepository.save(deposit);
+            journalService.post(deposit);
+            accountEventStore.append(deposit);
+            return deposit;
+        });
     }
 
-    @Transactional
+    /**
+     * 출금. 트랜잭션은 AccountConcurrencyTemplate 에서 시작 함.
+     * 인메모리 계좌 엔진 대상 계좌는 엔진에서 처리 (원장 반영은 체크포인트)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Timed(TIMER)
     public Trade withdraw(String accountNum, TradeDto.RequestDeposit requestWithdraw) {
-        Account account = getAccountEntity(accountNum);
-
+        if ( accountEngine.handles(accountNum) ) {
+            return accountEngine.withdraw(accountNum, requestWithdraw);
+        }
 
-        account.setReckonDt(requestWithdraw.getTradeDate());
-        Trade withdraw = account.withdraw(requestWithdraw.getAmount());
-        return tradeRepository.save(withdraw);
+        return accountConcurrencyTemplate.execute(accountNum, () -> {
+            Account account = getAccountEntity(accountNum);
+
+            account.setReckonDt(requestWithdraw.getTradeDate());
+            Trade withdraw = account.withdraw(requestWithdraw.getAmount());
+            accountSnapshotCache.evict(accountNum);
+            tradeRepository.save(withdraw);
+            journalService.post(withdraw);
+            accountEventStore.append(withdraw);
+            return withdraw;
+        });
     }
 
     private Account getAccountEntity(String accountNum) {
-        Account account = accountRepository.findByAccountNum(accountNum);
+        Account account = accountRepository.findForTradeByAccountNum(accountNum);
         if (account == null) {
             throw new EntityNotFoundException("존재하지 않는 계좌번호 입니다.");
         }
+        account.setBzDate(businessDateService.getBusinessDate());
         return account;
     }
 
+    @Timed(TIMER)
     public Page<Account> getAccountList(Pageable pageable) {
-        Page<Account> page = this.accountRepository.findAll(pageable);
-        page.stream().forEach(o -> o.getProduct().getName());
-        return page;
+        return this.accountRepository.findAll(pageable);
     }
 
     @Transactional(readOnly = true)
+    @Timed(TIMER)
     public Interest getInterest(String accountNum, String untilDate) {
 
         //원장조회
-        Account account = accountRepository.findByAccountNum(accountNum);
+        Account account = accountRepository.findForInterestByAccountNum(accountNum);
+        account.setBzDate(businessDateService.getBusinessDate());
 
-        //이자계산용 거래내역 조회
-        //최종이자계산일 기준으로 이후 거래내역을 모두 조회
-        //원가시 거래내역을 항상 insert함 0원 포함.
-        List<Trade> tradeListForInterest = tradeRepository.findByAccountIdAndTradeDateGreaterThanOrderBySrnoDesc(account.getId(), account.getLastIntsDt());
+        return self.getObject().calculateInterest(account, untilDate);
+    }
+
+    /**
+     * 조회된 원장으로 최종이자계산일 다음날 부터 untilDate 까지 이자계산.
+     * 이자결산 배치에서 원장을 모아서 조회한 후 호출 함.
+     */
+    @Timed(TIMER)
+    public Interest calculateInterest(Account account, String untilDate) {
 
         //InterestEntity 생성, AccountEntity 연관관계설정
         Interest interest = Interest.createInterest(account);
 
-        //이자계산 대상 거래내역 등록
-        interest.setTradeListForInterest(tradeListForInterest);
+        //기본이율 변경 이력은 카탈로그에서 공유 (이율 조회 쿼리 없음)
+        interest.setRateSchedule(productCatalog.getRateSchedule(account.getProduct().getId()));
 
         //이자계산 기간, 방법 설정 -> 일수로 이자계산.
-        interest.setPeriod(OBDateUtils.addDays(account.getLastIntsDt(), 1), untilDate, PeriodType.DAILY);
-
-        //거래를 역순으로 정렬
-        interest.sortedTradeList();
+        String fromDate = OBDateUtils.addDays(account.getLastIntsDt(), 1);
+        interest.setPeriod(fromDate, untilDate, PeriodType.DAILY);
 
-        // 거래내역 필터
-        interest.remainLastTradeOfDays();
+        //이자계산 기간의 일별 마감잔액 조회 (최근 일자 -> 오래된 일자)
+        //거래 건수와 무관하게 거래가 있었던 일수만큼만 조회 함.
+        List<DailyBalance> dailyBalances = dailyBalanceRepository.findByAccountIdAndTradeDateBetweenOrderByTradeDateDescIdDesc(account.getId(), fromDate, untilDate);
 
-        // 거래내역을 이자계산내역으로 변경
-        interest.makeInterestDetail();
+        // 일별 마감잔액을 이자계산내역으로 변경
+        interest.makeInterestDetail(dailyBalances);
 
         // 이자계산내역으로 이자계산 실행.
         interest.calculate();
@@ -131,19 +197,29 @@ public class AccountService {
         return interest;
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Timed(TIMER)
     public Trade payInterest(String accountNum, String untilDate, String reckonDate) {
-
-        Interest interest = this.getInterest(accountNum, untilDate);
-        Trade trade = interest.payInterest(reckonDate);
-        accountRepository.save(trade.getAccount());
-        return trade;
+        accountEngine.release(accountNum);
+        return accountConcurrencyTemplate.execute(accountNum, () -> {
+            Interest interest = self.getObject().getInterest(accountNum, untilDate);
+            Trade trade = interest.payInterest(reckonDate);
+            accountRepository.save(trade.getAccount());
+            accountSnapshotCache.evict(accountNum);
+            journalService.post(trade);
+            accountEventStore.append(trade);
+            return trade;
+        });
     }
 
     @Transactional
+    @Timed(TIMER)
     public Trade closeAccount(String accountNum, String reckonDate) {
+        accountEngine.release(accountNum);
 
-        Account account = accountRepository.findByAccountNum(accountNum);
+        Account account = accountRepository.findForInterestByAccountNum(accountNum);
+        account.setBzDate(businessDateService.getBusinessDate());
+        accountSnapshotCache.evict(accountNum);
         Map<String, Long> dailyBalance = tradeQueryRepository.getDailyBalanceFrom(account.getId(), account.getLastIntsDt());
 
         Interest interest = Interest.builder()
@@ -152,6 +228,9 @@ public class AccountService {
                 .reckonDate(reckonDate)
                 .fromDate(account.getLastIntsDt())
                 .build();
-        return account.closeAccount(interest);
+        Trade trade = account.closeAccount(interest);
+        journalService.post(trade);
+        accountEventStore.append(trade);
+        return trade;
     }
 }
@@ -0,0 +1,82 @@
+package com.ken207.openbank.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.mapper.AccountMapper;
+import com.ken207.openbank.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * 계좌번호로 조회하는 계좌 정보 캐시. (크기, TTL 제한)
+ * 조회 API 는 캐시가 있으면 DB 를 조회하지 않는다.
+ * 잔액을 변경하는 거래는 evict 를 호출해야 하며, 트랜잭션 안에서 호출하면 커밋 후에도 한번 더 제거한다.
+ * hit/miss/eviction 은 cache.gets, cache.evictions 메트릭(cache=accountSnapshot)으로 확인.
+ */
+@Component
+public class AccountSnapshotCache {
+
+    public static final String CACHE_NAME = "accountSnapshot";
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final AccountMapper accountMapper = AccountMapper.INSTANCE;
+    private final Cache<String, AccountDto.Snapshot> cache;
+
+    public AccountSnapshotCache(AccountRepository accountRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app-cache.account.maximum-size:10000}") long maximumSize,
+                                @Value("${app-cache.account.expire-after-write:60s}") Duration expireAfterWrite) {
+        this.accountRepository = accountRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @return 존재하지 않는 계좌는 null (캐시하지 않음)
+     */
+    public AccountDto.Snapshot get(String accountNum) {
+        return cache.get(accountNum, this::load);
+    }
+
+    public void evict(String accountNum) {
+        cache.invalidate(accountNum);
+
+        // 커밋 전에 다른 요청이 이전 잔액으로 다시 캐시할 수 있으므로 커밋 후 한번 더 제거
+        if ( TransactionSynchronizationManager.isSynchronizationActive() ) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(accountNum);
+                }
+            });
+        }
+    }
+
+    private AccountDto.Snapshot load(String accountNum) {
+        return readOnlyTransactionTemplate.execute(status -> {
+            Account account = accountRepository.findForListByAccountNum(accountNum);
+            if ( account == null ) {
+                return null;
+            }
+            return new AccountDto.Snapshot(account.getId(), account.getAccountNum(), accountMapper.accountForResponse(account));
+        });
+    }
+}
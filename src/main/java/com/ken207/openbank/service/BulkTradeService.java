@@ -0,0 +1,142 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.exception.BizRuntimeException;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.TradeRepository;
+import com.ken207.openbank.service.engine.AccountEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 다건 입출금.
+ * 요청을 계좌별로 묶어서 계좌마다 하나의 트랜잭션으로 요청 순서대로 처리한다.
+ * 거래내역은 커밋 시점에 hibernate.jdbc.batch_size 단위로 batch insert 된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkTradeService {
+
+    private final AccountRepository accountRepository;
+    private final TradeRepository tradeRepository;
+    private final AccountConcurrencyTemplate accountConcurrencyTemplate;
+    private final AccountSnapshotCache accountSnapshotCache;
+    private final JournalService journalService;
+    private final AccountEventStore accountEventStore;
+    private final AccountEngine accountEngine;
+    private final BusinessDateService businessDateService;
+
+    public TradeDto.ResponseBulk execute(TradeDto.RequestBulk requestBulk) {
+        long startNanos = System.nanoTime();
+
+        List<TradeDto.RequestBulkItem> items = requestBulk.getTrades();
+        TradeDto.ResponseBulkItem[] results = new TradeDto.ResponseBulkItem[items.size()];
+
+        //계좌별로 요청 index 를 묶음 (요청 순서 유지)
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int seq = 0; seq < items.size(); seq++) {
+            groups.computeIfAbsent(items.get(seq).getAccountNum(), k -> new ArrayList<>()).add(seq);
+        }
+
+        for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+            String accountNum = group.getKey();
+            List<Integer> seqs = group.getValue();
+            try {
+                List<TradeDto.ResponseBulkItem> groupResults = accountConcurrencyTemplate.execute(accountNum,
+                        () -> applyGroup(accountNum, seqs, items));
+                groupResults.forEach(o -> results[o.getSeq()] = o);
+            } catch (RuntimeException e) {
+                //계좌 단위 실패 (계좌 없음, 동시 거래 충돌 등) 는 해당 계좌의 모든 요청이 실패
+                for (Integer seq : seqs) {
+                    results[seq] = fail(seq, items.get(seq), e.getMessage());
+                }
+            }
+        }
+
+        int successCount = (int) Arrays.stream(results).filter(TradeDto.ResponseBulkItem::isSuccess).count();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        double tradesPerSecond = elapsedNanos == 0 ? 0 : successCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+
+        log.info("bulk trade. accounts={}, trades={}, success={}, elapsed={}ms, {} trades/s",
+                groups.size(), items.size(), successCount, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), String.format("%.1f", tradesPerSecond));
+
+        return TradeDto.ResponseBulk.builder()
+                .totalCount(items.size())
+                .successCount(successCount)
+                .failCount(items.size() - successCount)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .tradesPerSecond(tradesPerSecond)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * 한 계좌의 요청들을 하나의 트랜잭션에서 순서대로 처리.
+     * 잔액부족 등 도메인 검증 오류는 원장 변경 전에 발생하므로 해당 건만 실패 처리하고 계속 진행한다.
+     * 엔진 계좌는 트랜잭션이 끝날 때까지 엔진 거래를 막는다.
+     */
+    private List<TradeDto.ResponseBulkItem> applyGroup(String accountNum, List<Integer> seqs, List<TradeDto.RequestBulkItem> items) {
+        accountEngine.release(accountNum);
+        Account account = accountRepository.findForTradeByAccountNum(accountNum);
+        if ( account == null ) {
+            throw new BizRuntimeException("존재하지 않는 계좌번호 입니다.");
+        }
+        account.setBzDate(businessDateService.getBusinessDate());
+        accountSnapshotCache.evict(accountNum);
+
+        List<TradeDto.ResponseBulkItem> groupResults = new ArrayList<>(seqs.size());
+        for (Integer seq : seqs) {
+            TradeDto.RequestBulkItem item = items.get(seq);
+            try {
+                account.setReckonDt(item.getTradeDate());
+                Trade trade = trade(account, item);
+                tradeRepository.save(trade);
+                journalService.post(trade);
+                accountEventStore.append(trade);
+                groupResults.add(TradeDto.ResponseBulkItem.builder()
+                        .seq(seq)
+                        .accountNum(accountNum)
+                        .tradeCd(trade.getTradeCd())
+                        .success(true)
+                        .srno(trade.getSrno())
+                        .blncAfter(trade.getBlncAfter())
+                        .build());
+            } catch (BizRuntimeException e) {
+                groupResults.add(fail(seq, item, e.getMessage()));
+            }
+        }
+        return groupResults;
+    }
+
+    private Trade trade(Account account, TradeDto.RequestBulkItem item) {
+        if ( item.getTradeCd() == TradeCd.DEPOSIT ) {
+            return account.deposit(item.getAmount());
+        }
+        else if ( item.getTradeCd() == TradeCd.WITHDRAW ) {
+            return account.withdraw(item.getAmount());
+        }
+        throw new BizRuntimeException("다건 거래는 입금, 출금만 가능. 거래코드:" + item.getTradeCd());
+    }
+
+    private TradeDto.ResponseBulkItem fail(int seq, TradeDto.RequestBulkItem item, String message) {
+        return TradeDto.ResponseBulkItem.builder()
+                .seq(seq)
+                .accountNum(item.getAccountNum())
+                .tradeCd(item.getTradeCd())
+                .success(false)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.BusinessDate;
+import com.ken207.openbank.repository.BusinessDateRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 영업일자.
+ * 현재 영업일자는 메모리에 보관하므로 거래마다 조회하지 않는다. 처음 기동 시 영업일자가 없으면 오늘로 등록한다.
+ */
+@Service
+public class BusinessDateService {
+
+    private final BusinessDateRepository businessDateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicReference<BusinessDate> current = new AtomicReference<>();
+
+    public BusinessDateService(BusinessDateRepository businessDateRepository, PlatformTransactionManager transactionManager) {
+        this.businessDateRepository = businessDateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 현재 영업일자 (거래 처리일자)
+     */
+    public String getBusinessDate() {
+        return current.get().getBzDate();
+    }
+
+    /**
+     * @return 마감한 적이 없으면 null
+     */
+    public String getLastClosedDate() {
+        return current.get().getLastClosedDate();
+    }
+
+    @PostConstruct
+    public void refresh() {
+        current.set(transactionTemplate.execute(status -> businessDateRepository.findById(BusinessDate.DEFAULT_NAME)
+                .orElseGet(() -> businessDateRepository.saveAndFlush(new BusinessDate(BusinessDate.DEFAULT_NAME, OBDateUtils.getToday())))));
+    }
+
+    /**
+     * 영업일자 변경. closeDate 가 현재 영업일자일 때만 다음 날로 변경한다.
+     * @return 변경 후 영업일자
+     */
+    public String roll(String closeDate) {
+        current.set(transactionTemplate.execute(status -> {
+            BusinessDate businessDate = findForUpdate();
+            businessDate.roll(closeDate);
+            return businessDate;
+        }));
+        return getBusinessDate();
+    }
+
+    /**
+     * 마감 완료. 다음 마감의 잔액 대사는 이 일자의 마감 잔액부터 시작한다.
+     */
+    public void close(String closeDate) {
+        current.set(transactionTemplate.execute(status -> {
+            BusinessDate businessDate = findForUpdate();
+            businessDate.close(closeDate);
+            return businessDate;
+        }));
+    }
+
+    private BusinessDate findForUpdate() {
+        return businessDateRepository.findForUpdate(BusinessDate.DEFAULT_NAME)
+                .orElseThrow(() -> new IllegalStateException("영업일자가 등록되지 않음"));
+    }
+}
@@ -1,32 +1,129 @@
 package com.ken207.openbank.service;
 
-import com.ken207.openbank.domain.CodeGenerator;
-import com.ken207.openbank.repository.CodeGeneratorRepository;
-import lombok.RequiredArgsConstructor;
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.CodeSequence;
+import com.ken207.openbank.repository.CodeSequenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 계좌번호, 거래고유번호 채번.
+ * DB 에서는 blockSize 단위로 번호를 예약하고, 예약된 블록 안에서는 메모리에서 lock-free 로 번호를 발급한다.
+ * 서버 재기동 시 사용하지 않은 블록의 번호는 건너뛴다.
+ */
 @Service
-@Transactional(readOnly = true)
-@RequiredArgsConstructor
 public class CodeGeneratorService {
 
-    private final CodeGeneratorRepository codeGeneratorRepository;
+    private static final String ACCOUNT_SEQUENCE = "ACNO-";
+    private static final String TRADE_SEQUENCE = "TRADE";
+    private static final String JOURNAL_SEQUENCE = "JOURNAL";
+    private static final String CLOSING_BALANCE_SEQUENCE = "CLOSING";
 
-    @Transactional
-    public String createAccountNumber(String prefixCode) {
-        CodeGenerator code = CodeGenerator.builder()
-                .build();
-        CodeGenerator newAcnoCode = codeGeneratorRepository.save(code);
+    private final CodeSequenceRepository codeSequenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final ConcurrentMap<String, AtomicReference<Block>> blocks = new ConcurrentHashMap<>();
+
+    public CodeGeneratorService(CodeSequenceRepository codeSequenceRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app-sequence.block-size:100}") int blockSize) {
+        this.codeSequenceRepository = codeSequenceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
 
-        return newAcnoCode.createAccountNumber(prefixCode);
+    public String createAccountNumber(String prefixCode) {
+        StringBuilder numberBuilder = new StringBuilder();
+        numberBuilder.append(prefixCode).append(100000 + nextValue(ACCOUNT_SEQUENCE + prefixCode));
+        return numberBuilder.toString();
     }
 
     public String createTradeUniqueNumber() {
-        CodeGenerator code = CodeGenerator.builder()
-                .build();
-        CodeGenerator newCode = codeGeneratorRepository.save(code);
+        StringBuilder numberBuilder = new StringBuilder();
+        numberBuilder.append(OBDateUtils.getToday()).append(1000000 + nextValue(TRADE_SEQUENCE));
+        return numberBuilder.toString();
+    }
+
+    /**
+     * 전표(Statement) id. JournalWriter 가 JDBC batch insert 하므로 DB 시퀀스 대신 블록 채번을 사용한다.
+     */
+    public long nextJournalId() {
+        return nextValue(JOURNAL_SEQUENCE);
+    }
+
+    /**
+     * 마감 잔액(ClosingBalance) id. 일마감 배치가 JDBC batch insert 함.
+     */
+    public long nextClosingBalanceId() {
+        return nextValue(CLOSING_BALANCE_SEQUENCE);
+    }
+
+    long nextValue(String sequenceName) {
+        AtomicReference<Block> blockRef = blocks.computeIfAbsent(sequenceName, key -> new AtomicReference<>(Block.EMPTY));
+
+        while (true) {
+            Block block = blockRef.get();
+            long value = block.next();
+            if ( value > 0 ) {
+                return value;
+            }
+
+            // 블록 소진. 한 스레드만 새 블록을 예약하고 나머지는 교체된 블록을 사용.
+            synchronized (blockRef) {
+                if ( blockRef.get() == block ) {
+                    blockRef.set(reserveBlock(sequenceName));
+                }
+            }
+        }
+    }
+
+    private Block reserveBlock(String sequenceName) {
+        try {
+            return transactionTemplate.execute(status -> reserveBlockInTransaction(sequenceName));
+        } catch (DataIntegrityViolationException e) {
+            // 다른 서버가 같은 채번 행을 먼저 생성한 경우
+            return transactionTemplate.execute(status -> reserveBlockInTransaction(sequenceName));
+        }
+    }
+
+    private Block reserveBlockInTransaction(String sequenceName) {
+        CodeSequence codeSequence = codeSequenceRepository.findForUpdate(sequenceName)
+                .orElseGet(() -> codeSequenceRepository.saveAndFlush(new CodeSequence(sequenceName)));
+
+        long start = codeSequence.reserve(blockSize);
+        return new Block(start, start + blockSize);
+    }
+
+    /**
+     * 예약된 번호 블록 [start, end)
+     */
+    private static class Block {
+        private static final Block EMPTY = new Block(0, 0);
+
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
 
-        return newCode.createTradeUniqueNumber();
+        /**
+         * @return 발급된 번호, 블록이 소진된 경우 0
+         */
+        private long next() {
+            long value = next.getAndIncrement();
+            return value < end ? value : 0;
+        }
     }
 }
@@ -0,0 +1,141 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.batch.BranchProductPartitioner;
+import com.ken207.openbank.batch.EndOfDayPartitionTasklet;
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.configs.EndOfDayJobConfig;
+import com.ken207.openbank.domain.DailyClosing;
+import com.ken207.openbank.dto.EndOfDayDto;
+import com.ken207.openbank.exception.BizRuntimeException;
+import com.ken207.openbank.repository.DailyClosingRepository;
+import com.ken207.openbank.repository.query.EndOfDayJdbcRepository;
+import com.ken207.openbank.service.engine.AccountEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 일마감(EOD) 배치 실행.
+ * 마감일자는 현재 영업일자이며, 같은 마감일자로 다시 실행하면 해당 일자의 집계와 마감 잔액을 다시 만든다.
+ */
+@Slf4j
+@Service
+public class EndOfDayService {
+
+    private final JobLauncher jobLauncher;
+    private final Job endOfDayJob;
+    private final BusinessDateService businessDateService;
+    private final EndOfDayJdbcRepository endOfDayJdbcRepository;
+    private final DailyClosingRepository dailyClosingRepository;
+    private final AccountEngine accountEngine;
+
+    public EndOfDayService(JobLauncher jobLauncher, @Qualifier("endOfDayJob") Job endOfDayJob,
+                           BusinessDateService businessDateService,
+                           EndOfDayJdbcRepository endOfDayJdbcRepository,
+                           DailyClosingRepository dailyClosingRepository,
+                           AccountEngine accountEngine) {
+        this.jobLauncher = jobLauncher;
+        this.endOfDayJob = endOfDayJob;
+        this.businessDateService = businessDateService;
+        this.endOfDayJdbcRepository = endOfDayJdbcRepository;
+        this.dailyClosingRepository = dailyClosingRepository;
+        this.accountEngine = accountEngine;
+    }
+
+    /**
+     * 현재 영업일자 마감
+     */
+    public EndOfDayDto.Result run() {
+        return run(businessDateService.getBusinessDate());
+    }
+
+    public EndOfDayDto.Result run(String bzDate) {
+        if ( OBDateUtils.isLeftLater(bzDate, businessDateService.getBusinessDate()) ) {
+            throw new BizRuntimeException("영업일자 이후 일자는 마감할 수 없음. 마감일자:" + bzDate);
+        }
+
+        String fromDate = endOfDayJdbcRepository.findLastClosingDate(bzDate);
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("bzDate", bzDate)
+                .addString("fromDate", fromDate == null ? OBDateUtils.MIN_DATE : fromDate)
+                .addLong("requestedAt", System.currentTimeMillis())
+                .toJobParameters();
+
+        // 인메모리 계좌 엔진의 거래를 원장에 반영한 후 마감. 마감 중에는 엔진 거래를 거절
+        accountEngine.releaseAll();
+        JobExecution jobExecution;
+        try {
+            jobExecution = jobLauncher.run(endOfDayJob, jobParameters);
+        } catch (JobExecutionException e) {
+            throw new BizRuntimeException(e);
+        } finally {
+            accountEngine.resumeAll();
+        }
+
+        List<EndOfDayDto.Partition> partitions = jobExecution.getStepExecutions().stream()
+                .filter(stepExecution -> stepExecution.getStepName().startsWith(EndOfDayJobConfig.PARTITION_STEP_NAME + ":"))
+                .map(this::toPartition)
+                .sorted(Comparator.comparingLong(EndOfDayDto.Partition::getBranchId).thenComparingLong(EndOfDayDto.Partition::getProductId))
+                .collect(Collectors.toList());
+        partitions.forEach(partition -> log.info("end of day {} branch {} product {} : {} {} accounts, {} ms",
+                bzDate, partition.getBranchId(), partition.getProductId(), partition.getStatus(),
+                partition.getAccountCount(), partition.getElapsedMillis()));
+
+        List<DailyClosing> closings = dailyClosingRepository.findByBzDateOrderByBranchIdAscProductIdAsc(bzDate);
+        long elapsedMillis = elapsedMillis(jobExecution.getStartTime(), jobExecution.getEndTime());
+        log.info("end of day {} {} : {} partitions, {} ms", bzDate, jobExecution.getStatus(), partitions.size(), elapsedMillis);
+
+        return EndOfDayDto.Result.builder()
+                .jobExecutionId(jobExecution.getId())
+                .status(jobExecution.getStatus())
+                .bzDate(bzDate)
+                .nextBzDate(businessDateService.getBusinessDate())
+                .elapsedMillis(elapsedMillis)
+                .mismatchCount(closings.stream().mapToLong(DailyClosing::getMismatchCount).sum())
+                .partitions(partitions)
+                .branches(sum(closings, DailyClosing::getBranchId))
+                .products(sum(closings, DailyClosing::getProductId))
+                .build();
+    }
+
+    private EndOfDayDto.Partition toPartition(StepExecution stepExecution) {
+        ExecutionContext context = stepExecution.getExecutionContext();
+        return EndOfDayDto.Partition.builder()
+                .branchId(context.getLong(BranchProductPartitioner.BRANCH_ID))
+                .productId(context.getLong(BranchProductPartitioner.PRODUCT_ID))
+                .status(stepExecution.getStatus())
+                .accountCount(stepExecution.getWriteCount())
+                .mismatchCount(context.getLong(EndOfDayPartitionTasklet.MISMATCH_COUNT, 0))
+                .elapsedMillis(elapsedMillis(stepExecution.getStartTime(), stepExecution.getEndTime()))
+                .build();
+    }
+
+    private List<EndOfDayDto.Total> sum(List<DailyClosing> closings, Function<DailyClosing, Long> key) {
+        Map<Long, EndOfDayDto.Total> totals = new TreeMap<>();
+        for (DailyClosing closing : closings) {
+            EndOfDayDto.Total total = totals.computeIfAbsent(key.apply(closing), id -> EndOfDayDto.Total.builder().id(id).build());
+            total.setAccountCount(total.getAccountCount() + closing.getAccountCount());
+            total.setTradeCount(total.getTradeCount() + closing.getTradeCount());
+            total.setDepositAmount(total.getDepositAmount() + closing.getDepositAmount());
+            total.setWithdrawAmount(total.getWithdrawAmount() + closing.getWithdrawAmount());
+            total.setInterestAmount(total.getInterestAmount() + closing.getInterestAmount());
+            total.setBalanceAmount(total.getBalanceAmount() + closing.getBalanceAmount());
+        }
+        return new ArrayList<>(totals.values());
+    }
+
+    private long elapsedMillis(Date startTime, Date endTime) {
+        if ( startTime == null ) {
+            return 0;
+        }
+        long end = endTime == null ? System.currentTimeMillis() : endTime.getTime();
+        return end - startTime.getTime();
+    }
+}
@@ -0,0 +1,57 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.batch.InterestSettlementListener;
+import com.ken207.openbank.dto.InterestDto;
+import com.ken207.openbank.exception.BizRuntimeException;
+import com.ken207.openbank.service.engine.AccountEngine;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * 이자결산 배치 실행.
+ * 같은 untilDate, reckonDate 로 다시 실행하면 실패한 파티션부터 재시작 한다.
+ */
+@Service
+public class InterestSettlementService {
+
+    private final JobLauncher jobLauncher;
+    private final Job interestSettlementJob;
+    private final AccountEngine accountEngine;
+
+    public InterestSettlementService(JobLauncher jobLauncher, @Qualifier("interestSettlementJob") Job interestSettlementJob,
+                                     AccountEngine accountEngine) {
+        this.jobLauncher = jobLauncher;
+        this.interestSettlementJob = interestSettlementJob;
+        this.accountEngine = accountEngine;
+    }
+
+    public InterestDto.Settlement settle(String untilDate, String reckonDate) {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("untilDate", untilDate)
+                .addString("reckonDate", reckonDate)
+                .toJobParameters();
+
+        // 인메모리 계좌 엔진의 거래를 원장에 반영한 후 결산. 결산 중에는 엔진 거래를 거절
+        accountEngine.releaseAll();
+
+        JobExecution jobExecution;
+        try {
+            jobExecution = jobLauncher.run(interestSettlementJob, jobParameters);
+        } catch (JobExecutionException e) {
+            throw new BizRuntimeException(e);
+        } finally {
+            accountEngine.resumeAll();
+        }
+
+        return InterestDto.Settlement.builder()
+                .jobExecutionId(jobExecution.getId())
+                .status(jobExecution.getStatus())
+                .untilDate(untilDate)
+                .reckonDate(reckonDate)
+                .accountCount(jobExecution.getExecutionContext().getLong(InterestSettlementListener.ACCOUNT_COUNT, 0))
+                .accountsPerSecond(jobExecution.getExecutionContext().getDouble(InterestSettlementListener.ACCOUNTS_PER_SECOND, 0))
+                .build();
+    }
+}
@@ -0,0 +1,190 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.domain.Statement;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.dto.JournalDto;
+import com.ken207.openbank.repository.query.JournalOutboxJdbcRepository;
+import com.ken207.openbank.repository.query.StatementJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * 전표 기표 대기(JournalOutbox) 처리.
+ * 폴러 스레드 하나가 대기 거래를 거래 id 순서로 읽어서 batchSize 건씩 나누고, 제한된 크기의 executor 에서
+ * 전표 저장(JournalWriter) -> outbox 삭제 -> JournalPostedEvent 발행 순서로 처리한다.
+ * 대기 거래는 PostgreSQL 에서 for update skip locked 로 잠가서 다른 인스턴스와 나누어 처리한다.
+ * 전표 저장과 outbox 삭제는 다른 트랜잭션이므로 같은 거래가 다시 처리될 수 있으며(at-least-once),
+ * 전표가 이미 있는 거래는 저장하지 않고 outbox 만 삭제한다. 중복 저장은 전표의 unique 제약(거래, 순번)이 막는다.
+ */
+@Slf4j
+@Component
+public class JournalOutboxDispatcher {
+
+    private final JournalOutboxJdbcRepository journalOutboxJdbcRepository;
+    private final StatementJdbcRepository statementJdbcRepository;
+    private final JournalWriter journalWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int threads;
+    private final Duration pollInterval;
+    private final Counter postedCounter;
+    private final TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService poller;
+    private ThreadPoolExecutor executor;
+
+    public JournalOutboxDispatcher(JournalOutboxJdbcRepository journalOutboxJdbcRepository,
+                                   StatementJdbcRepository statementJdbcRepository,
+                                   JournalWriter journalWriter,
+                                   ApplicationEventPublisher eventPublisher,
+                                   MeterRegistry meterRegistry,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app-journal.batch-size:500}") int batchSize,
+                                   @Value("${app-journal.outbox.threads:2}") int threads,
+                                   @Value("${app-journal.outbox.poll-interval:200ms}") Duration pollInterval) {
+        this.journalOutboxJdbcRepository = journalOutboxJdbcRepository;
+        this.statementJdbcRepository = statementJdbcRepository;
+        this.journalWriter = journalWriter;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.pollInterval = pollInterval;
+        this.postedCounter = Counter.builder("openbank.journal.outbox.posted")
+                .description("trades posted to the journal")
+                .register(meterRegistry);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        // 폴러가 한 번에 threads 개 batch 만 넘기므로 큐가 넘치지 않지만, 넘치면 폴러 스레드에서 처리
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), new ThreadPoolExecutor.CallerRunsPolicy());
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-outbox-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        poller.shutdown();
+        poller.awaitTermination(30, TimeUnit.SECONDS);
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void poll() {
+        try {
+            dispatchPending();
+        } catch (RuntimeException e) {
+            // 처리하지 못한 outbox 는 남아 있으므로 다음 주기에 다시 처리
+            log.error("journal outbox dispatch failed", e);
+        }
+    }
+
+    /**
+     * 대기 거래가 없을 때까지 전표를 저장.
+     * 대기 거래 조회(잠금)부터 outbox 삭제까지 한 트랜잭션이므로, 여러 인스턴스가 같은 대기 거래를 동시에 처리하지 않는다.
+     * @return 전표를 저장한 거래 건수
+     */
+    public synchronized int dispatchPending() {
+        int posted = 0;
+        while (true) {
+            List<Long> tradeIds = new ArrayList<>();
+            int dispatched = transactionTemplate.execute(status -> dispatchClaimed(tradeIds));
+            posted += dispatched;
+            if ( !tradeIds.isEmpty() ) {
+                postedCounter.increment(dispatched);
+                eventPublisher.publishEvent(new JournalPostedEvent(tradeIds));
+            }
+
+            if ( tradeIds.size() < batchSize * threads ) {
+                return posted;
+            }
+        }
+    }
+
+    /**
+     * 대기 거래를 잠그고 batchSize 건씩 전표를 저장한 후 outbox 삭제
+     * @param tradeIds 처리한(outbox 를 삭제한) 거래 id 를 담음
+     * @return 전표를 저장한 거래 건수
+     */
+    private int dispatchClaimed(List<Long> tradeIds) {
+        List<JournalDto.OutboxTrade> pending = journalOutboxJdbcRepository.findPending(batchSize * threads);
+        if ( pending.isEmpty() ) {
+            return 0;
+        }
+
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<JournalDto.OutboxTrade> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            futures.add(executor.submit(() -> dispatch(batch)));
+        }
+        int posted = 0;
+        for (Future<Integer> future : futures) {
+            posted += getResult(future);
+        }
+
+        // 전표 commit 후 outbox 삭제
+        pending.forEach(outboxTrade -> tradeIds.add(outboxTrade.getTradeId()));
+        journalOutboxJdbcRepository.deleteByTradeIds(tradeIds);
+        return posted;
+    }
+
+    /**
+     * @return 전표를 저장한 거래 건수. 이미 전표가 있는 거래는 저장하지 않음 (재처리, unique 제약)
+     */
+    private int dispatch(List<JournalDto.OutboxTrade> batch) throws Exception {
+        List<Long> tradeIds = batch.stream().map(JournalDto.OutboxTrade::getTradeId).collect(Collectors.toList());
+        Set<Long> journaled = statementJdbcRepository.findJournaledTradeIds(tradeIds);
+
+        List<Statement> statements = new ArrayList<>(batch.size() * 2);
+        for (JournalDto.OutboxTrade outboxTrade : batch) {
+            if ( !journaled.contains(outboxTrade.getTradeId()) ) {
+                statements.addAll(toTrade(outboxTrade).createStatements(outboxTrade.getAccountSubjectCode()));
+            }
+        }
+
+        journalWriter.append(statements).get();
+        return tradeIds.size() - journaled.size();
+    }
+
+    private Trade toTrade(JournalDto.OutboxTrade outboxTrade) {
+        Trade trade = Trade.builder()
+                .tradeCd(outboxTrade.getTradeCd())
+                .amount(outboxTrade.getAmount())
+                .bzDate(outboxTrade.getBzDate())
+                .build();
+        trade.setId(outboxTrade.getTradeId());
+        return trade;
+    }
+
+    private int getResult(Future<Integer> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ken207.openbank.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 전표 저장 완료 알림. 후속 처리(통지 등)는 @EventListener 로 받는다.
+ * at-least-once 이므로 같은 거래 id 가 다시 전달될 수 있다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class JournalPostedEvent {
+
+    private final List<Long> tradeIds;
+}
@@ -0,0 +1,51 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.JournalOutbox;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.repository.TradeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 거래 전표 기표.
+ * 거래 트랜잭션에서는 outbox 한 행만 추가하고(거래와 함께 flush), 전표는 JournalOutboxDispatcher 가 따로 저장한다.
+ * 거래가 커밋되면 전표도 반드시 저장된다. (at-least-once, 거래 id 로 중복 제거)
+ */
+@Service
+@RequiredArgsConstructor
+public class JournalService {
+
+    private final ProductCatalog productCatalog;
+    private final TradeRepository tradeRepository;
+    private final EntityManager em;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void post(Trade trade) {
+        if ( trade.getAmount() == 0 ) {
+            return;
+        }
+
+        // 계좌에서 cascade 로 저장되는 거래(이자지급)는 outbox 의 키로 사용할 id 가 아직 없음
+        if ( trade.getId() == null ) {
+            tradeRepository.save(trade);
+        }
+        em.persist(new JournalOutbox(trade.getId(), getSubjectCode(trade.getAccount())));
+    }
+
+    /**
+     * 상품 과목코드. 카탈로그를 사용하므로 상품을 조회하지 않는다.
+     */
+    private String getSubjectCode(Account account) {
+        ProductDto.CatalogItem item = productCatalog.getById(account.getProduct().getId());
+        if ( item != null ) {
+            return item.getSubjectCode().getSubjectCode();
+        }
+        return account.getProduct().getSubjectCode().getSubjectCode();
+    }
+}
@@ -0,0 +1,167 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.domain.Statement;
+import com.ken207.openbank.repository.query.StatementJdbcRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전표 append-only writer. (group commit)
+ * 호출 스레드(JournalOutboxDispatcher)는 큐에 전표를 넣기만 하고, writer 스레드 하나가 큐에 쌓인 전표를 batchSize 건까지 모아서
+ * 하나의 트랜잭션, 하나의 JDBC batch 로 저장한다. 전표 테이블의 insert 가 거래 트랜잭션과 경합하지 않는다.
+ * 큐가 가득 차면 append 가 대기한다. (queueCapacity)
+ */
+@Slf4j
+@Component
+public class JournalWriter {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final StatementJdbcRepository statementJdbcRepository;
+    private final CodeGeneratorService codeGeneratorService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Entry> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer commitTimer;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public JournalWriter(StatementJdbcRepository statementJdbcRepository,
+                         CodeGeneratorService codeGeneratorService,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${app-journal.batch-size:500}") int batchSize,
+                         @Value("${app-journal.queue-capacity:10000}") int queueCapacity,
+                         @Value("${app-journal.max-delay:2ms}") Duration maxDelay) {
+        this.statementJdbcRepository = statementJdbcRepository;
+        this.codeGeneratorService = codeGeneratorService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.batchSizeSummary = DistributionSummary.builder("openbank.journal.batch.size")
+                .description("statements per group commit")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("openbank.journal.commit")
+                .description("group commit time")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::run, "journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * 큐에 남은 전표를 모두 저장한 후 종료
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join();
+    }
+
+    /**
+     * @return 전표가 저장(commit)되면 완료. 빈 목록은 앞서 append 한 전표가 모두 저장되면 완료된다.
+     */
+    public CompletableFuture<Void> append(List<Statement> statements) {
+        Entry entry = new Entry(statements);
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entry.future.completeExceptionally(e);
+        }
+        return entry.future;
+    }
+
+    private void run() {
+        List<Entry> group = new ArrayList<>();
+        while ( running || !queue.isEmpty() ) {
+            try {
+                Entry first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if ( first == null ) {
+                    continue;
+                }
+                group.add(first);
+                int lineCount = first.statements.size();
+
+                // maxDelay 동안 뒤따르는 전표를 모음
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while ( lineCount < batchSize ) {
+                    long remaining = deadline - System.nanoTime();
+                    Entry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if ( next == null ) {
+                        break;
+                    }
+                    group.add(next);
+                    lineCount += next.statements.size();
+                }
+
+                commit(group, lineCount);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Entry> group, int lineCount) {
+        List<Statement> statements = new ArrayList<>(lineCount);
+        for (Entry entry : group) {
+            for (Statement statement : entry.statements) {
+                statement.setId(codeGeneratorService.nextJournalId());
+                statements.add(statement);
+            }
+        }
+
+        try {
+            if ( !statements.isEmpty() ) {
+                commitTimer.record(() -> transactionTemplate.execute(status -> {
+                    statementJdbcRepository.insertAll(statements);
+                    return null;
+                }));
+                batchSizeSummary.record(statements.size());
+            }
+            group.forEach(entry -> entry.future.complete(null));
+        } catch (RuntimeException e) {
+            log.error("journal group commit failed. statements={}", statements.size(), e);
+            group.forEach(entry -> entry.future.completeExceptionally(e));
+        }
+    }
+
+    private static class Entry {
+        private final List<Statement> statements;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Entry(List<Statement> statements) {
+            this.statements = statements;
+        }
+    }
+}
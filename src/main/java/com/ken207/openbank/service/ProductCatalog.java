@@ -0,0 +1,143 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.RateSchedule;
+import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 상품, 기본이율, 기본이율 변경 이력(RateSchedule) 카탈로그.
+ * 전체 상품을 미리 읽어서 변경 불가 Map 으로 보관하고, 상품이 등록되면 새 버전으로 통째로 교체한다. (copy-on-write)
+ * 조회는 DB 를 사용하지 않는다.
+ */
+@Component
+public class ProductCatalog {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final AtomicReference<Catalog> catalog = new AtomicReference<>(new Catalog(0, Collections.emptyMap(), Collections.emptyMap()));
+
+    public ProductCatalog(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @return 등록되지 않은 상품코드는 null
+     */
+    public ProductDto.CatalogItem get(String productCode) {
+        return catalog.get().items.get(productCode);
+    }
+
+    /**
+     * @return 카탈로그에 없는 상품은 null
+     */
+    public ProductDto.CatalogItem getById(Long productId) {
+        return catalog.get().itemsById.get(productId);
+    }
+
+    /**
+     * 카탈로그에 없으면 호출한 트랜잭션에서 상품을 조회한다. (캐시하지 않음)
+     * 같은 트랜잭션에서 등록되어 아직 커밋되지 않은 상품도 조회된다.
+     * @return 존재하지 않는 상품코드는 null
+     */
+    public ProductDto.CatalogItem getOrLoad(String productCode) {
+        ProductDto.CatalogItem item = get(productCode);
+        if ( item != null ) {
+            return item;
+        }
+        Product product = productRepository.findByProductCode(productCode);
+        return product == null ? null : toItem(product);
+    }
+
+    /**
+     * 이자계산용 기본이율 변경 이력. 결산 배치에서 계좌마다 이율을 조회하지 않도록 카탈로그에서 공유한다.
+     * 카탈로그에 없으면(getOrLoad 로 조회된, 아직 카탈로그에 반영되지 않은 상품) 호출한 트랜잭션에서 상품을 조회한다. (캐시하지 않음)
+     * @return 이력이 없는 상품은 null
+     * @throws IllegalStateException 존재하지 않는 상품
+     */
+    public RateSchedule getRateSchedule(Long productId) {
+        ProductDto.CatalogItem item = catalog.get().itemsById.get(productId);
+        if ( item != null ) {
+            return item.getRateSchedule();
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalStateException("상품이 존재하지 않음:" + productId));
+        return RateSchedule.of(product.getRates());
+    }
+
+    public long getVersion() {
+        return catalog.get().version;
+    }
+
+    @PostConstruct
+    public synchronized void refresh() {
+        Map<String, ProductDto.CatalogItem> items = readOnlyTransactionTemplate.execute(status -> {
+            Map<String, ProductDto.CatalogItem> loaded = new HashMap<>();
+            for (Product product : productRepository.findAll()) {
+                loaded.put(product.getProductCode(), toItem(product));
+            }
+            return loaded;
+        });
+
+        Map<Long, ProductDto.CatalogItem> itemsById = new HashMap<>();
+        items.values().forEach(item -> itemsById.put(item.getProductId(), item));
+
+        catalog.updateAndGet(current -> new Catalog(current.version + 1,
+                Collections.unmodifiableMap(items), Collections.unmodifiableMap(itemsById)));
+    }
+
+    /**
+     * 상품 등록, 이율 변경 트랜잭션이 커밋된 후 카탈로그를 다시 읽음
+     */
+    public void refreshAfterCommit() {
+        if ( !TransactionSynchronizationManager.isSynchronizationActive() ) {
+            refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                refresh();
+            }
+        });
+    }
+
+    private ProductDto.CatalogItem toItem(Product product) {
+        return new ProductDto.CatalogItem(
+                product.getId(),
+                product.getProductCode(),
+                product.getName(),
+                product.getSubjectCode(),
+                product.getStartDate(),
+                product.getEndDate(),
+                product.getBasicRate().getId(),
+                product.getBasicRate().getRate(),
+                RateSchedule.of(product.getRates()));
+    }
+
+    private static class Catalog {
+        private final long version;
+        private final Map<String, ProductDto.CatalogItem> items;
+        private final Map<Long, ProductDto.CatalogItem> itemsById;
+
+        private Catalog(long version, Map<String, ProductDto.CatalogItem> items, Map<Long, ProductDto.CatalogItem> itemsById) {
+            this.version = version;
+            this.items = items;
+            this.itemsById = itemsById;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.ken207.openbank.service;
 
 import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.Rate;
 import com.ken207.openbank.dto.ProductDto;
 import com.ken207.openbank.exception.BizRuntimeException;
 import com.ken207.openbank.repository.ProductRepository;
@@ -14,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
 
     @Transactional
     public Long createProduct(ProductDto.Create createProductDto) {
@@ -26,7 +28,27 @@ public class ProductService {
 
         Product product = Product.createProduct(createProductDto);
         Product newProduct = productRepository.save(product);
+        productCatalog.refreshAfterCommit();
 
         return newProduct.getId();
     }
+
+    /**
+     * 기본이율 변경. 변경일 이후 기간의 이자는 새 이율로 계산된다.
+     */
+    @Transactional
+    public Long changeRate(String productCode, String changeDate, double changeRate) {
+
+        Product product = productRepository.findByProductCode(productCode);
+
+        if ( product == null ) {
+            throw new BizRuntimeException("존재하지 않는 상품 코드 입니다. 상품코드:"+productCode);
+        }
+
+        Rate newRate = product.changeRate(changeDate, changeRate);
+        productRepository.flush();
+        productCatalog.refreshAfterCommit();
+
+        return newRate.getId();
+    }
 }
@@ -0,0 +1,272 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.common.KeysetCursor;
+import com.ken207.openbank.common.KeysetPage;
+import com.ken207.openbank.domain.TradeArchiveSegment;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.repository.TradeArchiveSegmentRepository;
+import com.ken207.openbank.repository.TradeRepository;
+import com.ken207.openbank.repository.archive.TradeSegment;
+import com.ken207.openbank.repository.archive.TradeSegmentWriter;
+import com.ken207.openbank.repository.query.TradeArchiveJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 거래내역 보관(cold archive).
+ * 이자계산이 끝나서 변경되지 않는 거래를 세그먼트 파일(TradeSegment)로 옮기고 거래내역 테이블에서 삭제한다.
+ * 거래내역 조회는 테이블과 세그먼트를 거래일련번호 순서로 합쳐서 응답하므로 보관 여부와 무관하게 같은 결과를 준다.
+ * 보관 중에는 같은 거래가 양쪽에 있을 수 있으며 조회 시 거래일련번호로 중복을 제거한다.
+ */
+@Slf4j
+@Service
+public class TradeArchiveService {
+
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final TradeRepository tradeRepository;
+    private final TradeArchiveJdbcRepository tradeArchiveJdbcRepository;
+    private final TradeArchiveSegmentRepository tradeArchiveSegmentRepository;
+    private final BusinessDateService businessDateService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path dir;
+    private final int segmentRows;
+    private final int indexInterval;
+    private final int fetchSize;
+    private final List<TradeSegment> segments = new CopyOnWriteArrayList<>();
+
+    public TradeArchiveService(TradeRepository tradeRepository,
+                               TradeArchiveJdbcRepository tradeArchiveJdbcRepository,
+                               TradeArchiveSegmentRepository tradeArchiveSegmentRepository,
+                               BusinessDateService businessDateService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app-archive.trade.dir:archive/trade}") String dir,
+                               @Value("${app-archive.trade.segment-rows:1000000}") int segmentRows,
+                               @Value("${app-archive.trade.index-interval:128}") int indexInterval,
+                               @Value("${app-archive.trade.fetch-size:1000}") int fetchSize) {
+        this.tradeRepository = tradeRepository;
+        this.tradeArchiveJdbcRepository = tradeArchiveJdbcRepository;
+        this.tradeArchiveSegmentRepository = tradeArchiveSegmentRepository;
+        this.businessDateService = businessDateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dir = Paths.get(dir);
+        this.segmentRows = segmentRows;
+        this.indexInterval = indexInterval;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * 등록된 세그먼트 파일을 연다.
+     */
+    @PostConstruct
+    public void load() {
+        for (TradeArchiveSegment segment : tradeArchiveSegmentRepository.findAllByOrderById()) {
+            Path file = dir.resolve(segment.getFileName());
+            try {
+                segments.add(TradeSegment.open(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException("거래내역 세그먼트 파일을 열 수 없음. " + file, e);
+            }
+        }
+    }
+
+    /**
+     * 보관 대상 거래를 segmentRows 건 단위로 세그먼트 파일에 쓰고 테이블에서 삭제.
+     * 일마감 잔액 대사가 보관된 거래를 다시 읽지 않도록 최종 마감일자까지 처리된 거래만 보관한다.
+     * @return 보관한 거래 건수
+     */
+    public synchronized long archive() {
+        String closedDate = businessDateService.getLastClosedDate();
+        if ( closedDate == null ) {
+            log.info("trade archive skipped. no closed business date");
+            return 0;
+        }
+
+        long startNanos = System.nanoTime();
+        long archived = 0;
+        while (true) {
+            TradeSegmentWriter writer = new TradeSegmentWriter(indexInterval);
+            List<Long> tradeIds = new ArrayList<>();
+            tradeArchiveJdbcRepository.streamArchivable(closedDate, segmentRows, fetchSize, rs -> {
+                writer.add(rs.getLong("account_id"), rs.getLong("srno"), rs.getString("trade_date"), rs.getString("bz_date"),
+                        rs.getLong("amount"), rs.getLong("blnc_after"), TradeCd.values()[rs.getInt("trade_cd")]);
+                tradeIds.add(rs.getLong("trade_id"));
+            });
+            if ( writer.size() == 0 ) {
+                break;
+            }
+
+            writeSegment(writer, tradeIds);
+            archived += writer.size();
+            if ( writer.size() < segmentRows ) {
+                break;
+            }
+        }
+
+        log.info("trade archive. closedDate={}, archived={}, segments={}, {} ms",
+                closedDate, archived, segments.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        return archived;
+    }
+
+    private void writeSegment(TradeSegmentWriter writer, List<Long> tradeIds) {
+        String fileName = "trade-" + System.currentTimeMillis() + "-" + segments.size() + ".seg";
+        Path file = dir.resolve(fileName);
+        TradeSegment segment;
+        try {
+            Files.createDirectories(dir);
+            Path tempFile = dir.resolve(fileName + ".tmp");
+            writer.write(tempFile);
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+            segment = TradeSegment.open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // 삭제 커밋 전에 조회 대상에 추가 (커밋 전후 어느 시점에도 거래가 조회되도록)
+        segments.add(segment);
+        try {
+            transactionTemplate.execute(status -> {
+                tradeArchiveSegmentRepository.save(TradeArchiveSegment.builder()
+                        .fileName(fileName)
+                        .rowCount(writer.size())
+                        .minAccountId(writer.getMinAccountId())
+                        .maxAccountId(writer.getMaxAccountId())
+                        .build());
+                for (int from = 0; from < tradeIds.size(); from += DELETE_BATCH_SIZE) {
+                    tradeArchiveJdbcRepository.deleteByIds(tradeIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, tradeIds.size())));
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            segments.remove(segment);
+            throw e;
+        }
+    }
+
+    /**
+     * @return 보관된 거래 건수
+     */
+    public int countArchived(Long accountId) {
+        int count = 0;
+        for (TradeSegment segment : segments) {
+            count += segment.count(accountId);
+        }
+        return count;
+    }
+
+    public long countByAccountId(Long accountId) {
+        return tradeRepository.countByAccountId(accountId) + countArchived(accountId);
+    }
+
+    /**
+     * @return 거래일련번호가 srno 보다 큰 거래 최대 limit 건 (거래일련번호 오름차순)
+     */
+    public List<TradeDto.Response> findResponsesAfterSrno(Long accountId, long srno, int limit) {
+        List<TradeDto.Response> rows = tradeRepository.findResponsesAfterSrno(accountId, srno, PageRequest.of(0, limit));
+        for (TradeSegment segment : segments) {
+            rows = merge(rows, segment.findAfterSrno(accountId, srno, limit), false, limit);
+        }
+        return rows;
+    }
+
+    /**
+     * @return 거래일련번호가 srno 보다 작은 거래 최대 limit 건 (거래일련번호 내림차순)
+     */
+    public List<TradeDto.Response> findResponsesBeforeSrno(Long accountId, long srno, int limit) {
+        List<TradeDto.Response> rows = tradeRepository.findResponsesBeforeSrno(accountId, srno, PageRequest.of(0, limit));
+        for (TradeSegment segment : segments) {
+            rows = merge(rows, segment.findBeforeSrno(accountId, srno, limit), true, limit);
+        }
+        return rows;
+    }
+
+    /**
+     * srno 기준 keyset 페이지. (TradeRepository#findResponsesByAccountId 와 같음)
+     */
+    public KeysetPage<TradeDto.Response> findResponsesByAccountId(Long accountId, KeysetCursor cursor, int size) {
+        List<TradeDto.Response> rows = cursor != null && cursor.isPrev()
+                ? findResponsesBeforeSrno(accountId, cursor.getKey(), size + 1)
+                : findResponsesAfterSrno(accountId, cursor == null ? 0 : cursor.getKey(), size + 1);
+        return KeysetPage.of(rows, size, cursor, TradeDto.Response::getSrno);
+    }
+
+    /**
+     * OFFSET 페이지. 보관된 거래가 있으면 거래일련번호 순서(srno 정렬 방향만 사용)로 offset + size 건을 합쳐서 자른다.
+     */
+    public Page<TradeDto.Response> findResponsesByAccountId(Long accountId, Pageable pageable) {
+        int archivedCount = countArchived(accountId);
+        if ( archivedCount == 0 ) {
+            return tradeRepository.findResponsesByAccountId(accountId, pageable);
+        }
+
+        Sort.Order order = pageable.getSort().getOrderFor("srno");
+        boolean descending = order != null && order.isDescending();
+        int offset = (int) pageable.getOffset();
+        int limit = offset + pageable.getPageSize();
+        List<TradeDto.Response> rows = descending
+                ? findResponsesBeforeSrno(accountId, Long.MAX_VALUE, limit)
+                : findResponsesAfterSrno(accountId, 0, limit);
+
+        List<TradeDto.Response> content = new ArrayList<>(rows.subList(Math.min(offset, rows.size()), rows.size()));
+        return new PageImpl<>(content, pageable, tradeRepository.countByAccountId(accountId) + archivedCount);
+    }
+
+    /**
+     * 거래일련번호 순서로 정렬된 두 목록을 합침. 같은 거래일련번호는 한 건만 남긴다.
+     */
+    private List<TradeDto.Response> merge(List<TradeDto.Response> left, List<TradeDto.Response> right, boolean descending, int limit) {
+        if ( right.isEmpty() ) {
+            return left;
+        }
+
+        List<TradeDto.Response> rows = new ArrayList<>(Math.min(limit, left.size() + right.size()));
+        int i = 0;
+        int j = 0;
+        while ( rows.size() < limit && (i < left.size() || j < right.size()) ) {
+            if ( j == right.size() ) {
+                rows.add(left.get(i++));
+                continue;
+            }
+            if ( i == left.size() ) {
+                rows.add(right.get(j++));
+                continue;
+            }
+
+            int compare = Long.compare(left.get(i).getSrno(), right.get(j).getSrno());
+            if ( descending ) {
+                compare = -compare;
+            }
+            if ( compare < 0 ) {
+                rows.add(left.get(i++));
+            }
+            else if ( compare > 0 ) {
+                rows.add(right.get(j++));
+            }
+            else {
+                rows.add(left.get(i++));
+                j++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ken207.openbank.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ken207.openbank.dto.TradeDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 거래내역 내보내기.
+ * srno keyset 으로 fetchSize 건씩 조회(보관된 거래 포함)해서 바로 응답에 쓰므로 전체 건수와 무관하게 메모리 사용량이 일정하다.
+ */
+@Service
+public class TradeExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER = "srno,tradeDate,bzDate,amount,blncBefore,blncAfter,tradeCd";
+
+    private final TradeArchiveService tradeArchiveService;
+    private final ObjectWriter objectWriter;
+    private final int fetchSize;
+
+    public TradeExportService(TradeArchiveService tradeArchiveService, ObjectMapper objectMapper,
+                              @Value("${app-export.fetch-size:1000}") int fetchSize) {
+        this.tradeArchiveService = tradeArchiveService;
+        // 건별로 스트림을 닫거나 flush 하지 않고 조회 단위로 flush
+        this.objectWriter = objectMapper.writerFor(TradeDto.Response.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * @return 내보낸 거래 건수
+     */
+    public long export(Long accountId, Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        if ( format == Format.CSV ) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        long lastSrno = 0;
+        while (true) {
+            List<TradeDto.Response> trades = tradeArchiveService.findResponsesAfterSrno(accountId, lastSrno, fetchSize);
+            for (TradeDto.Response trade : trades) {
+                if ( format == Format.CSV ) {
+                    writeCsv(writer, trade);
+                }
+                else {
+                    objectWriter.writeValue(writer, trade);
+                    writer.write('\n');
+                }
+            }
+            writer.flush();
+
+            count += trades.size();
+            if ( trades.size() < fetchSize ) {
+                return count;
+            }
+            lastSrno = trades.get(trades.size() - 1).getSrno();
+        }
+    }
+
+    private void writeCsv(Writer writer, TradeDto.Response trade) throws IOException {
+        writer.write(Long.toString(trade.getSrno()));
+        writer.write(',');
+        writer.write(nullToEmpty(trade.getTradeDate()));
+        writer.write(',');
+        writer.write(nullToEmpty(trade.getBzDate()));
+        writer.write(',');
+        writer.write(Long.toString(trade.getAmount()));
+        writer.write(',');
+        writer.write(Long.toString(trade.getBlncBefore()));
+        writer.write(',');
+        writer.write(Long.toString(trade.getBlncAfter()));
+        writer.write(',');
+        writer.write(trade.getTradeCd() == null ? "" : trade.getTradeCd().name());
+        writer.write('\n');
+    }
+
+    private String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
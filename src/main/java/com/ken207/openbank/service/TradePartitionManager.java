@@ -0,0 +1,265 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.common.OBDateUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 거래내역(trade) 월별 range 파티션 관리. (PostgreSQL 11 이상, app-partition.trade.enabled)
+ * 기동 시 hibernate 가 만든 trade 테이블을 trade_date 기준 파티션 테이블로 변경하고, 매일 monthsAhead 개월 앞의 파티션까지 만든다.
+ * 파티션 범위 밖의 거래는 trade_default 에 저장되며, 해당 월의 파티션을 만들 때 옮긴다.
+ * trade_date 조건이 있는 조회(기산일 거래 조회, 기준일자 잔액 조회)는 해당 월의 파티션만 읽는다.
+ *
+ * 파티션 테이블의 unique 제약은 파티션 키를 포함해야 하므로 기본키는 (trade_id, trade_date) 이고,
+ * trade 를 참조하는 외래키(전표, 이자)는 삭제한다. (전표, 이자의 거래 참조는 애플리케이션에서만 보장)
+ * 계좌별 거래일련번호는 파티션을 넘어서 unique 해야 하므로, trade 입력 트리거가 파티션되지 않은 trade_srno (account_id, srno)
+ * 기본키 테이블에 같이 입력해서 중복을 막는다. 보관(삭제)된 거래의 일련번호도 남겨서 다시 사용되지 않게 한다.
+ *
+ * 오래된 월 파티션은 TradeArchiveService 가 보관 대상(이자계산, 일마감이 끝난 거래)을 세그먼트로 옮겨서 비워진 경우에만 삭제한다.
+ */
+@Slf4j
+@Component
+public class TradePartitionManager {
+
+    public static final String TABLE = "trade";
+    public static final String DEFAULT_PARTITION = "trade_default";
+    private static final String PARTITION_PREFIX = "trade_p";
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String SELECT_RELKIND_SQL = "select c.relkind from pg_class c"
+            + " join pg_namespace n on n.oid = c.relnamespace"
+            + " where n.nspname = current_schema() and c.relname = ?";
+
+    private static final String SELECT_PARTITION_SQL = "select c.relname from pg_inherits i"
+            + " join pg_class c on c.oid = i.inhrelid"
+            + " join pg_class p on p.oid = i.inhparent"
+            + " where p.relname = ? order by c.relname";
+
+    private static final String SELECT_REFERENCING_FK_SQL = "select conrelid::regclass::text as table_name, conname from pg_constraint"
+            + " where contype = 'f' and confrelid = ?::regclass";
+
+    public static final String SRNO_KEY_TABLE = "trade_srno";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TradeArchiveService tradeArchiveService;
+    private final boolean enabled;
+    private final int monthsAhead;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * EntityManagerFactory 는 hibernate 의 스키마 생성 이후에 파티션으로 변경하기 위해 주입 받음
+     */
+    public TradePartitionManager(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 EntityManagerFactory entityManagerFactory,
+                                 TradeArchiveService tradeArchiveService,
+                                 @Value("${app-partition.trade.enabled:false}") boolean enabled,
+                                 @Value("${app-partition.trade.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tradeArchiveService = tradeArchiveService;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @PostConstruct
+    public void start() {
+        if ( !enabled ) {
+            return;
+        }
+
+        convert();
+        createFuturePartitions();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trade-partition");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::createFuturePartitionsSafely, 1, 1, TimeUnit.DAYS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if ( scheduler != null ) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 이번 달 부터 monthsAhead 개월 후 까지 파티션 생성
+     */
+    public void createFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    /**
+     * 월 파티션 생성. 이미 있으면 무시하고, trade_default 에 있던 해당 월 거래는 새 파티션으로 옮긴다.
+     */
+    public void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        if ( exists(partition) ) {
+            return;
+        }
+
+        String from = month.atDay(1).format(DateTimeFormatter.BASIC_ISO_DATE);
+        String to = month.plusMonths(1).atDay(1).format(DateTimeFormatter.BASIC_ISO_DATE);
+        transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("create table " + partition + " (like " + TABLE + " including defaults)");
+            jdbcTemplate.update("insert into " + partition + " select * from " + DEFAULT_PARTITION
+                    + " where trade_date >= ? and trade_date < ?", from, to);
+            jdbcTemplate.update("delete from " + DEFAULT_PARTITION + " where trade_date >= ? and trade_date < ?", from, to);
+            jdbcTemplate.execute("alter table " + TABLE + " attach partition " + partition
+                    + " for values from ('" + from + "') to ('" + to + "')");
+            return null;
+        });
+        log.info("trade partition created. {} [{}, {})", partition, from, to);
+    }
+
+    /**
+     * @return 월 파티션 이름 (기본 파티션 제외, 오래된 순서)
+     */
+    public List<String> getPartitions() {
+        return jdbcTemplate.queryForList(SELECT_PARTITION_SQL, String.class, TABLE).stream()
+                .filter(name -> name.startsWith(PARTITION_PREFIX))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * beforeMonth 이전 월 파티션 정리.
+     * 먼저 TradeArchiveService 로 보관 대상 거래를 세그먼트로 옮기고(조회 시 테이블과 합쳐짐), 비어 있는 파티션만 분리해서 삭제한다.
+     * 보관 대상이 아닌 거래(이자계산 전, 일마감 전)가 남은 파티션은 유지한다.
+     * @return 삭제한 파티션
+     */
+    public List<String> dropArchivedPartitions(YearMonth beforeMonth) {
+        tradeArchiveService.archive();
+
+        String beforePartition = partitionName(beforeMonth);
+        List<String> dropped = new ArrayList<>();
+        for (String partition : getPartitions()) {
+            if ( partition.compareTo(beforePartition) >= 0 ) {
+                continue;
+            }
+
+            // 확인 후 삭제 전에 거래가 입력되지 않도록 파티션을 잠그고 확인
+            Boolean empty = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("lock table " + partition + " in access exclusive mode");
+                if ( Boolean.TRUE.equals(jdbcTemplate.queryForObject("select exists (select 1 from " + partition + ")", Boolean.class)) ) {
+                    return false;
+                }
+                jdbcTemplate.execute("alter table " + TABLE + " detach partition " + partition);
+                jdbcTemplate.execute("drop table " + partition);
+                return true;
+            });
+
+            if ( Boolean.TRUE.equals(empty) ) {
+                dropped.add(partition);
+                log.info("trade partition dropped. {}", partition);
+            }
+            else {
+                log.info("trade partition kept. {} has trades not archived yet", partition);
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * hibernate 가 만든 trade 를 같은 컬럼의 파티션 테이블로 변경. 이미 파티션 테이블이면 무시.
+     */
+    private void convert() {
+        List<String> relkind = jdbcTemplate.queryForList(SELECT_RELKIND_SQL, String.class, TABLE);
+        if ( relkind.isEmpty() || "p".equals(relkind.get(0)) ) {
+            return;
+        }
+
+        transactionTemplate.execute(status -> {
+            for (Map<String, Object> fk : jdbcTemplate.queryForList(SELECT_REFERENCING_FK_SQL, TABLE)) {
+                jdbcTemplate.execute("alter table " + fk.get("table_name") + " drop constraint " + fk.get("conname"));
+            }
+
+            jdbcTemplate.execute("alter table " + TABLE + " rename to " + TABLE + "_legacy");
+            jdbcTemplate.execute("create table " + TABLE + " (like " + TABLE + "_legacy including defaults)"
+                    + " partition by range (trade_date)");
+            jdbcTemplate.execute("create table " + DEFAULT_PARTITION + " partition of " + TABLE + " default");
+            jdbcTemplate.execute("insert into " + TABLE + " select * from " + TABLE + "_legacy");
+            jdbcTemplate.execute("drop table " + TABLE + "_legacy");
+
+            // 인덱스는 파티션마다 만들어 진다. unique 인덱스는 파티션 키를 포함해야 하므로 (account_id, srno, trade_date)
+            jdbcTemplate.execute("alter table " + TABLE + " add primary key (trade_id, trade_date)");
+            jdbcTemplate.execute("alter table " + TABLE + " add foreign key (account_id) references account");
+            jdbcTemplate.execute("create index idx_trade_account_trade_date on " + TABLE + " (account_id, trade_date, srno)");
+            jdbcTemplate.execute("create index idx_trade_account_bz_date on " + TABLE + " (account_id, bz_date)");
+            jdbcTemplate.execute("create unique index uk_trade_account_srno_date on " + TABLE + " (account_id, srno, trade_date)");
+
+            // 파티션을 넘는 (account_id, srno) unique 는 파티션되지 않은 키 테이블로 검사
+            jdbcTemplate.execute("drop table if exists " + SRNO_KEY_TABLE);
+            jdbcTemplate.execute("create table " + SRNO_KEY_TABLE + " as select account_id, srno from " + TABLE);
+            jdbcTemplate.execute("alter table " + SRNO_KEY_TABLE + " add primary key (account_id, srno)");
+            jdbcTemplate.execute("create or replace function " + SRNO_KEY_TABLE + "_insert() returns trigger as $$"
+                    + " begin insert into " + SRNO_KEY_TABLE + " (account_id, srno) values (new.account_id, new.srno); return null; end"
+                    + " $$ language plpgsql");
+            jdbcTemplate.execute("create trigger " + SRNO_KEY_TABLE + "_insert after insert on " + TABLE
+                    + " for each row execute procedure " + SRNO_KEY_TABLE + "_insert()");
+            return null;
+        });
+        log.info("trade table converted to monthly partitions");
+
+        // 기존 거래가 있는 월부터 파티션 생성
+        YearMonth firstMonth = firstDateMonth();
+        if ( firstMonth != null ) {
+            for (YearMonth month = firstMonth; month.isBefore(YearMonth.now()); month = month.plusMonths(1)) {
+                createPartition(month);
+            }
+        }
+    }
+
+    private YearMonth firstDateMonth() {
+        String firstDate = jdbcTemplate.queryForObject("select min(trade_date) from " + DEFAULT_PARTITION, String.class);
+        if ( firstDate == null ) {
+            return null;
+        }
+        return YearMonth.from(OBDateUtils.parseLocalDate(firstDate));
+    }
+
+    private void createFuturePartitionsSafely() {
+        try {
+            createFuturePartitions();
+        } catch (RuntimeException e) {
+            log.error("trade partition creation failed", e);
+        }
+    }
+
+    private boolean exists(String table) {
+        return !jdbcTemplate.queryForList(SELECT_RELKIND_SQL, String.class, table).isEmpty();
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(MONTH_FORMAT);
+    }
+}
@@ -0,0 +1,68 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.batch.TrialBalanceTasklet;
+import com.ken207.openbank.dto.JournalDto;
+import com.ken207.openbank.exception.BizRuntimeException;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 일계표(시산표) 배치 실행.
+ * 검증 작업이므로 같은 회계일자로 여러 번 실행할 수 있다.
+ */
+@Service
+public class TrialBalanceService {
+
+    private final JobLauncher jobLauncher;
+    private final Job trialBalanceJob;
+
+    public TrialBalanceService(JobLauncher jobLauncher, @Qualifier("trialBalanceJob") Job trialBalanceJob) {
+        this.jobLauncher = jobLauncher;
+        this.trialBalanceJob = trialBalanceJob;
+    }
+
+    public JournalDto.TrialBalance run(String journalDate) {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("journalDate", journalDate)
+                .addLong("requestedAt", System.currentTimeMillis())
+                .toJobParameters();
+
+        JobExecution jobExecution;
+        try {
+            jobExecution = jobLauncher.run(trialBalanceJob, jobParameters);
+        } catch (JobExecutionException e) {
+            throw new BizRuntimeException(e);
+        }
+
+        ExecutionContext context = jobExecution.getExecutionContext();
+        List<JournalDto.SubjectTotal> subjects = context.entrySet().stream()
+                .map(Map.Entry::getKey)
+                .filter(key -> key.startsWith(TrialBalanceTasklet.DEBIT_PREFIX))
+                .map(key -> key.substring(TrialBalanceTasklet.DEBIT_PREFIX.length()))
+                .sorted()
+                .map(subjectCode -> JournalDto.SubjectTotal.builder()
+                        .accountSubjectCode(subjectCode)
+                        .debitAmount(context.getLong(TrialBalanceTasklet.DEBIT_PREFIX + subjectCode))
+                        .creditAmount(context.getLong(TrialBalanceTasklet.CREDIT_PREFIX + subjectCode))
+                        .build())
+                .collect(Collectors.toList());
+
+        return JournalDto.TrialBalance.builder()
+                .jobExecutionId(jobExecution.getId())
+                .status(jobExecution.getStatus())
+                .journalDate(journalDate)
+                .lineCount(context.getLong(TrialBalanceTasklet.LINE_COUNT, 0))
+                .debitAmount(context.getLong(TrialBalanceTasklet.DEBIT_AMOUNT, 0))
+                .creditAmount(context.getLong(TrialBalanceTasklet.CREDIT_AMOUNT, 0))
+                .unbalancedTradeCount(context.getLong(TrialBalanceTasklet.UNBALANCED_TRADE_COUNT, 0))
+                .subjects(subjects)
+                .build();
+    }
+}
@@ -0,0 +1,432 @@
+package com.ken207.openbank.service.engine;
+
+import com.ken207.openbank.common.AccountEngineProperties;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.exception.BizRuntimeException;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.TradeRepository;
+import com.ken207.openbank.service.AccountEventStore;
+import com.ken207.openbank.service.AccountSnapshotCache;
+import com.ken207.openbank.service.BusinessDateService;
+import com.ken207.openbank.service.JournalService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 단일 writer 인메모리 계좌 엔진. (app-engine.enabled)
+ * 계좌번호 hash 로 샤드를 정하고, 샤드 스레드 하나가 그 샤드 계좌의 입금, 출금을 Account 도메인 로직으로 메모리에서 처리한다.
+ * 거래는 샤드 저널(EngineJournal)에 fsync 된 후 응답하며, 체크포인트 스레드가 checkpointInterval 마다
+ * 저널 기록을 같은 순서로 원장에 다시 적용해서 거래내역, 일별 마감잔액, 전표 outbox, 계좌 이벤트를 저장한다.
+ * 원장 반영 결과가 엔진의 응답과 다르거나 거절되면 반영을 롤백하고 샤드를 장애 처리한다. (응답한 거래를 건너뛰거나 바꾸지 않음)
+ * 원장의 잔액 조회는 체크포인트 전까지 이전 값이며, 이자지급, 해지, 다건거래는 release 로 계좌를 원장에 돌려준 후
+ * 트랜잭션이 끝날 때까지, 배치는 releaseAll 후 resumeAll 까지 엔진 거래를 거절한다.
+ * 체크포인트가 저널 끝까지 반영되면 저널을 비우고, 기동 시 체크포인트 이후 저널 기록을 원장에 반영한 후 저널을 비운다.
+ */
+@Slf4j
+@Component
+public class AccountEngine {
+
+    private final AccountEngineProperties properties;
+    private final AccountRepository accountRepository;
+    private final TradeRepository tradeRepository;
+    private final JournalService journalService;
+    private final AccountEventStore accountEventStore;
+    private final AccountSnapshotCache accountSnapshotCache;
+    private final BusinessDateService businessDateService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Set<String> accountNums;
+
+    private AccountEngineShard[] shards;
+    private ScheduledExecutorService checkpointer;
+
+    public AccountEngine(AccountEngineProperties properties,
+                         AccountRepository accountRepository,
+                         TradeRepository tradeRepository,
+                         JournalService journalService,
+                         AccountEventStore accountEventStore,
+                         AccountSnapshotCache accountSnapshotCache,
+                         BusinessDateService businessDateService,
+                         MeterRegistry meterRegistry,
+                         PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.accountRepository = accountRepository;
+        this.tradeRepository = tradeRepository;
+        this.journalService = journalService;
+        this.accountEventStore = accountEventStore;
+        this.accountSnapshotCache = accountSnapshotCache;
+        this.businessDateService = businessDateService;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.accountNums = new HashSet<>(properties.getAccountNums());
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if ( !properties.isEnabled() ) {
+            return;
+        }
+
+        Path dir = Paths.get(properties.getJournalDir());
+        AccountEngineShard[] started = new AccountEngineShard[properties.getShards()];
+        for (int index = 0; index < started.length; index++) {
+            EngineJournal journal = new EngineJournal(dir, index);
+            started[index] = new AccountEngineShard(index, journal, this::loadAccount, businessDateService::getBusinessDate,
+                    properties.getMaxBatch(), meterRegistry);
+            try {
+                recover(journal);
+            } catch (RuntimeException e) {
+                // 저널은 그대로 두고 샤드만 중지
+                started[index].fail(e);
+            }
+            started[index].start();
+        }
+        shards = started;
+
+        checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-engine-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getCheckpointInterval().toMillis();
+        checkpointer.scheduleWithFixedDelay(this::checkpointQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("account engine started. shards={}, journal={}", shards.length, dir.toAbsolutePath());
+    }
+
+    /**
+     * 샤드 큐의 명령을 모두 처리하고 원장에 반영한 후 종료
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if ( shards == null ) {
+            return;
+        }
+        for (AccountEngineShard shard : shards) {
+            shard.stop();
+        }
+        checkpointer.shutdown();
+        checkpointer.awaitTermination(30, TimeUnit.SECONDS);
+        checkpoint();
+        for (AccountEngineShard shard : shards) {
+            shard.getJournal().close();
+        }
+    }
+
+    /**
+     * @return 엔진에서 처리하는 계좌이면 true
+     */
+    public boolean handles(String accountNum) {
+        return shards != null && (accountNums.isEmpty() || accountNums.contains(accountNum));
+    }
+
+    /**
+     * @return 저널에 저장된 거래. 원장 반영(체크포인트) 전이므로 id 가 없다.
+     */
+    public Trade deposit(String accountNum, TradeDto.RequestDeposit requestDeposit) {
+        return await(shardOf(accountNum).submit(
+                AccountEngineShard.Command.trade(TradeCd.DEPOSIT, accountNum, requestDeposit.getTradeDate(), requestDeposit.getAmount())));
+    }
+
+    public Trade withdraw(String accountNum, TradeDto.RequestDeposit requestWithdraw) {
+        return await(shardOf(accountNum).submit(
+                AccountEngineShard.Command.trade(TradeCd.WITHDRAW, accountNum, requestWithdraw.getTradeDate(), requestWithdraw.getAmount())));
+    }
+
+    /**
+     * 계좌의 앞선 거래를 원장에 반영하고 메모리 계좌를 버림. 원장을 직접 변경하는 업무(이자지급, 해지 등) 전에 트랜잭션 안에서 호출.
+     * 트랜잭션이 끝날 때(커밋 또는 롤백)까지 이 계좌의 엔진 거래는 거절한다.
+     */
+    public void release(String accountNum) {
+        if ( !handles(accountNum) ) {
+            return;
+        }
+        if ( !TransactionSynchronizationManager.isSynchronizationActive() ) {
+            throw new IllegalStateException("계좌 엔진 release 는 트랜잭션 안에서 호출해야 함.");
+        }
+
+        AccountEngineShard shard = shardOf(accountNum);
+        CompletableFuture<Trade> released = shard.submit(AccountEngineShard.Command.release(accountNum));
+        checkpointer.execute(this::checkpointQuietly);
+        try {
+            await(released);
+        } catch (RuntimeException e) {
+            shard.submit(AccountEngineShard.Command.resume(accountNum));
+            throw e;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                shard.submit(AccountEngineShard.Command.resume(accountNum));
+            }
+        });
+    }
+
+    /**
+     * 모든 계좌를 release. 원장 전체를 읽는 배치(일마감, 이자결산) 전에 호출하고, 배치가 끝나면 resumeAll 을 호출해야 한다.
+     */
+    public void releaseAll() {
+        if ( shards == null ) {
+            return;
+        }
+        List<CompletableFuture<Trade>> released = new ArrayList<>();
+        for (AccountEngineShard shard : shards) {
+            released.add(shard.submit(AccountEngineShard.Command.release(null)));
+        }
+        checkpointer.execute(this::checkpointQuietly);
+        try {
+            released.forEach(this::await);
+        } catch (RuntimeException e) {
+            resumeAll();
+            throw e;
+        }
+    }
+
+    /**
+     * releaseAll 해제
+     */
+    public void resumeAll() {
+        if ( shards == null ) {
+            return;
+        }
+        for (AccountEngineShard shard : shards) {
+            shard.submit(AccountEngineShard.Command.resume(null));
+        }
+    }
+
+    /**
+     * 저널에 저장된 거래를 원장에 반영
+     * @return 반영한 거래 건수
+     */
+    public synchronized int checkpoint() {
+        if ( shards == null ) {
+            return 0;
+        }
+        int count = 0;
+        for (AccountEngineShard shard : shards) {
+            int applied;
+            while ( (applied = checkpoint(shard)) > 0 ) {
+                count += applied;
+            }
+        }
+        return count;
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            log.error("account engine checkpoint failed", e);
+        }
+    }
+
+    /**
+     * 샤드의 체크포인트 대상을 checkpointBatchSize 건까지 한 트랜잭션으로 반영.
+     * 커밋 후에 큐에서 제거하므로 실패하면 다음 체크포인트에서 다시 처리한다.
+     * 반영 결과가 저널과 다르거나 checkpointMaxAttempts 번 연속 실패하면 샤드를 장애 처리하고 기록은 큐에 남긴다.
+     * @return 처리한 항목 건수 (release 표시 포함)
+     */
+    private int checkpoint(AccountEngineShard shard) {
+        if ( shard.isFailed() ) {
+            shard.rejectReleased();
+            return 0;
+        }
+
+        Queue<AccountEngineShard.CheckpointEntry> queue = shard.getCheckpointEntries();
+        List<AccountEngineShard.CheckpointEntry> entries = new ArrayList<>();
+        List<JournalRecord> records = new ArrayList<>();
+        Iterator<AccountEngineShard.CheckpointEntry> iterator = queue.iterator();
+        while ( iterator.hasNext() && entries.size() < properties.getCheckpointBatchSize() ) {
+            AccountEngineShard.CheckpointEntry entry = iterator.next();
+            entries.add(entry);
+            if ( entry.record != null ) {
+                records.add(entry.record);
+            }
+        }
+        if ( entries.isEmpty() ) {
+            return 0;
+        }
+
+        if ( !records.isEmpty() ) {
+            try {
+                apply(records, false);
+            } catch (CheckpointMismatchException e) {
+                shard.fail(e);
+                return 0;
+            } catch (RuntimeException e) {
+                int failures = shard.checkpointFailed();
+                if ( failures >= properties.getCheckpointMaxAttempts() ) {
+                    shard.fail(e);
+                }
+                else {
+                    log.error("account engine checkpoint failed. shard={}, attempts={}", shard.getIndex(), failures, e);
+                }
+                return 0;
+            }
+            shard.checkpointSucceeded();
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            queue.poll();
+        }
+        if ( !records.isEmpty() ) {
+            long position = records.get(records.size() - 1).getEndPosition();
+            if ( writeCheckpoint(shard.getJournal(), position) ) {
+                shard.submit(AccountEngineShard.Command.truncate(position));
+            }
+        }
+
+        for (AccountEngineShard.CheckpointEntry entry : entries) {
+            if ( entry.released != null ) {
+                entry.released.complete(null);
+            }
+        }
+        return entries.size();
+    }
+
+    /**
+     * 저널 기록을 계좌별로 기록 순서대로 원장에 다시 적용. 결과가 저널과 다르면 CheckpointMismatchException 으로 전체 롤백.
+     * @param recovering true 이면 이미 원장에 반영된 기록(거래일련번호가 원장의 최종거래일련번호 이하)은 건너뜀
+     */
+    private void apply(List<JournalRecord> records, boolean recovering) {
+        Map<String, List<JournalRecord>> recordsByAccount = new LinkedHashMap<>();
+        for (JournalRecord record : records) {
+            recordsByAccount.computeIfAbsent(record.getAccountNum(), k -> new ArrayList<>()).add(record);
+        }
+
+        transactionTemplate.execute(status -> {
+            for (Map.Entry<String, List<JournalRecord>> entry : recordsByAccount.entrySet()) {
+                String accountNum = entry.getKey();
+                Account account = accountRepository.findForTradeByAccountNum(accountNum);
+                if ( account == null ) {
+                    throw new CheckpointMismatchException("account not found. accountNum=" + accountNum);
+                }
+
+                for (JournalRecord record : entry.getValue()) {
+                    if ( recovering && record.getSrno() <= account.getLastTrnSrno() ) {
+                        continue;
+                    }
+                    apply(account, record);
+                }
+                accountSnapshotCache.evict(accountNum);
+            }
+            return null;
+        });
+    }
+
+    private void apply(Account account, JournalRecord record) {
+        account.setBzDate(record.getBzDate());
+        account.setReckonDt(record.getTradeDate());
+
+        Trade trade;
+        try {
+            trade = record.getTradeCd() == TradeCd.DEPOSIT ? account.deposit(record.getAmount()) : account.withdraw(record.getAmount());
+        } catch (BizRuntimeException e) {
+            throw new CheckpointMismatchException("trade rejected. accountNum=" + record.getAccountNum() + ", srno=" + record.getSrno(), e);
+        }
+        if ( trade.getSrno() != record.getSrno() || trade.getBlncAfter() != record.getBlncAfter() ) {
+            throw new CheckpointMismatchException("trade mismatched. accountNum=" + record.getAccountNum()
+                    + ", srno=" + record.getSrno() + "/" + trade.getSrno()
+                    + ", blncAfter=" + record.getBlncAfter() + "/" + trade.getBlncAfter());
+        }
+
+        tradeRepository.save(trade);
+        journalService.post(trade);
+        accountEventStore.append(trade);
+    }
+
+    /**
+     * 체크포인트 이후 저널 기록을 원장에 반영하고 저널을 비움
+     */
+    private void recover(EngineJournal journal) throws IOException {
+        List<JournalRecord> records = journal.recover();
+        for (int from = 0; from < records.size(); from += properties.getCheckpointBatchSize()) {
+            List<JournalRecord> batch = records.subList(from, Math.min(from + properties.getCheckpointBatchSize(), records.size()));
+            apply(batch, true);
+            journal.checkpoint(batch.get(batch.size() - 1).getEndPosition());
+        }
+        if ( !records.isEmpty() ) {
+            log.info("account engine recovery. journal={}, records={}", journal.getFile(), records.size());
+        }
+        journal.reset();
+    }
+
+    /**
+     * 원장에서 읽은 계좌를 엔진 전용 객체로 복사. (거래내역 컬렉션을 초기화하지 않도록 영속성 컨텍스트와 분리)
+     */
+    private Account loadAccount(String accountNum) {
+        return readOnlyTransactionTemplate.execute(status -> {
+            Account account = accountRepository.findForTradeByAccountNum(accountNum);
+            if ( account == null ) {
+                return null;
+            }
+            Account copy = Account.builder()
+                    .accountNum(account.getAccountNum())
+                    .regDate(account.getRegDate())
+                    .closeDate(account.getCloseDate())
+                    .lastIntsDt(account.getLastIntsDt())
+                    .balance(account.getBalance())
+                    .loanLimitAmount(account.getLoanLimitAmount())
+                    .lastTrnSrno(account.getLastTrnSrno())
+                    .lastTradeDate(account.getLastTradeDate())
+                    .loanYn(account.getLoanYn())
+                    .accountStatusCode(account.getAccountStatusCode())
+                    .taxationCode(account.getTaxationCode())
+                    .lastDailyBalance(account.getLastDailyBalance())
+                    .build();
+            copy.setId(account.getId());
+            return copy;
+        });
+    }
+
+    /**
+     * @return 기록하지 못하면 false (저널을 비우면 안 됨)
+     */
+    private boolean writeCheckpoint(EngineJournal journal, long position) {
+        try {
+            journal.checkpoint(position);
+            return true;
+        } catch (IOException e) {
+            // 원장에는 반영됨. 재기동 시 거래일련번호로 중복 반영을 건너뜀
+            log.error("account engine checkpoint position write failed. journal={}", journal.getFile(), e);
+            return false;
+        }
+    }
+
+    private AccountEngineShard shardOf(String accountNum) {
+        return shards[(accountNum.hashCode() & Integer.MAX_VALUE) % shards.length];
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(properties.getCommandTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("계좌 엔진 응답 시간 초과. timeout=" + properties.getCommandTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if ( e.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.ken207.openbank.service.engine;
+
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.exception.BizRuntimeException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 엔진 샤드. 스레드 하나가 lock-free 큐(ConcurrentLinkedQueue)의 명령을 순서대로 처리하므로 계좌 잠금이 없다.
+ * 계좌는 처음 거래할 때 원장에서 읽어서 샤드 스레드만 변경한다.
+ * 거래 결과는 저널 버퍼에 쓰고, 큐가 비거나 maxBatch 건이 모이면 fsync 한 번으로 저장한 후 응답한다. (group commit)
+ * 저장된 기록은 checkpointEntries 에 넣고 AccountEngine 이 원장(JPA)에 반영한다.
+ * release 된 계좌는 resume 전까지 거래를 거절한다. (원장 업무가 커밋되기 전에 원장에서 계좌를 다시 읽지 않도록)
+ * 원장 반영이 실패하면 fail 로 샤드를 장애 상태로 만들고 이후 명령은 모두 거절한다. (openbank.engine.shard.failed)
+ */
+@Slf4j
+class AccountEngineShard implements Runnable {
+
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final int index;
+    private final EngineJournal journal;
+    private final Function<String, Account> accountLoader;
+    private final Supplier<String> businessDate;
+    private final int maxBatch;
+    private final Timer commandTimer;
+    private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+    private final Queue<CheckpointEntry> checkpointEntries = new ConcurrentLinkedQueue<>();
+    private final Map<String, Account> accounts = new HashMap<>();
+    private final List<Command> pending = new ArrayList<>();
+    private final Map<String, Integer> blocked = new HashMap<>();
+    private int blockedAll;
+
+    private volatile boolean running;
+    private volatile Throwable failure;
+    private int checkpointFailures;
+    private Thread thread;
+
+    AccountEngineShard(int index, EngineJournal journal, Function<String, Account> accountLoader, Supplier<String> businessDate,
+                       int maxBatch, MeterRegistry meterRegistry) {
+        this.index = index;
+        this.journal = journal;
+        this.accountLoader = accountLoader;
+        this.businessDate = businessDate;
+        this.maxBatch = maxBatch;
+        this.commandTimer = Timer.builder("openbank.engine.command")
+                .description("account engine command latency (submit to journal fsync)")
+                .tag("shard", String.valueOf(index))
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("openbank.engine.shard.failed", this, shard -> shard.failure == null ? 0 : 1)
+                .description("account engine shard stopped by checkpoint or journal failure")
+                .tag("shard", String.valueOf(index))
+                .register(meterRegistry);
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this, "account-engine-" + index);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 큐에 남은 명령을 모두 처리한 후 종료
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    EngineJournal getJournal() {
+        return journal;
+    }
+
+    Queue<CheckpointEntry> getCheckpointEntries() {
+        return checkpointEntries;
+    }
+
+    boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * 샤드 장애. 이후 명령은 모두 거절하고 원장에 반영하지 못한 기록은 큐와 저널에 그대로 둔다.
+     * 원장을 확인, 정정한 후 재기동하면 체크포인트 이후 저널 기록부터 다시 반영한다.
+     */
+    void fail(Throwable cause) {
+        if ( failure == null ) {
+            failure = cause;
+            log.error("account engine shard stopped. shard={}, unapplied={}, journal={}",
+                    index, checkpointEntries.size(), journal.getFile(), cause);
+        }
+        rejectReleased();
+    }
+
+    /**
+     * 장애 샤드에서 체크포인트를 기다리는 release 를 실패 처리
+     */
+    void rejectReleased() {
+        for (CheckpointEntry entry : checkpointEntries) {
+            if ( entry.released != null ) {
+                entry.released.completeExceptionally(failed());
+            }
+        }
+    }
+
+    /**
+     * 연속된 체크포인트 실패 횟수. 체크포인트 스레드에서만 사용.
+     */
+    int checkpointFailed() {
+        return ++checkpointFailures;
+    }
+
+    void checkpointSucceeded() {
+        checkpointFailures = 0;
+    }
+
+    CompletableFuture<Trade> submit(Command command) {
+        if ( failure != null ) {
+            command.future.completeExceptionally(failed());
+            return command.future;
+        }
+        if ( !running ) {
+            command.future.completeExceptionally(new IllegalStateException("계좌 엔진이 중지됨."));
+            return command.future;
+        }
+        commands.offer(command);
+        LockSupport.unpark(thread);
+        return command.future;
+    }
+
+    @Override
+    public void run() {
+        while ( running || !commands.isEmpty() ) {
+            Command command = commands.poll();
+            if ( command == null ) {
+                flush();
+                if ( running ) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                continue;
+            }
+
+            execute(command);
+            if ( pending.size() >= maxBatch ) {
+                flush();
+            }
+        }
+        flush();
+    }
+
+    private void execute(Command command) {
+        if ( failure != null ) {
+            command.future.completeExceptionally(failed());
+            return;
+        }
+        if ( command.type == Command.Type.RELEASE ) {
+            // 앞선 거래를 저장한 후, 체크포인트가 표시까지 반영되면 완료. resume 전까지 거래 거절
+            flush();
+            if ( command.accountNum == null ) {
+                accounts.clear();
+                blockedAll++;
+            }
+            else {
+                accounts.remove(command.accountNum);
+                blocked.merge(command.accountNum, 1, Integer::sum);
+            }
+            checkpointEntries.add(new CheckpointEntry(null, command.future));
+            return;
+        }
+        if ( command.type == Command.Type.RESUME ) {
+            if ( command.accountNum == null ) {
+                blockedAll = Math.max(0, blockedAll - 1);
+            }
+            else {
+                blocked.computeIfPresent(command.accountNum, (accountNum, count) -> count > 1 ? count - 1 : null);
+            }
+            command.future.complete(null);
+            return;
+        }
+        if ( command.type == Command.Type.TRUNCATE ) {
+            flush();
+            truncateJournal(command.checkpointed);
+            command.future.complete(null);
+            return;
+        }
+        if ( blockedAll > 0 || blocked.containsKey(command.accountNum) ) {
+            command.future.completeExceptionally(new BizRuntimeException("원장 업무 처리 중인 계좌 입니다. 잠시 후 다시 요청해 주세요."));
+            return;
+        }
+
+        try {
+            Account account = accounts.get(command.accountNum);
+            if ( account == null ) {
+                account = accountLoader.apply(command.accountNum);
+                if ( account == null ) {
+                    throw new EntityNotFoundException("존재하지 않는 계좌번호 입니다.");
+                }
+                accounts.put(command.accountNum, account);
+            }
+
+            account.setBzDate(businessDate.get());
+            account.setReckonDt(command.tradeDate);
+            Trade trade = command.type == Command.Type.DEPOSIT ? account.deposit(command.amount) : account.withdraw(command.amount);
+            // 거래내역은 체크포인트에서 저장하므로 메모리에 쌓지 않음
+            account.getTradeEntities().clear();
+
+            command.trade = trade;
+            command.record = JournalRecord.of(command.accountNum, trade);
+            journal.append(command.record);
+            pending.add(command);
+        } catch (RuntimeException e) {
+            command.future.completeExceptionally(e);
+        }
+    }
+
+    private void flush() {
+        if ( pending.isEmpty() ) {
+            return;
+        }
+
+        try {
+            journal.flush();
+        } catch (IOException e) {
+            // 저장되지 않은 거래는 실패 처리. 메모리 계좌는 이미 변경되었으므로 버리고,
+            // 앞선 거래가 원장에 반영될 때까지(체크포인트가 표시까지 진행) 거래를 막은 후 원장에서 다시 읽음
+            log.error("account engine journal write failed. shard={}, commands={}", index, pending.size(), e);
+            Set<String> accountNums = new LinkedHashSet<>();
+            for (Command command : pending) {
+                accountNums.add(command.accountNum);
+                command.future.completeExceptionally(e);
+            }
+            pending.clear();
+            for (String accountNum : accountNums) {
+                accounts.remove(accountNum);
+                blocked.merge(accountNum, 1, Integer::sum);
+                CompletableFuture<Trade> checkpointed = new CompletableFuture<>();
+                checkpointed.whenComplete((trade, cause) -> submit(Command.resume(accountNum)));
+                checkpointEntries.add(new CheckpointEntry(null, checkpointed));
+            }
+            if ( journal.isBroken() ) {
+                fail(e);
+            }
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (Command command : pending) {
+            checkpointEntries.add(new CheckpointEntry(command.record, null));
+            command.future.complete(command.trade);
+            commandTimer.record(now - command.submitNanos, TimeUnit.NANOSECONDS);
+        }
+        pending.clear();
+    }
+
+    private void truncateJournal(long checkpointed) {
+        try {
+            if ( journal.truncate(checkpointed) ) {
+                log.debug("account engine journal truncated. shard={}", index);
+            }
+        } catch (IOException e) {
+            // 체크포인트 위치는 0 으로 기록되었을 수 있으나, 복구 시 반영된 기록은 거래일련번호로 건너뜀
+            log.error("account engine journal truncate failed. shard={}", index, e);
+        }
+    }
+
+    private IllegalStateException failed() {
+        return new IllegalStateException("계좌 엔진 샤드 장애. 원장 확인 필요. shard=" + index, failure);
+    }
+
+    static class Command {
+        enum Type { DEPOSIT, WITHDRAW, RELEASE, RESUME, TRUNCATE }
+
+        private final Type type;
+        private final String accountNum;
+        private final String tradeDate;
+        private final long amount;
+        private final long submitNanos = System.nanoTime();
+        private final CompletableFuture<Trade> future = new CompletableFuture<>();
+        private Trade trade;
+        private JournalRecord record;
+        private long checkpointed;
+
+        private Command(Type type, String accountNum, String tradeDate, long amount) {
+            this.type = type;
+            this.accountNum = accountNum;
+            this.tradeDate = tradeDate;
+            this.amount = amount;
+        }
+
+        static Command trade(TradeCd tradeCd, String accountNum, String tradeDate, long amount) {
+            return new Command(tradeCd == TradeCd.DEPOSIT ? Type.DEPOSIT : Type.WITHDRAW, accountNum, tradeDate, amount);
+        }
+
+        /**
+         * @param accountNum null 이면 샤드의 모든 계좌
+         */
+        static Command release(String accountNum) {
+            return new Command(Type.RELEASE, accountNum, null, 0);
+        }
+
+        /**
+         * @param accountNum null 이면 release(null) 해제
+         */
+        static Command resume(String accountNum) {
+            return new Command(Type.RESUME, accountNum, null, 0);
+        }
+
+        /**
+         * @param checkpointed 원장에 반영된 저널 위치
+         */
+        static Command truncate(long checkpointed) {
+            Command command = new Command(Type.TRUNCATE, null, null, 0);
+            command.checkpointed = checkpointed;
+            return command;
+        }
+    }
+
+    /**
+     * 체크포인트 대상. 저널 기록 또는 release 표시(released)
+     */
+    static class CheckpointEntry {
+        final JournalRecord record;
+        final CompletableFuture<Trade> released;
+
+        CheckpointEntry(JournalRecord record, CompletableFuture<Trade> released) {
+            this.record = record;
+            this.released = released;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.ken207.openbank.service.engine;
+
+/**
+ * 저널 기록을 원장에 다시 적용한 결과가 엔진의 응답과 다름. (응답한 거래를 원장에 그대로 반영할 수 없음)
+ * 재시도해도 같은 결과이므로 샤드를 장애 처리한다.
+ */
+class CheckpointMismatchException extends RuntimeException {
+
+    CheckpointMismatchException(String message) {
+        super(message);
+    }
+
+    CheckpointMismatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
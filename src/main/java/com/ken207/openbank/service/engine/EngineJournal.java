@@ -0,0 +1,231 @@
+package com.ken207.openbank.service.engine;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.domain.enums.TradeCd;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 샤드별 거래 저널 (순차 append 파일).
+ * 기록 : [payload 길이 int][CRC32 int][payload]
+ * payload : 계좌번호(길이 short + UTF-8), 거래코드 byte, 거래일자/처리일자 epoch day int, 거래금액, 거래일련번호, 거래후잔액 long
+ * append 는 메모리 버퍼에만 쓰고 flush 에서 파일에 쓴 후 fsync 한다. 체크포인트 위치는 별도 파일에 기록하며,
+ * 복구 시 체크포인트 이후 기록을 CRC 가 맞는 곳까지 읽고 잘린 꼬리는 버린다.
+ * 체크포인트가 기록의 끝까지 반영되면 truncate 로 파일을 비워서 저널이 계속 커지지 않게 한다.
+ * append, flush 는 샤드 스레드에서만 호출한다.
+ */
+public class EngineJournal implements Closeable {
+
+    private static final int FRAME_HEADER_SIZE = 8;
+    private static final TradeCd[] TRADE_CDS = TradeCd.values();
+
+    private final Path file;
+    private final Path checkpointFile;
+    private final FileChannel channel;
+    private final CRC32 crc32 = new CRC32();
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private long position; //다음 기록 위치 (버퍼 포함)
+    private boolean broken;
+
+    public EngineJournal(Path dir, int shard) throws IOException {
+        Files.createDirectories(dir);
+        this.file = dir.resolve("shard-" + shard + ".journal");
+        this.checkpointFile = dir.resolve("shard-" + shard + ".checkpoint");
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.position = channel.size();
+        this.channel.position(position);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return 체크포인트 이후 기록 (기록 순서)
+     */
+    public List<JournalRecord> recover() throws IOException {
+        long size = channel.size();
+        long from = Math.min(readCheckpoint(), size);
+        List<JournalRecord> records = new ArrayList<>();
+
+        ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, from, size - from);
+        int validEnd = 0;
+        while ( in.remaining() >= FRAME_HEADER_SIZE ) {
+            int length = in.getInt();
+            int crc = in.getInt();
+            if ( length <= 0 || length > in.remaining() ) {
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            in.get(payload);
+            crc32.reset();
+            crc32.update(payload, 0, length);
+            if ( (int) crc32.getValue() != crc ) {
+                break;
+            }
+
+            JournalRecord record = decode(ByteBuffer.wrap(payload));
+            validEnd = in.position();
+            record.setEndPosition(from + validEnd);
+            records.add(record);
+        }
+
+        position = from + validEnd;
+        channel.truncate(position);
+        channel.position(position);
+        return records;
+    }
+
+    /**
+     * 저널 비우기. 모든 기록이 원장에 반영된 후 호출.
+     */
+    public void reset() throws IOException {
+        buffer.clear();
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        position = 0;
+        checkpoint(0);
+    }
+
+    public void append(JournalRecord record) {
+        byte[] accountNum = record.getAccountNum().getBytes(StandardCharsets.UTF_8);
+        int length = 2 + accountNum.length + 1 + 4 + 4 + 8 + 8 + 8;
+        ensureCapacity(FRAME_HEADER_SIZE + length);
+
+        int start = buffer.position();
+        buffer.putInt(length);
+        buffer.putInt(0);
+        buffer.putShort((short) accountNum.length);
+        buffer.put(accountNum);
+        buffer.put((byte) record.getTradeCd().ordinal());
+        buffer.putInt(OBDateUtils.toEpochDay(record.getTradeDate()));
+        buffer.putInt(OBDateUtils.toEpochDay(record.getBzDate()));
+        buffer.putLong(record.getAmount());
+        buffer.putLong(record.getSrno());
+        buffer.putLong(record.getBlncAfter());
+
+        crc32.reset();
+        crc32.update(buffer.array(), start + FRAME_HEADER_SIZE, length);
+        buffer.putInt(start + 4, (int) crc32.getValue());
+
+        position += FRAME_HEADER_SIZE + length;
+        record.setEndPosition(position);
+    }
+
+    /**
+     * 버퍼의 기록을 파일에 쓰고 fsync.
+     * 쓰기나 fsync 가 실패하면 이번에 쓴 부분을 잘라내서 실패 응답한 거래가 복구 시 다시 읽히지 않게 한다.
+     * 잘라내지 못하면 broken 상태가 되며 이후 기록을 이어 쓰면 안 된다.
+     */
+    public void flush() throws IOException {
+        if ( buffer.position() == 0 ) {
+            return;
+        }
+        long written = channel.position();
+        buffer.flip();
+        try {
+            while ( buffer.hasRemaining() ) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            rollback(written, e);
+            throw e;
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * @return flush 실패 후 파일을 flush 이전 위치로 되돌리지 못함
+     */
+    public boolean isBroken() {
+        return broken;
+    }
+
+    /**
+     * 기록이 모두 원장에 반영되었으면(checkpointed 가 기록의 끝) 저널을 비움. 샤드 스레드에서 호출.
+     * 체크포인트 위치를 먼저 0 으로 기록하므로 중간에 실패해도 복구 시 이미 반영된 기록은 거래일련번호로 건너뛴다.
+     * @return 비웠으면 true
+     */
+    public boolean truncate(long checkpointed) throws IOException {
+        if ( broken || buffer.position() > 0 || position != checkpointed ) {
+            return false;
+        }
+        checkpoint(0);
+        channel.truncate(0);
+        channel.position(0);
+        position = 0;
+        return true;
+    }
+
+    /**
+     * position 까지의 기록이 원장에 반영됨
+     */
+    public synchronized void checkpoint(long position) throws IOException {
+        Path tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        ByteBuffer out = ByteBuffer.allocate(8).putLong(0, position);
+        try (FileChannel checkpointChannel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            checkpointChannel.write(out);
+            checkpointChannel.force(true);
+        }
+        Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void rollback(long written, IOException cause) {
+        try {
+            channel.truncate(written);
+            channel.position(written);
+            position = written;
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            broken = true;
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if ( !Files.exists(checkpointFile) ) {
+            return 0;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(checkpointFile)).getLong();
+    }
+
+    private JournalRecord decode(ByteBuffer in) {
+        byte[] accountNum = new byte[in.getShort()];
+        in.get(accountNum);
+        TradeCd tradeCd = TRADE_CDS[in.get()];
+        String tradeDate = OBDateUtils.fromEpochDay(in.getInt());
+        String bzDate = OBDateUtils.fromEpochDay(in.getInt());
+        return new JournalRecord(new String(accountNum, StandardCharsets.UTF_8), tradeCd, tradeDate, bzDate,
+                in.getLong(), in.getLong(), in.getLong());
+    }
+
+    private void ensureCapacity(int length) {
+        if ( buffer.remaining() >= length ) {
+            return;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ken207.openbank.service.engine;
+
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.domain.enums.TradeCd;
+import lombok.Getter;
+
+/**
+ * 엔진 저널의 거래 한 건. 체크포인트 시 같은 순서로 원장에 다시 적용하고 결과(srno, 거래후잔액)를 비교한다.
+ */
+@Getter
+public class JournalRecord {
+
+    private final String accountNum;
+    private final TradeCd tradeCd;
+    private final String tradeDate;
+    private final String bzDate;
+    private final long amount;
+    private final long srno;
+    private final long blncAfter;
+    private long endPosition; //저널 파일에서 이 기록의 끝 위치
+
+    public JournalRecord(String accountNum, TradeCd tradeCd, String tradeDate, String bzDate, long amount, long srno, long blncAfter) {
+        this.accountNum = accountNum;
+        this.tradeCd = tradeCd;
+        this.tradeDate = tradeDate;
+        this.bzDate = bzDate;
+        this.amount = amount;
+        this.srno = srno;
+        this.blncAfter = blncAfter;
+    }
+
+    public static JournalRecord of(String accountNum, Trade trade) {
+        return new JournalRecord(accountNum, trade.getTradeCd(), trade.getTradeDate(), trade.getBzDate(),
+                trade.getAmount(), trade.getSrno(), trade.getBlncAfter());
+    }
+
+    void setEndPosition(long endPosition) {
+        this.endPosition = endPosition;
+    }
+}
@@ -0,0 +1,149 @@
+package com.ken207.openbank.batch;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.EndOfDayDto;
+import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.ProductRepository;
+import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.BusinessDateService;
+import com.ken207.openbank.service.EndOfDayService;
+import com.ken207.openbank.service.ProductService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class EndOfDayJobTest {
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    BusinessDateService businessDateService;
+
+    @Autowired
+    EndOfDayService endOfDayService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final String PRODUCT_CODE = "130999";
+
+    @Before
+    public void setup() {
+        Product product = productRepository.findByProductCode(PRODUCT_CODE);
+
+        if ( product == null ) {
+            ProductDto.Create createProductDto = ProductDto.Create.builder()
+                    .productCode(PRODUCT_CODE)
+                    .subjectCode(SubjectCode.REGULAR)
+                    .name("온라인 보통예금")
+                    .basicRate(1.2)
+                    .startDate("20191214")
+                    .endDate(OBDateUtils.MAX_DATE)
+                    .build();
+            productService.createProduct(createProductDto);
+        }
+    }
+
+    /**
+     * 다른 테스트의 거래 처리일자가 오늘이 되도록 영업일자 복구
+     */
+    @After
+    public void restoreBusinessDate() {
+        jdbcTemplate.update("update business_date set bz_date = ?, last_closed_date = null", OBDateUtils.getToday());
+        businessDateService.refresh();
+    }
+
+    @Test
+    @TestDescription("일마감 후 영업일자가 다음 날로 변경되고 마감 잔액, 상품별 합계가 저장됨")
+    public void endOfDay() throws Exception {
+        //given
+        String bzDate = businessDateService.getBusinessDate();
+        Account account = openAccount();
+        accountService.deposit(account.getAccountNum(), TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000000).build());
+        accountService.withdraw(account.getAccountNum(), TradeDto.RequestDeposit.builder().tradeDate("20190301").amount(300000).build());
+
+        //when
+        EndOfDayDto.Result result = endOfDayService.run();
+        Trade nextDayTrade = accountService.deposit(account.getAccountNum(), TradeDto.RequestDeposit.builder().tradeDate("20190301").amount(5000).build());
+
+        //then
+        assertEquals(BatchStatus.COMPLETED, result.getStatus());
+        assertEquals(bzDate, result.getBzDate());
+        assertEquals(OBDateUtils.addDays(bzDate, 1), result.getNextBzDate());
+        assertEquals(result.getNextBzDate(), nextDayTrade.getBzDate());
+        assertEquals(bzDate, businessDateService.getLastClosedDate());
+
+        assertFalse(result.getPartitions().isEmpty());
+        assertTrue(result.getPartitions().stream().allMatch(o -> o.getStatus() == BatchStatus.COMPLETED));
+        EndOfDayDto.Total productTotal = result.getProducts().stream()
+                .filter(o -> o.getId() == account.getProduct().getId())
+                .findFirst().get();
+        assertTrue(productTotal.getDepositAmount() >= 1000000);
+        assertTrue(productTotal.getWithdrawAmount() >= 300000);
+        assertEquals(700000L, closingBalance(account.getId(), bzDate));
+    }
+
+    @Test
+    @TestDescription("원장 잔액이 거래 합계와 다르면 잔액 대사 불일치")
+    public void balanceMismatch() throws Exception {
+        //given
+        Account account = openAccount();
+        accountService.deposit(account.getAccountNum(), TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(10000).build());
+        endOfDayService.run();
+
+        //when
+        jdbcTemplate.update("update account set balance = balance + 1 where account_id = ?", account.getId());
+        EndOfDayDto.Result result = endOfDayService.run();
+        jdbcTemplate.update("update account set balance = balance - 1 where account_id = ?", account.getId());
+
+        //then
+        assertEquals(BatchStatus.COMPLETED, result.getStatus());
+        assertFalse(result.isReconciled());
+        assertTrue(result.getMismatchCount() >= 1);
+        assertEquals(10001L, closingBalance(account.getId(), result.getBzDate()));
+    }
+
+    private Account openAccount() {
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20190101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        return accountRepository.findById(accountId).get();
+    }
+
+    private long closingBalance(Long accountId, String bzDate) {
+        return jdbcTemplate.queryForObject("select balance from closing_balance where account_id = ? and bz_date = ?",
+                Long.class, accountId, bzDate);
+    }
+}
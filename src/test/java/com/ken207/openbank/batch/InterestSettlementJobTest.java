@@ -0,0 +1,126 @@
+package com.ken207.openbank.batch;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.InterestDto;
+import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.ProductRepository;
+import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.InterestSettlementService;
+import com.ken207.openbank.service.ProductService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class InterestSettlementJobTest {
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    InterestSettlementService interestSettlementService;
+
+    private final String PRODUCT_CODE = "130999";
+
+    @Before
+    public void setup() {
+        Product product = productRepository.findByProductCode(PRODUCT_CODE);
+
+        if ( product == null ) {
+            ProductDto.Create createProductDto = ProductDto.Create.builder()
+                    .productCode(PRODUCT_CODE)
+                    .subjectCode(SubjectCode.REGULAR)
+                    .name("온라인 보통예금")
+                    .basicRate(1.2)
+                    .startDate("20191214")
+                    .endDate(OBDateUtils.MAX_DATE)
+                    .build();
+            productService.createProduct(createProductDto);
+        }
+    }
+
+    @Test
+    @TestDescription("이자결산 배치 정상 테스트")
+    public void settleInterest() throws Exception {
+        //given
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20170101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        String accountNum = accountRepository.findById(accountId).get().getAccountNum();
+
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20170101").amount(1000000).build());
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20180101").amount(30000).build());
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(500000).build());
+
+        //when
+        InterestDto.Settlement settlement = interestSettlementService.settle("20191231", "20200101");
+        Account account = accountRepository.findById(accountId).get();
+
+        //then
+        assertEquals(BatchStatus.COMPLETED, settlement.getStatus());
+        assertTrue(settlement.getAccountCount() >= 1);
+        assertEquals("20191231", account.getLastIntsDt());
+        assertEquals(1572720, account.getBalance());
+        assertEquals(5, account.getLastTrnSrno());
+    }
+
+    @Test
+    @TestDescription("이자지급일 이후 거래가 있는 계좌는 제외하고 나머지 계좌는 결산")
+    public void settleInterest_tradedAfterReckonDate() throws Exception {
+        //given
+        String tradedLater = openAccount("20170101");
+        accountService.deposit(tradedLater, TradeDto.RequestDeposit.builder().tradeDate("20170101").amount(1000000).build());
+        accountService.deposit(tradedLater, TradeDto.RequestDeposit.builder().tradeDate("20190105").amount(1000).build());
+        String regular = openAccount("20170101");
+        accountService.deposit(regular, TradeDto.RequestDeposit.builder().tradeDate("20170101").amount(1000000).build());
+
+        //when
+        InterestDto.Settlement settlement = interestSettlementService.settle("20181231", "20190101");
+
+        //then
+        assertEquals(BatchStatus.COMPLETED, settlement.getStatus());
+        Account skipped = accountRepository.findByAccountNum(tradedLater);
+        assertNotEquals("20181231", skipped.getLastIntsDt());
+        assertEquals(1001000, skipped.getBalance());
+        Account settled = accountRepository.findByAccountNum(regular);
+        assertEquals("20181231", settled.getLastIntsDt());
+        assertTrue(settled.getBalance() > 1000000);
+    }
+
+    private String openAccount(String regDate) {
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate(regDate)
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        return accountRepository.findById(accountId).get().getAccountNum();
+    }
+}
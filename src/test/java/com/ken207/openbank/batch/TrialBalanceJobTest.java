@@ -0,0 +1,180 @@
+package com.ken207.openbank.batch;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.Statement;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.domain.enums.DebitCreditCd;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.JournalDto;
+import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.ProductRepository;
+import com.ken207.openbank.repository.StatementRepository;
+import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.BusinessDateService;
+import com.ken207.openbank.service.JournalOutboxDispatcher;
+import com.ken207.openbank.service.JournalWriter;
+import com.ken207.openbank.service.ProductService;
+import com.ken207.openbank.service.TrialBalanceService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class TrialBalanceJobTest {
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    StatementRepository statementRepository;
+
+    @Autowired
+    JournalOutboxDispatcher journalOutboxDispatcher;
+
+    @Autowired
+    JournalWriter journalWriter;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TrialBalanceService trialBalanceService;
+
+    @Autowired
+    BusinessDateService businessDateService;
+
+    private final String PRODUCT_CODE = "130999";
+
+    @Before
+    public void setup() {
+        Product product = productRepository.findByProductCode(PRODUCT_CODE);
+
+        if ( product == null ) {
+            ProductDto.Create createProductDto = ProductDto.Create.builder()
+                    .productCode(PRODUCT_CODE)
+                    .subjectCode(SubjectCode.REGULAR)
+                    .name("온라인 보통예금")
+                    .basicRate(1.2)
+                    .startDate("20191214")
+                    .endDate(OBDateUtils.MAX_DATE)
+                    .build();
+            productService.createProduct(createProductDto);
+        }
+    }
+
+    @Test
+    @TestDescription("거래마다 차변, 대변 전표를 저장하고 일계표 차대가 일치")
+    public void trialBalance() throws Exception {
+        //given
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20190101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        String accountNum = accountRepository.findById(accountId).get().getAccountNum();
+
+        Trade deposit = accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000000).build());
+        accountService.withdraw(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190301").amount(300000).build());
+        Trade interest = accountService.payInterest(accountNum, "20190630", "20190701");
+
+        //outbox 에 대기 중인 전표를 모두 저장
+        journalOutboxDispatcher.dispatchPending();
+
+        //when
+        JournalDto.TrialBalance trialBalance = trialBalanceService.run(businessDateService.getBusinessDate());
+
+        //then
+        List<Statement> depositStatements = statementRepository.findByTradeIdOrderBySubSrno(deposit.getId());
+        assertEquals(2, depositStatements.size());
+        assertEquals(DebitCreditCd.DEBIT, depositStatements.get(0).getDebitCreditCd());
+        assertEquals(Statement.CASH_SUBJECT_CODE, depositStatements.get(0).getAccountSubjectCode());
+        assertEquals(SubjectCode.REGULAR.getSubjectCode(), depositStatements.get(1).getAccountSubjectCode());
+        assertEquals(2, statementRepository.findByTradeIdOrderBySubSrno(interest.getId()).size());
+
+        assertEquals(BatchStatus.COMPLETED, trialBalance.getStatus());
+        assertTrue(trialBalance.isBalanced());
+        assertTrue(trialBalance.getLineCount() >= 6);
+        assertTrue(trialBalance.getSubjects().stream()
+                .anyMatch(o -> o.getAccountSubjectCode().equals(Statement.INTEREST_EXPENSE_SUBJECT_CODE)));
+    }
+
+    @Test
+    @TestDescription("outbox 가 다시 처리되어도 거래의 전표는 한 번만 저장 (거래 id 로 중복 제거)")
+    public void dispatchTwice() throws Exception {
+        //given
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20190101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        String accountNum = accountRepository.findById(accountId).get().getAccountNum();
+        Trade deposit = accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(50000).build());
+        journalOutboxDispatcher.dispatchPending();
+
+        //when
+        jdbcTemplate.update("insert into journal_outbox (trade_id, account_subject_code, created_date) values (?, ?, ?)",
+                deposit.getId(), SubjectCode.REGULAR.getSubjectCode(), Timestamp.valueOf(LocalDateTime.now()));
+        journalOutboxDispatcher.dispatchPending();
+
+        //then
+        assertEquals(2, statementRepository.findByTradeIdOrderBySubSrno(deposit.getId()).size());
+        assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+                "select count(*) from journal_outbox where trade_id = ?", Integer.class, deposit.getId()));
+    }
+
+    @Test
+    @TestDescription("중복 확인을 지나서 같은 거래의 전표를 다시 저장해도 unique 제약으로 거래당 전표는 두 건")
+    public void dispatchDuplicateStatements() throws Exception {
+        //given
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20190101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        String accountNum = accountRepository.findById(accountId).get().getAccountNum();
+        Trade deposit = accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(50000).build());
+        journalOutboxDispatcher.dispatchPending();
+
+        //when
+        // 다른 인스턴스가 같은 대기 거래를 중복 확인 후 저장한 경우
+        journalWriter.append(deposit.createStatements(SubjectCode.REGULAR.getSubjectCode())).get();
+        jdbcTemplate.update("insert into journal_outbox (trade_id, account_subject_code, created_date) values (?, ?, ?)",
+                deposit.getId(), SubjectCode.REGULAR.getSubjectCode(), Timestamp.valueOf(LocalDateTime.now()));
+        journalOutboxDispatcher.dispatchPending();
+
+        //then
+        assertEquals(2, statementRepository.findByTradeIdOrderBySubSrno(deposit.getId()).size());
+        assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+                "select count(*) from journal_outbox where trade_id = ?", Integer.class, deposit.getId()));
+    }
+}
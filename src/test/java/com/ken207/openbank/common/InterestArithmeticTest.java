@@ -0,0 +1,96 @@
+package com.ken207.openbank.common;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class InterestArithmeticTest {
+
+    private static final int CASES = 100_000;
+
+    @Test
+    @TestDescription("일수이자 고정소수점 계산값이 BigDecimal 정확값의 1/1000 원 절사와 같은지 임의값으로 확인")
+    public void dailyInterestMatchesBigDecimal() throws Exception {
+        //given
+        Random random = new Random(20191231L);
+
+        for (int i = 0; i < CASES; i++) {
+            long balance = (long) (random.nextDouble() * 10_000_000_000L);
+            long rateMicros = random.nextInt(20_000_000); // 0 ~ 20%
+            int days = random.nextInt(3_660) + 1;
+
+            //when
+            long actual = InterestArithmetic.dailyInterestMilli(balance, rateMicros, days);
+
+            //then
+            BigDecimal expected = BigDecimal.valueOf(balance)
+                    .multiply(BigDecimal.valueOf(rateMicros, 6))
+                    .multiply(BigDecimal.valueOf(days))
+                    .divide(BigDecimal.valueOf(100 * 365), 3, RoundingMode.DOWN);
+            assertEquals("balance=" + balance + ", rate=" + rateMicros + ", days=" + days,
+                    expected.movePointRight(3).longValueExact(), actual);
+        }
+    }
+
+    @Test
+    @TestDescription("일수이자는 일수에 대해 단조증가하고 기간을 나눠 계산한 합은 전체 기간 이자보다 크지 않다")
+    public void dailyInterestMonotonicAndSplit() throws Exception {
+        //given
+        Random random = new Random(365L);
+
+        for (int i = 0; i < CASES; i++) {
+            long balance = random.nextInt(Integer.MAX_VALUE);
+            long rateMicros = random.nextInt(20_000_000);
+            int days1 = random.nextInt(366) + 1;
+            int days2 = random.nextInt(366) + 1;
+
+            //when
+            long interest1 = InterestArithmetic.dailyInterestMilli(balance, rateMicros, days1);
+            long interest2 = InterestArithmetic.dailyInterestMilli(balance, rateMicros, days2);
+            long interestTotal = InterestArithmetic.dailyInterestMilli(balance, rateMicros, days1 + days2);
+
+            //then
+            assertTrue(interestTotal >= interest1);
+            assertTrue(interestTotal >= interest1 + interest2);
+            assertTrue(interestTotal - (interest1 + interest2) <= 1);
+        }
+    }
+
+    @Test
+    @TestDescription("잔액 * 이율이 long 범위를 넘어도 정확하게 계산")
+    public void dailyInterestOverflow() throws Exception {
+        //given
+        long balance = Long.MAX_VALUE / 1000;
+        long rateMicros = InterestArithmetic.toRateMicros(1.2);
+
+        //when
+        long actual = InterestArithmetic.dailyInterestMilli(balance, rateMicros, 1);
+
+        //then
+        BigDecimal expected = BigDecimal.valueOf(balance)
+                .multiply(BigDecimal.valueOf(rateMicros, 6))
+                .divide(BigDecimal.valueOf(100 * 365), 3, RoundingMode.DOWN);
+        assertEquals(expected.movePointRight(3).longValueExact(), actual);
+    }
+
+    @Test
+    @TestDescription("이율 변환 및 원 미만 절상")
+    public void rateAndRounding() throws Exception {
+        //given
+
+        //when
+
+        //then
+        assertEquals(1_200_000, InterestArithmetic.toRateMicros(1.2));
+        assertEquals(50_000, InterestArithmetic.toRateMicros(0.05));
+        assertEquals(18360_000, InterestArithmetic.dailyInterestMilli(1_530_000, 1_200_000, 365));
+        assertEquals(42720, InterestArithmetic.ceilToWon(42720_000));
+        assertEquals(42721, InterestArithmetic.ceilToWon(42720_001));
+        assertEquals(0, InterestArithmetic.ceilToWon(0));
+        assertEquals(18360.0, InterestArithmetic.milliToDouble(18360_000), 0);
+    }
+}
@@ -3,6 +3,9 @@ package com.ken207.openbank.common;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
 import static org.junit.Assert.*;
 
 public class OBDateUtilsTest {
@@ -197,4 +200,56 @@ public class OBDateUtilsTest {
         //then
         Assert.assertEquals(addDayResult, yesterday);
     }
-}
\ No newline at end of file
+
+    @Test
+    @TestDescription("epoch day 변환 결과가 LocalDate 와 같은지 확인")
+    public void toEpochDay() throws Exception {
+        //given
+        LocalDate date = LocalDate.of(1955, 1, 1);
+        LocalDate end = LocalDate.of(2100, 12, 31);
+
+        while ( !date.isAfter(end) ) {
+            String yyyymmdd = OBDateUtils.parseString(date);
+
+            //when
+            int epochDay = OBDateUtils.toEpochDay(yyyymmdd);
+            String result = OBDateUtils.fromEpochDay(epochDay);
+
+            //then
+            Assert.assertEquals(date.toEpochDay(), epochDay);
+            Assert.assertEquals(yyyymmdd, result);
+
+            date = date.plusDays(1);
+        }
+    }
+
+    @Test(expected = DateTimeException.class)
+    @TestDescription("존재하지 않는 일자(2월 30일)는 epoch day 로 변환하지 않음")
+    public void toEpochDay_invalidDay() throws Exception {
+        //when
+        OBDateUtils.toEpochDay("20190230");
+    }
+
+    @Test(expected = DateTimeException.class)
+    @TestDescription("월이 13 이상이면 epoch day 로 변환하지 않음")
+    public void toEpochDay_invalidMonth() throws Exception {
+        //when
+        OBDateUtils.toEpochDay("20191301");
+    }
+
+    @Test
+    @TestDescription("MAX_DATE 까지는 일자를 더하고, 넘어가면 오류")
+    public void addDays_maxDate() throws Exception {
+        //when
+        String lastDate = OBDateUtils.addDays("99991230", 1);
+
+        //then
+        assertEquals(OBDateUtils.MAX_DATE, lastDate);
+        try {
+            OBDateUtils.addDays(OBDateUtils.MAX_DATE, 1);
+            fail("MAX_DATE 이후 일자 오류");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("10000"));
+        }
+    }
+}
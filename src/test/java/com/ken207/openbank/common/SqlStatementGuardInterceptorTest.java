@@ -0,0 +1,98 @@
+package com.ken207.openbank.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.Assert.*;
+
+public class SqlStatementGuardInterceptorTest {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/account/regular");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @After
+    public void tearDown() {
+        SqlStatementCounter.stop();
+    }
+
+    @Test
+    @TestDescription("요청 시작 시 SQL 건수 초기화, 상한 이내면 통과")
+    public void withinLimit() throws Exception {
+        //given
+        SqlStatementGuardInterceptor interceptor = new SqlStatementGuardInterceptor(2, meterRegistry);
+        counter.inspect("select 1");
+
+        //when
+        interceptor.preHandle(request, response, null);
+        counter.inspect("select 1");
+        counter.inspect("select 1");
+        interceptor.afterCompletion(request, response, null, null);
+
+        //then
+        assertEquals(2, SqlStatementCounter.getCount());
+        assertEquals(2, meterRegistry.get(SqlStatementGuardInterceptor.METRIC_NAME).summary().totalAmount(), 0);
+    }
+
+    @Test
+    @TestDescription("요청 하나의 SQL 건수가 상한을 넘으면 SQL 실행 전에 실패하고, 실패한 요청도 건수를 기록")
+    public void exceedLimit() throws Exception {
+        //given
+        SqlStatementGuardInterceptor interceptor = new SqlStatementGuardInterceptor(2, meterRegistry);
+
+        //when
+        interceptor.preHandle(request, response, null);
+        counter.inspect("select 1");
+        counter.inspect("select 1");
+        IllegalStateException exception = null;
+        try {
+            counter.inspect("select 1");
+        } catch (IllegalStateException e) {
+            exception = e;
+        }
+        interceptor.afterCompletion(request, response, null, exception);
+
+        //then
+        assertNotNull(exception);
+        assertEquals(3, meterRegistry.get(SqlStatementGuardInterceptor.METRIC_NAME).summary().totalAmount(), 0);
+    }
+
+    @Test
+    @TestDescription("요청이 끝나면 상한을 해제해서 같은 스레드의 요청 밖 SQL 은 검사하지 않음")
+    public void stopAfterCompletion() throws Exception {
+        //given
+        SqlStatementGuardInterceptor interceptor = new SqlStatementGuardInterceptor(2, meterRegistry);
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            counter.inspect("select 1");
+        }
+
+        //then
+        assertEquals(10, SqlStatementCounter.getCount());
+    }
+
+    @Test
+    @TestDescription("상한 0 이면 검사하지 않음")
+    public void disabled() throws Exception {
+        //given
+        SqlStatementGuardInterceptor interceptor = new SqlStatementGuardInterceptor(0, meterRegistry);
+
+        //when
+        interceptor.preHandle(request, response, null);
+        for (int i = 0; i < 100; i++) {
+            counter.inspect("select 1");
+        }
+
+        //then
+        interceptor.afterCompletion(request, response, null, null);
+        assertEquals(100, SqlStatementCounter.getCount());
+    }
+}
@@ -0,0 +1,49 @@
+package com.ken207.openbank.configs;
+
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.service.AccountService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MetricsConfigTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    AccountService accountService;
+
+    @Test
+    @TestDescription("업무 timer, API 히스토그램, 요청당 SQL 건수, hibernate, 커넥션 풀 메트릭을 prometheus 형식으로 조회")
+    public void prometheus() throws Exception {
+        //given
+        accountService.getAccountList(PageRequest.of(0, 10));
+        mockMvc.perform(get("/api/account/regular"))
+                .andExpect(status().isOk());
+
+        //when & then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("openbank_account_service_seconds_count")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("openbank_http_sql_statements_count")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")));
+    }
+}
@@ -1,5 +1,6 @@
 package com.ken207.openbank.controller;
 
+import com.jayway.jsonpath.JsonPath;
 import com.ken207.openbank.common.OBDateUtils;
 import com.ken207.openbank.common.TestDescription;
 import com.ken207.openbank.domain.Product;
@@ -25,8 +26,10 @@ import org.springframework.restdocs.hypermedia.LinksSnippet;
 import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.payload.ResponseFieldsSnippet;
 
+import java.util.Arrays;
 import java.util.stream.IntStream;
 
+import static org.junit.Assert.assertEquals;
 import static org.springframework.restdocs.headers.HeaderDocumentation.*;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
@@ -511,6 +514,65 @@ public class AccountRegularControllerTest extends BaseControllerTest {
                 ));
     }
 
+    @Test
+    @TestDescription("다건 입출금 정상 테스트. 계좌별로 순서대로 처리하고 건별 결과를 요청 순서대로 응답")
+    public void accountBulkTrade() throws Exception {
+        //given
+        String tradeDate = "20191215";
+        TaxationCode taxation = TaxationCode.REGULAR;
+        String accountNum1 = createAccount(tradeDate, taxation);
+        String accountNum2 = createAccount(tradeDate, taxation);
+
+        TradeDto.RequestBulk requestBulk = TradeDto.RequestBulk.builder()
+                .trades(Arrays.asList(
+                        bulkItem(accountNum1, TradeCd.DEPOSIT, tradeDate, 100000),
+                        bulkItem(accountNum2, TradeCd.DEPOSIT, tradeDate, 50000),
+                        bulkItem(accountNum1, TradeCd.WITHDRAW, tradeDate, 30000),
+                        bulkItem(accountNum2, TradeCd.WITHDRAW, tradeDate, 80000),
+                        bulkItem("99999999", TradeCd.DEPOSIT, tradeDate, 10000)
+                ))
+                .build();
+
+        //when & then
+        mockMvc.perform(post("/api/account/regular/bulk")
+                        .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                        .contentType(MediaType.APPLICATION_JSON_UTF8)
+                        .content(this.objectMapper.writeValueAsString(requestBulk))
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("totalCount").value(5))
+                .andExpect(jsonPath("successCount").value(3))
+                .andExpect(jsonPath("failCount").value(2))
+                .andExpect(jsonPath("tradesPerSecond").exists())
+                .andExpect(jsonPath("results[0].success").value(true))
+                .andExpect(jsonPath("results[0].blncAfter").value(100000))
+                .andExpect(jsonPath("results[2].success").value(true))
+                .andExpect(jsonPath("results[2].blncAfter").value(70000))
+                .andExpect(jsonPath("results[3].success").value(false))
+                .andExpect(jsonPath("results[3].accountNum").value(accountNum2))
+                .andExpect(jsonPath("results[4].success").value(false))
+                .andDo(document("account-bulk-trade",
+                        links(
+                                linkWithRel("self").description("link to self"),
+                                linkWithRel("query-accounts").description("link to query accounts"),
+                                linkWithRelAsProfile()
+                        )
+                ));
+
+        assertEquals(70000, accountRepository.findByAccountNum(accountNum1).getBalance());
+        assertEquals(50000, accountRepository.findByAccountNum(accountNum2).getBalance());
+    }
+
+    private TradeDto.RequestBulkItem bulkItem(String accountNum, TradeCd tradeCd, String tradeDate, long amount) {
+        return TradeDto.RequestBulkItem.builder()
+                .accountNum(accountNum)
+                .tradeCd(tradeCd)
+                .tradeDate(tradeDate)
+                .amount(amount)
+                .build();
+    }
+
     @Test
     @TestDescription("잔액 초과 출금 오류 테스트")
     public void accountWithdrawOverBalance() throws Exception {
@@ -587,6 +649,167 @@ public class AccountRegularControllerTest extends BaseControllerTest {
                 ));
     }
 
+    @Test
+    @TestDescription("거래내역 keyset 페이지 조회. next, prev 링크로 이동")
+    public void getTradeListByKeyset() throws Exception {
+        //given
+        String tradeDate = "20191215";
+        TaxationCode taxation = TaxationCode.REGULAR;
+        String accountNum = createAccount(tradeDate, taxation);
+
+        IntStream.range(1, 6).forEach(e -> deposit(tradeDate, e * 1000, accountNum));
+
+        //when & then
+        String firstPage = mockMvc.perform(get("/api/account/regular/{accountNum}/trade", accountNum)
+                        .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                        .param("cursor", "")
+                        .param("size", "4")
+                        .param("count", "true")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("size").value(4))
+                .andExpect(jsonPath("totalCount").value(6))
+                .andExpect(jsonPath("_embedded.responseList.length()").value(4))
+                .andExpect(jsonPath("_embedded.responseList[0].srno").value(1))
+                .andExpect(jsonPath("_embedded.responseList[3].srno").value(4))
+                .andExpect(jsonPath("_links.next.href").exists())
+                .andExpect(jsonPath("_links.prev").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        String nextHref = JsonPath.read(firstPage, "_links.next.href");
+
+        String secondPage = mockMvc.perform(get(nextHref)
+                        .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("totalCount").doesNotExist())
+                .andExpect(jsonPath("_embedded.responseList.length()").value(2))
+                .andExpect(jsonPath("_embedded.responseList[0].srno").value(5))
+                .andExpect(jsonPath("_links.next").doesNotExist())
+                .andExpect(jsonPath("_links.prev.href").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        String prevHref = JsonPath.read(secondPage, "_links.prev.href");
+
+        mockMvc.perform(get(prevHref)
+                        .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.responseList.length()").value(4))
+                .andExpect(jsonPath("_embedded.responseList[0].srno").value(1))
+                .andExpect(jsonPath("_embedded.responseList[3].srno").value(4))
+                .andExpect(jsonPath("_links.next.href").exists())
+                .andExpect(jsonPath("_links.prev").doesNotExist());
+    }
+
+    @Test
+    @TestDescription("거래내역 내보내기 정상 테스트. NDJSON, CSV")
+    public void exportTradeList() throws Exception {
+        //given
+        String tradeDate = "20191215";
+        TaxationCode taxation = TaxationCode.REGULAR;
+        String accountNum = createAccount(tradeDate, taxation);
+
+        IntStream.range(1, 4).forEach(e -> deposit(tradeDate, e * 1000, accountNum));
+
+        //when & then
+        String ndjson = mockMvc.perform(get("/api/account/regular/{accountNum}/trade/export", accountNum)
+                        .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8"))
+                .andDo(document("trade-export"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] rows = ndjson.split("\n");
+        assertEquals(4, rows.length);
+        assertEquals(1, this.objectMapper.readValue(rows[0], TradeDto.Response.class).getSrno());
+        assertEquals(6000, this.objectMapper.readValue(rows[3], TradeDto.Response.class).getBlncAfter());
+
+        String csv = mockMvc.perform(get("/api/account/regular/{accountNum}/trade/export", accountNum)
+                        .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                        .param("format", "CSV")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = csv.split("\n");
+        assertEquals(5, lines.length);
+        assertEquals("srno,tradeDate,bzDate,amount,blncBefore,blncAfter,tradeCd", lines[0]);
+        assertEquals("4," + tradeDate + "," + OBDateUtils.getToday() + ",3000,3000,6000,DEPOSIT", lines[4]);
+    }
+
+    @Test
+    @TestDescription("기준일자 잔액 조회 정상 테스트")
+    public void getBalanceAsOf() throws Exception {
+        //given
+        String regDate = "20191201";
+        String accountNum = createAccount(regDate, TaxationCode.REGULAR);
+        deposit("20191205", 1000, accountNum);
+        deposit("20191205", 2000, accountNum);
+        deposit("20191210", 500, accountNum);
+
+        //when & then
+        mockMvc.perform(get("/api/account/regular/{accountNum}/balance", accountNum)
+                        .param("asOf", "20191209")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("accountNum").value(accountNum))
+                .andExpect(jsonPath("asOf").value("20191209"))
+                .andExpect(jsonPath("balance").value(3000))
+                .andDo(document("account-balance",
+                        links(
+                                linkWithRel("self").description("link to self"),
+                                linkWithRel("account").description("link to account"),
+                                linkWithRel("profile").description("link to profile")
+                        ),
+                        requestParameters(
+                                parameterWithName("asOf").description("기준일자(yyyymmdd). 없으면 오늘")
+                        ),
+                        responseFields(
+                                fieldWithPath("accountNum").description("account number"),
+                                fieldWithPath("asOf").description("base date of balance"),
+                                fieldWithPath("balance").description("closing balance at the base date"),
+                                fieldWithPathAsSelf(),
+                                fieldWithPath("_links.account.href").description("link to account"),
+                                fieldWithPathAsProfile()
+                        )
+                ));
+
+        assertBalanceAsOf(accountNum, "20191130", 0);
+        assertBalanceAsOf(accountNum, "20191204", 0);
+        assertBalanceAsOf(accountNum, "20191205", 3000);
+        assertBalanceAsOf(accountNum, "20191210", 3500);
+        assertBalanceAsOf(accountNum, OBDateUtils.MAX_DATE, 3500);
+    }
+
+    @Test
+    @TestDescription("기준일자가 yyyymmdd 형식이 아니거나 존재하지 않는 일자이면 400")
+    public void getBalanceAsOf_invalidDate() throws Exception {
+        //given
+        String accountNum = createAccount("20191201", TaxationCode.REGULAR);
+
+        //when & then
+        for (String asOf : new String[] {"2020-1-1", "20190230", "2019123"}) {
+            mockMvc.perform(get("/api/account/regular/{accountNum}/balance", accountNum)
+                            .param("asOf", asOf)
+                    )
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private void assertBalanceAsOf(String accountNum, String asOf, long balance) throws Exception {
+        mockMvc.perform(get("/api/account/regular/{accountNum}/balance", accountNum)
+                        .param("asOf", asOf)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("balance").value(balance));
+    }
+
     private String createAccount(String tradeDate, TaxationCode taxation) {
         AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
                 .productCode(PRODUCT_CODE)
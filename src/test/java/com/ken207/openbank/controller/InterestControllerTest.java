@@ -111,7 +111,7 @@ public class InterestControllerTest extends BaseControllerTest {
         accountService.deposit(accountNum, request2);
         accountService.deposit(accountNum, request3);
 
-        Account account = accountRepository.findById(accountId).get();
+        Account account = accountRepository.findForListById(accountId).get();
 
         //when & then
         mockMvc.perform(get("/api/interest/{accountNum}", accountNum)
@@ -292,7 +292,7 @@ public class InterestControllerTest extends BaseControllerTest {
         accountService.deposit(accountNum, request2);
         accountService.deposit(accountNum, request3);
 
-        Account account = accountRepository.findById(accountId).get();
+        Account account = accountRepository.findForListById(accountId).get();
 
         //when & then
         mockMvc.perform(get("/api/interest/{accountNum}/{until}", accountNum, untilDate)
@@ -384,12 +384,12 @@ public class InterestControllerTest extends BaseControllerTest {
                 .build();
 
         accountService.deposit(accountNum, request1);
-        accountService.payInterest(accountNum, "20170630", "20170701");
+        Trade firstTrade = accountService.payInterest(accountNum, "20170630", "20170701");
         accountService.payInterest(accountNum, "20171231", "20180101");
         accountService.deposit(accountNum, request2);
         accountService.payInterest(accountNum, "20180630", "20180701");
-        Trade trade = accountService.payInterest(accountNum, "20191231", "20190101");
-        Interest interest = trade.getAccount().getInterestEntities().get(0);
+        accountService.payInterest(accountNum, "20191231", "20190101");
+        Interest interest = firstTrade.getInterest();
 
 
         //when & then
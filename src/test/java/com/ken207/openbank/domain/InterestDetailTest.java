@@ -0,0 +1,143 @@
+package com.ken207.openbank.domain;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * 이자상세 계산이 이전 BigDecimal 계산 결과와 같은지 확인.
+ * 일수이자는 이자상세를 1/1000 원 미만 절사하고, 월수이자는 절사하지 않은 채 합계를 원 미만 절상한다.
+ */
+public class InterestDetailTest {
+
+    private static final long[] BALANCES = {0, 1, 999, 120_040, 1_000_000, 123_456_789, 9_999_999_999L};
+    private static final double[] RATES = {0.01, 0.1, 1.2, 1.5, 2.35, 3.123456, 10, 19.99};
+    private static final int[] DAYS = {1, 30, 31, 90, 365, 366, 3650};
+    private static final int[] MONTHS = {1, 3, 6, 12, 36, 120};
+    private static final String FROM_DATE = "20190101";
+
+    @Test
+    @TestDescription("월수이자는 1/1000 원 미만을 절사하지 않고 합계를 원 미만 절상")
+    public void calculateByMonths_notTruncated() throws Exception {
+        //given
+        // 120,040 * 0.01% * 1개월 / 12 = 1.000333... 원
+        InterestDetail interestDetail = InterestDetail.builder()
+                .balance(120_040)
+                .interestRate(0.01)
+                .months(1)
+                .build();
+        Interest interest = Interest.builder()
+                .periodType(PeriodType.MONTHLY)
+                .interestDetails(Collections.singletonList(interestDetail))
+                .build();
+
+        //when
+        interest.calculate();
+
+        //then
+        assertEquals(1.000333, interestDetail.getInterestAmount(), 0.000001);
+        assertEquals(2, interest.getInterestAmount());
+    }
+
+    @Test
+    @TestDescription("월수이자 이율은 반올림하지 않고 그대로 계산")
+    public void calculateByMonths_rateNotRounded() throws Exception {
+        //given
+        // 1,200,000 * 1.0000004% / 12 = 1,000.0004 원
+        InterestDetail interestDetail = InterestDetail.builder()
+                .balance(1_200_000)
+                .interestRate(1.0000004)
+                .months(1)
+                .build();
+        Interest interest = Interest.builder()
+                .periodType(PeriodType.MONTHLY)
+                .interestDetails(Collections.singletonList(interestDetail))
+                .build();
+
+        //when
+        interest.calculate();
+
+        //then
+        assertEquals(1_000.0004, interestDetail.getInterestAmount(), 0.0000001);
+        assertEquals(1_001, interest.getInterestAmount());
+    }
+
+    @Test
+    @TestDescription("일수이자 상세 계산값이 이전 BigDecimal 계산값과 같다")
+    public void calculateByDays_parity() throws Exception {
+        for (long balance : BALANCES) {
+            for (double rate : RATES) {
+                for (int days : DAYS) {
+                    //given
+                    InterestDetail interestDetail = InterestDetail.builder()
+                            .balance(balance)
+                            .interestRate(rate)
+                            .fromDate(FROM_DATE)
+                            .toDate(OBDateUtils.addDays(FROM_DATE, days - 1))
+                            .build();
+
+                    //when
+                    double actual = interestDetail.calculateByDays();
+
+                    //then
+                    assertEquals(days, interestDetail.getDays());
+                    assertEquals("balance=" + balance + ", rate=" + rate + ", days=" + days,
+                            legacyCalculateByDays(balance, rate, days), actual, 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    @TestDescription("월수이자 상세 계산값이 이전 BigDecimal 계산값과 같다")
+    public void calculateByMonths_parity() throws Exception {
+        for (long balance : BALANCES) {
+            for (double rate : RATES) {
+                for (int months : MONTHS) {
+                    //given
+                    InterestDetail interestDetail = InterestDetail.builder()
+                            .balance(balance)
+                            .interestRate(rate)
+                            .months(months)
+                            .build();
+
+                    //when
+                    double actual = interestDetail.calculateByMonths();
+
+                    //then
+                    assertEquals("balance=" + balance + ", rate=" + rate + ", months=" + months,
+                            legacyCalculateByMonths(balance, rate, months), actual, 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * 고정소수점 전환 이전의 일수이자 계산
+     */
+    private double legacyCalculateByDays(long balance, double interestRate, int days) {
+        BigDecimal interestBig = new BigDecimal(balance).multiply(new BigDecimal(interestRate))
+                .divide(new BigDecimal(100), MathContext.DECIMAL64)
+                .multiply(new BigDecimal(days))
+                .divide(new BigDecimal(365), MathContext.DECIMAL64);
+        return interestBig.setScale(3, RoundingMode.DOWN).doubleValue();
+    }
+
+    /**
+     * 고정소수점 전환 이전의 월수이자 계산
+     */
+    private double legacyCalculateByMonths(long balance, double interestRate, int months) {
+        BigDecimal interestBig = new BigDecimal(balance).multiply(new BigDecimal(interestRate))
+                .divide(new BigDecimal(100), MathContext.DECIMAL64)
+                .multiply(new BigDecimal(months))
+                .divide(new BigDecimal(12), MathContext.DECIMAL64);
+        return interestBig.doubleValue();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ken207.openbank.domain;
+
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.enums.PeriodType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RateScheduleTest {
+
+    private final RateSchedule rateSchedule = RateSchedule.of(Arrays.asList(
+            rate("20190701", "20191231", 1.5),
+            rate("20190101", "20190630", 1.2),
+            rate("20200101", "99991231", 1.0)));
+
+    @Test
+    @TestDescription("일자별 적용 이율 조회 (시작일 정렬, 이진 탐색)")
+    public void rateAt() throws Exception {
+        //given
+
+        //when
+
+        //then
+        assertEquals(3, rateSchedule.size());
+        assertEquals(1.2, rateSchedule.rateAt("20180101"), 0); //첫 이율 시작일 이전은 첫 이율
+        assertEquals(1.2, rateSchedule.rateAt("20190101"), 0);
+        assertEquals(1.2, rateSchedule.rateAt("20190630"), 0);
+        assertEquals(1.5, rateSchedule.rateAt("20190701"), 0);
+        assertEquals(1.5, rateSchedule.rateAt("20191231"), 0);
+        assertEquals(1.0, rateSchedule.rateAt("20200101"), 0);
+        assertEquals(1.0, rateSchedule.rateAt("20301231"), 0);
+        assertNull(RateSchedule.of(Arrays.asList()));
+    }
+
+    @Test
+    @TestDescription("잔액 구간을 이율 변경일 기준으로 나눠서 이자계산 상세 생성")
+    public void makeInterestDetailByRateSchedule() throws Exception {
+        //given
+        Interest interest = Interest.builder().basicRate(1.2).build();
+        interest.setPeriod("20190101", "20200131", PeriodType.DAILY);
+        interest.setRateSchedule(rateSchedule);
+
+        List<DailyBalance> dailyBalances = Arrays.asList( //최근 일자 -> 오래된 일자
+                DailyBalance.builder().tradeDate("20190801").balance(2_000_000).build(),
+                DailyBalance.builder().tradeDate("20190101").balance(1_000_000).build());
+
+        //when
+        interest.makeInterestDetail(dailyBalances);
+        interest.calculate();
+
+        //then
+        List<InterestDetail> details = interest.getInterestDetails();
+        assertEquals(4, details.size());
+        assertDetail(details.get(0), "20200101", "20200131", 1.0, 2_000_000);
+        assertDetail(details.get(1), "20190801", "20191231", 1.5, 2_000_000);
+        assertDetail(details.get(2), "20190701", "20190731", 1.5, 1_000_000);
+        assertDetail(details.get(3), "20190101", "20190630", 1.2, 1_000_000);
+
+        // 2,000,000*1.0%*31/365 + 2,000,000*1.5%*153/365 + 1,000,000*1.5%*31/365 + 1,000,000*1.2%*181/365
+        // = 1698.630 + 12575.342 + 1273.972 + 5950.684 = 21498.628 -> 21499
+        assertEquals(21499, interest.getInterestAmount());
+    }
+
+    @Test
+    @TestDescription("이율 변경 이력이 없으면 기본이율로 계산")
+    public void makeInterestDetailWithoutRateSchedule() throws Exception {
+        //given
+        Interest interest = Interest.builder().basicRate(1.2).build();
+        interest.setPeriod("20190101", "20191231", PeriodType.DAILY);
+
+        //when
+        interest.makeInterestDetail(Arrays.asList(
+                DailyBalance.builder().tradeDate("20190101").balance(1_000_000).build()));
+
+        //then
+        assertEquals(1, interest.getInterestDetails().size());
+        assertDetail(interest.getInterestDetails().get(0), "20190101", "20191231", 1.2, 1_000_000);
+    }
+
+    private void assertDetail(InterestDetail detail, String fromDate, String toDate, double rate, long balance) {
+        assertEquals(fromDate, detail.getFromDate());
+        assertEquals(toDate, detail.getToDate());
+        assertEquals(rate, detail.getInterestRate(), 0);
+        assertEquals(balance, detail.getBalance());
+    }
+
+    private static Rate rate(String startDate, String endDate, double rate) {
+        return Rate.builder().name("기본이율").startDate(startDate).endDate(endDate).rate(rate).build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ken207.openbank.domain;
+
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.enums.DebitCreditCd;
+import com.ken207.openbank.domain.enums.TradeCd;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StatementTest {
+
+    private static final String DEPOSIT_SUBJECT_CODE = "13";
+
+    @Test
+    @TestDescription("입금 전표. (차) 현금 / (대) 예금과목")
+    public void depositStatements() throws Exception {
+        //given
+        Trade trade = trade(TradeCd.DEPOSIT, 10000);
+
+        //when
+        List<Statement> statements = trade.createStatements(DEPOSIT_SUBJECT_CODE);
+
+        //then
+        assertStatements(statements, Statement.CASH_SUBJECT_CODE, DEPOSIT_SUBJECT_CODE, 10000);
+    }
+
+    @Test
+    @TestDescription("출금 전표. (차) 예금과목 / (대) 현금")
+    public void withdrawStatements() throws Exception {
+        //given
+        Trade trade = trade(TradeCd.WITHDRAW, 3000);
+
+        //when
+        List<Statement> statements = trade.createStatements(DEPOSIT_SUBJECT_CODE);
+
+        //then
+        assertStatements(statements, DEPOSIT_SUBJECT_CODE, Statement.CASH_SUBJECT_CODE, 3000);
+    }
+
+    @Test
+    @TestDescription("이자지급 전표. (차) 이자비용 / (대) 예금과목")
+    public void interestStatements() throws Exception {
+        //given
+        Trade trade = trade(TradeCd.INTEREST, 120);
+
+        //when
+        List<Statement> statements = trade.createStatements(DEPOSIT_SUBJECT_CODE);
+
+        //then
+        assertStatements(statements, Statement.INTEREST_EXPENSE_SUBJECT_CODE, DEPOSIT_SUBJECT_CODE, 120);
+    }
+
+    @Test
+    @TestDescription("금액이 없는 거래(신규, 해지)는 전표 없음")
+    public void noStatements() throws Exception {
+        //given
+        Trade trade = trade(TradeCd.OPEN, 0);
+
+        //when
+        List<Statement> statements = trade.createStatements(DEPOSIT_SUBJECT_CODE);
+
+        //then
+        assertTrue(statements.isEmpty());
+    }
+
+    private Trade trade(TradeCd tradeCd, long amount) {
+        return Trade.builder()
+                .srno(1)
+                .tradeCd(tradeCd)
+                .amount(amount)
+                .tradeDate("20200101")
+                .bzDate("20200102")
+                .build();
+    }
+
+    private void assertStatements(List<Statement> statements, String debitSubjectCode, String creditSubjectCode, long amount) {
+        assertEquals(2, statements.size());
+
+        Statement debit = statements.get(0);
+        assertEquals(DebitCreditCd.DEBIT, debit.getDebitCreditCd());
+        assertEquals(debitSubjectCode, debit.getAccountSubjectCode());
+        assertEquals(amount, debit.getTradeAmount().longValue());
+        assertEquals("20200102", debit.getJournalDate());
+
+        Statement credit = statements.get(1);
+        assertEquals(DebitCreditCd.CREDIT, credit.getDebitCreditCd());
+        assertEquals(creditSubjectCode, credit.getAccountSubjectCode());
+        assertEquals(amount, credit.getTradeAmount().longValue());
+    }
+}
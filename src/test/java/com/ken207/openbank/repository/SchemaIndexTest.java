@@ -0,0 +1,207 @@
+package com.ken207.openbank.repository;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * 조회 경로의 인덱스 사용 확인.
+ * 기본은 계좌 1만, 거래 10만 건이며 규모는 프로퍼티로 변경한다.
+ * ex) -Dapp-scale-test.accounts=1000000 -Dapp-scale-test.trades-per-account=50 -Dspring.profiles.active=test (PostgreSQL)
+ */
+@Slf4j
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class SchemaIndexTest {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${app-scale-test.accounts:10000}")
+    private int accountCount;
+
+    @Value("${app-scale-test.trades-per-account:10}")
+    private int tradesPerAccount;
+
+    private final String PRODUCT_CODE = "130999";
+
+    @Before
+    public void setup() {
+        Product product = productRepository.findByProductCode(PRODUCT_CODE);
+
+        if ( product == null ) {
+            ProductDto.Create createProductDto = ProductDto.Create.builder()
+                    .productCode(PRODUCT_CODE)
+                    .subjectCode(SubjectCode.REGULAR)
+                    .name("온라인 보통예금")
+                    .basicRate(1.2)
+                    .startDate("20191214")
+                    .endDate(OBDateUtils.MAX_DATE)
+                    .build();
+            productService.createProduct(createProductDto);
+        }
+    }
+
+    @Test
+    @TestDescription("상품코드, 직원코드 unique, 이자 계좌 인덱스가 생성됨")
+    public void indexes() throws Exception {
+        assertTrue(hasIndex("product", "uk_product_product_code"));
+        assertTrue(hasIndex("employee", "uk_employee_employee_code"));
+        assertTrue(hasIndex("interest", "idx_interest_account"));
+        assertTrue(hasIndex("account", "uk_account_account_num"));
+        assertTrue(hasIndex("trade", "idx_trade_account_trade_date"));
+    }
+
+    @Test
+    @TestDescription("대량 데이터에서 계좌번호, 거래내역 조회가 인덱스를 사용 (EXPLAIN)")
+    public void explain() throws Exception {
+        //given
+        Long templateAccountId = accountService.openRegularAccount(AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20190101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build());
+        String templateAccountNum = accountRepository.findById(templateAccountId).get().getAccountNum();
+        accountService.deposit(templateAccountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000).build());
+
+        try {
+            load(templateAccountId);
+
+            //when
+            long accountId = -(accountCount / 2);
+            String accountPlan = explain("select * from account where account_num = 'SCALE" + (accountCount / 2) + "'");
+            String tradeDatePlan = explain("select * from trade where account_id = " + accountId
+                    + " and trade_date > '20190105' order by srno desc");
+            String srnoPlan = explain("select * from trade where account_id = " + accountId
+                    + " and srno > 3 order by srno limit 20");
+            String bzDatePlan = explain("select * from trade where account_id = " + accountId
+                    + " and bz_date > '20190105'");
+
+            //then
+            assertTrue(accountPlan, accountPlan.contains("uk_account_account_num"));
+            assertTrue(tradeDatePlan, tradeDatePlan.contains("idx_trade_account_trade_date") || tradeDatePlan.contains("uk_trade_account_srno"));
+            assertTrue(srnoPlan, srnoPlan.contains("uk_trade_account_srno") || srnoPlan.contains("idx_trade_account_trade_date"));
+            assertTrue(bzDatePlan, bzDatePlan.contains("idx_trade_account_"));
+        } finally {
+            jdbcTemplate.update("delete from trade where account_id < 0");
+            jdbcTemplate.update("delete from account where account_id < 0");
+        }
+    }
+
+    /**
+     * 신규 계좌와 입금 거래를 복사해서 계좌, 거래 적재. 시퀀스와 겹치지 않도록 음수 id 를 사용한다.
+     */
+    private void load(Long templateAccountId) {
+        long startMillis = System.currentTimeMillis();
+        Map<String, Object> account = jdbcTemplate.queryForMap("select * from account where account_id = ?", templateAccountId);
+        Map<String, Object> trade = jdbcTemplate.queryForMap("select * from trade where account_id = ? and srno = 2", templateAccountId);
+
+        insertCopies("account", account, accountCount, i -> {
+            Map<String, Object> values = new HashMap<>();
+            values.put("account_id", (long) -(i + 1));
+            values.put("account_num", "SCALE" + (i + 1));
+            values.put("last_daily_balance_id", null);
+            return values;
+        });
+        insertCopies("trade", trade, accountCount * tradesPerAccount, i -> {
+            int srno = i % tradesPerAccount + 1;
+            String tradeDate = OBDateUtils.addDays("20190101", srno);
+            Map<String, Object> values = new HashMap<>();
+            values.put("trade_id", (long) -(i + 1));
+            values.put("account_id", (long) -(i / tradesPerAccount + 1));
+            values.put("srno", (long) srno);
+            values.put("trade_date", tradeDate);
+            values.put("bz_date", tradeDate);
+            return values;
+        });
+
+        jdbcTemplate.execute("analyze");
+        log.info("scale data loaded. accounts={}, trades={}, {} ms",
+                accountCount, accountCount * tradesPerAccount, System.currentTimeMillis() - startMillis);
+    }
+
+    private void insertCopies(String table, Map<String, Object> template, int count, IntFunction<Map<String, Object>> overrides) {
+        List<String> columns = template.keySet().stream().map(String::toLowerCase).collect(Collectors.toList());
+        String sql = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + columns.stream().map(o -> "?").collect(Collectors.joining(", ")) + ")";
+
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> values = overrides.apply(i);
+            rows.add(columns.stream()
+                    .map(column -> values.containsKey(column) ? values.get(column) : template.get(column))
+                    .toArray());
+            if ( rows.size() == BATCH_SIZE || i == count - 1 ) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        String plan = jdbcTemplate.queryForList("explain " + sql, String.class).stream()
+                .collect(Collectors.joining("\n"))
+                .toLowerCase();
+        log.info("{}\n{}", sql, plan);
+        return plan;
+    }
+
+    /**
+     * H2 는 unique 제약의 인덱스 이름에 접미사를 붙이므로 이름으로 시작하는지 확인
+     */
+    private boolean hasIndex(String table, String indexName) {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            DatabaseMetaData metaData = con.getMetaData();
+            for (String tableName : Arrays.asList(table.toUpperCase(), table.toLowerCase())) {
+                try (ResultSet rs = metaData.getIndexInfo(null, null, tableName, false, false)) {
+                    while ( rs.next() ) {
+                        String name = rs.getString("INDEX_NAME");
+                        if ( name != null && name.toLowerCase().startsWith(indexName) ) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        });
+    }
+}
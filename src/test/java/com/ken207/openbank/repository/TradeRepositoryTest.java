@@ -1,5 +1,7 @@
 package com.ken207.openbank.repository;
 
+import com.ken207.openbank.common.KeysetCursor;
+import com.ken207.openbank.common.KeysetPage;
 import com.ken207.openbank.common.OBDateUtils;
 import com.ken207.openbank.common.TestDescription;
 import com.ken207.openbank.domain.Account;
@@ -17,6 +19,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -140,6 +145,40 @@ public class TradeRepositoryTest {
         assertEquals(4, tradeList2_1.size());
     }
 
+    @Test
+    @TestDescription("거래내역 목록 DTO 조회 쿼리 테스트 (OFFSET, keyset)")
+    public void findResponsesByAccountId() throws Exception {
+        //given
+        String tradeDate = "20191015";
+        TaxationCode taxation = TaxationCode.REGULAR;
+
+        Account account = createAccount(tradeDate, taxation);
+        Account otherAccount = createAccount(tradeDate, taxation);
+
+        IntStream.range(1,10).forEach(e -> {
+            deposit(OBDateUtils.addDays(tradeDate, e), e, account.getAccountNum());
+        });
+        deposit(tradeDate, 1, otherAccount.getAccountNum());
+
+        //when
+        Page<TradeDto.Response> page = tradeRepository.findResponsesByAccountId(account.getId(), PageRequest.of(1, 4, Sort.by("srno")));
+        KeysetPage<TradeDto.Response> keysetPage = tradeRepository.findResponsesByAccountId(account.getId(), KeysetCursor.next(4L), 4);
+
+        //then
+        assertEquals(10, page.getTotalElements());
+        assertEquals(4, page.getContent().size());
+        TradeDto.Response response = page.getContent().get(0);
+        assertEquals(5, response.getSrno());
+        assertEquals(OBDateUtils.addDays(tradeDate, 4), response.getTradeDate());
+        assertEquals(4, response.getAmount());
+        assertEquals(6, response.getBlncBefore());
+        assertEquals(10, response.getBlncAfter());
+
+        assertEquals(4, keysetPage.getContent().size());
+        assertEquals(5, keysetPage.getContent().get(0).getSrno());
+        assertEquals(8, keysetPage.getContent().get(3).getSrno());
+    }
+
     private Account createAccount(String tradeDate, TaxationCode taxation) {
         AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
                 .productCode(PRODUCT_CODE)
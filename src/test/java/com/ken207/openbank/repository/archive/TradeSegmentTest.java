@@ -0,0 +1,92 @@
+package com.ken207.openbank.repository.archive;
+
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.dto.TradeDto;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TradeSegmentTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final int INDEX_INTERVAL = 8;
+    private static final int TRADES_PER_ACCOUNT = 50;
+
+    @Test
+    @TestDescription("계좌별 거래일련번호 순서로 앞, 뒤 거래 조회")
+    public void findAfterAndBeforeSrno() throws Exception {
+        //given
+        TradeSegment segment = writeSegment(10, 20, 30);
+
+        //when
+        List<TradeDto.Response> after = segment.findAfterSrno(20, 5, 10);
+        List<TradeDto.Response> before = segment.findBeforeSrno(20, 5, 10);
+        List<TradeDto.Response> last = segment.findBeforeSrno(30, Long.MAX_VALUE, 3);
+
+        //then
+        assertEquals(3 * TRADES_PER_ACCOUNT, segment.getRowCount());
+        assertEquals(10, after.size());
+        assertEquals(6, after.get(0).getSrno());
+        assertEquals(15, after.get(9).getSrno());
+        assertEquals(4, before.size());
+        assertEquals(4, before.get(0).getSrno());
+        assertEquals(1, before.get(3).getSrno());
+        assertEquals(3, last.size());
+        assertEquals(TRADES_PER_ACCOUNT, last.get(0).getSrno());
+
+        TradeDto.Response trade = after.get(0);
+        assertEquals("20190106", trade.getTradeDate());
+        assertEquals(TradeCd.DEPOSIT, trade.getTradeCd());
+        assertEquals(6000, trade.getAmount());
+        assertEquals(trade.getBlncAfter() - trade.getAmount(), trade.getBlncBefore());
+    }
+
+    @Test
+    @TestDescription("세그먼트에 없는 계좌와 범위 밖 거래일련번호는 빈 목록")
+    public void findOutOfRange() throws Exception {
+        //given
+        TradeSegment segment = writeSegment(10, 20, 30);
+
+        //when & then
+        assertFalse(segment.mayContain(5));
+        assertEquals(0, segment.count(15));
+        assertEquals(TRADES_PER_ACCOUNT, segment.count(30));
+        assertTrue(segment.findAfterSrno(15, 0, 10).isEmpty());
+        assertTrue(segment.findAfterSrno(10, TRADES_PER_ACCOUNT, 10).isEmpty());
+        assertTrue(segment.findBeforeSrno(10, 1, 10).isEmpty());
+        assertEquals(TRADES_PER_ACCOUNT, segment.findAfterSrno(30, 0, 100).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @TestDescription("(계좌 id, 거래일련번호) 순서가 아니면 오류")
+    public void unsortedRows() {
+        TradeSegmentWriter writer = new TradeSegmentWriter(INDEX_INTERVAL);
+        writer.add(10, 2, "20190101", "20190101", 1000, 1000, TradeCd.DEPOSIT);
+        writer.add(10, 1, "20190101", "20190101", 1000, 2000, TradeCd.DEPOSIT);
+    }
+
+    private TradeSegment writeSegment(long... accountIds) throws Exception {
+        TradeSegmentWriter writer = new TradeSegmentWriter(INDEX_INTERVAL);
+        for (long accountId : accountIds) {
+            long balance = 0;
+            for (int srno = 1; srno <= TRADES_PER_ACCOUNT; srno++) {
+                long amount = srno * 1000L;
+                balance += amount;
+                String tradeDate = String.format("201901%02d", Math.min(srno, 31));
+                writer.add(accountId, srno, tradeDate, tradeDate, amount, balance, TradeCd.DEPOSIT);
+            }
+        }
+
+        Path file = temporaryFolder.newFile("trade.seg").toPath();
+        writer.write(file);
+        return TradeSegment.open(file);
+    }
+}
@@ -0,0 +1,100 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.common.AccountConcurrencyProperties;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.exception.BizRuntimeException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AccountConcurrencyTemplateTest {
+
+    private AccountConcurrencyProperties properties;
+    private PlatformTransactionManager transactionManager;
+
+    @Before
+    public void setup() {
+        properties = new AccountConcurrencyProperties();
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    @TestDescription("낙관적 잠금 충돌 시 재시도 후 정상 처리")
+    public void optimisticRetry() {
+        //given
+        properties.setMode(AccountConcurrencyProperties.Mode.OPTIMISTIC);
+        properties.setMaxRetry(3);
+        AccountConcurrencyTemplate template = new AccountConcurrencyTemplate(properties, transactionManager);
+        AtomicInteger tries = new AtomicInteger();
+
+        //when
+        String result = template.execute("1310000001", () -> {
+            if ( tries.incrementAndGet() < 3 ) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "OK";
+        });
+
+        //then
+        assertEquals("OK", result);
+        assertEquals(3, tries.get());
+    }
+
+    @Test(expected = BizRuntimeException.class)
+    @TestDescription("낙관적 잠금 재시도 횟수 초과")
+    public void optimisticRetry_BizRuntimeException() {
+        //given
+        properties.setMode(AccountConcurrencyProperties.Mode.OPTIMISTIC);
+        properties.setMaxRetry(2);
+        AccountConcurrencyTemplate template = new AccountConcurrencyTemplate(properties, transactionManager);
+
+        //when
+        template.execute("1310000001", () -> {
+            throw new OptimisticLockingFailureException("conflict");
+        });
+
+        //then
+        fail("재시도 횟수 초과 오류");
+    }
+
+    @Test
+    @TestDescription("계좌 잠금 모드에서 같은 계좌 거래는 순차 처리")
+    public void stripedLock() throws Exception {
+        //given
+        properties.setMode(AccountConcurrencyProperties.Mode.STRIPED_LOCK);
+        AccountConcurrencyTemplate template = new AccountConcurrencyTemplate(properties, transactionManager);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        Runnable task = () -> {
+            for (int i = 0; i < 100; i++) {
+                template.execute("1310000001", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    running.decrementAndGet();
+                    return null;
+                });
+            }
+        };
+
+        //when
+        Thread thread1 = new Thread(task);
+        Thread thread2 = new Thread(task);
+        thread1.start();
+        thread2.start();
+        thread1.join();
+        thread2.join();
+
+        //then
+        assertEquals(1, maxRunning.get());
+    }
+}
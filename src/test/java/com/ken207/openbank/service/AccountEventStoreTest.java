@@ -0,0 +1,198 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.AccountEventSnapshot;
+import com.ken207.openbank.domain.AccountState;
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.enums.AccountStatusCode;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.repository.AccountEventRepository;
+import com.ken207.openbank.repository.AccountEventSnapshotRepository;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.ProductRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "app-account.event-sourcing.enabled=true",
+        "app-account.event-sourcing.snapshot-interval=3"
+})
+public class AccountEventStoreTest {
+
+    @Autowired
+    AccountEventStore accountEventStore;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    AccountEventRepository accountEventRepository;
+
+    @Autowired
+    AccountEventSnapshotRepository accountEventSnapshotRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final String PRODUCT_CODE = "130999";
+
+    @Before
+    public void setup() {
+        Product product = productRepository.findByProductCode(PRODUCT_CODE);
+
+        if ( product == null ) {
+            ProductDto.Create createProductDto = ProductDto.Create.builder()
+                    .productCode(PRODUCT_CODE)
+                    .subjectCode(SubjectCode.REGULAR)
+                    .name("온라인 보통예금")
+                    .basicRate(1.2)
+                    .startDate("20191214")
+                    .endDate(OBDateUtils.MAX_DATE)
+                    .build();
+            productService.createProduct(createProductDto);
+        }
+    }
+
+    @Test
+    @TestDescription("스냅샷 + 이후 이벤트로 복원한 계좌 상태가 원장과 같음")
+    public void load() throws Exception {
+        //given
+        Account account = openAccount("20190101");
+        String accountNum = account.getAccountNum();
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000000).build());
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190201").amount(200000).build());
+        accountService.withdraw(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190301").amount(300000).build());
+        accountService.payInterest(accountNum, "20190331", "20190401");
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190501").amount(50000).build());
+
+        //when
+        AccountState state = accountEventStore.load(account.getId());
+        Account ledger = accountRepository.findById(account.getId()).get();
+
+        //then
+        assertEquals(6, accountEventRepository.countByAccountId(account.getId()));
+        AccountEventSnapshot snapshot = accountEventSnapshotRepository.findById(account.getId()).get();
+        assertEquals(6, snapshot.getSrno());
+
+        assertEquals(6, state.getSrno());
+        assertEquals(ledger.getBalance(), state.getBalance());
+        assertEquals("20190501", state.getLastTradeDate());
+        assertEquals("20190331", state.getLastIntsDt());
+        assertEquals(AccountStatusCode.ACTIVE, state.getAccountStatusCode());
+        assertTrue(state.matches(ledger));
+    }
+
+    @Test
+    @TestDescription("원장 잔액이 이벤트와 다르면 불일치")
+    public void drift() throws Exception {
+        //given
+        Account account = openAccount("20190101");
+        accountService.deposit(account.getAccountNum(), TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(10000).build());
+
+        //when
+        jdbcTemplate.update("update account set balance = balance + 1 where account_id = ?", account.getId());
+        Account ledger = accountRepository.findById(account.getId()).get();
+        AccountState state = accountEventStore.load(account.getId());
+
+        //then
+        assertEquals(10000, state.getBalance());
+        assertFalse(state.matches(ledger));
+    }
+
+    @Test
+    @TestDescription("전체 이벤트 재생으로 계좌별 상태 재구성")
+    public void replay() throws Exception {
+        //given
+        Account account1 = openAccount("20190101");
+        Account account2 = openAccount("20190101");
+        accountService.deposit(account1.getAccountNum(), TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000).build());
+        accountService.deposit(account2.getAccountNum(), TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(2000).build());
+        accountService.withdraw(account2.getAccountNum(), TradeDto.RequestDeposit.builder().tradeDate("20190102").amount(500).build());
+
+        //when
+        Map<Long, AccountState> states = new HashMap<>();
+        long eventCount = accountEventStore.replay(state -> states.put(state.getAccountId(), state));
+
+        //then
+        assertTrue(eventCount >= 5);
+        assertEquals(1000, states.get(account1.getId()).getBalance());
+        assertEquals(1500, states.get(account2.getId()).getBalance());
+        assertEquals(3, states.get(account2.getId()).getSrno());
+        assertEquals("20190102", states.get(account2.getId()).getLastTradeDate());
+    }
+
+    @Test
+    @TestDescription("adopt 한 계좌는 스냅샷이 갱신된 후에도 기준 상태부터 재생해서 원장과 같음")
+    public void replayAdoptedAccount() throws Exception {
+        //given
+        Account account = openAccount("20190101");
+        String accountNum = account.getAccountNum();
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000).build());
+        // 이벤트 소싱 모드 이전에 신규한 계좌와 같도록 이벤트 삭제 후 원장 기준으로 등록
+        jdbcTemplate.update("delete from account_event where account_id = ?", account.getId());
+        jdbcTemplate.update("delete from account_event_snapshot where account_id = ?", account.getId());
+        accountEventStore.adopt(accountRepository.findById(account.getId()).get());
+
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190102").amount(2000).build()); //srno 3, 스냅샷 갱신
+        accountService.withdraw(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190103").amount(500).build());
+
+        //when
+        Map<Long, AccountState> states = new HashMap<>();
+        accountEventStore.replay(state -> states.put(state.getAccountId(), state));
+        AccountState loaded = accountEventStore.load(account.getId());
+        Account ledger = accountRepository.findById(account.getId()).get();
+
+        //then
+        AccountState replayed = states.get(account.getId());
+        assertNotNull(replayed);
+        assertEquals(4, replayed.getSrno());
+        assertEquals(2500, replayed.getBalance());
+        assertTrue(replayed.matches(ledger));
+        assertTrue(loaded.matches(ledger));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @TestDescription("이벤트 순번이 연속되지 않으면 오류")
+    public void eventGap() {
+        AccountState state = new AccountState(1L);
+        state.apply(1, TradeCd.OPEN, "20190101", 0, "20181231");
+        state.apply(3, TradeCd.DEPOSIT, "20190101", 1000, null);
+    }
+
+    private Account openAccount(String regDate) {
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate(regDate)
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        return accountRepository.findById(accountId).get();
+    }
+}
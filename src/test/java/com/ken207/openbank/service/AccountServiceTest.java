@@ -13,6 +13,9 @@ import com.ken207.openbank.dto.TradeDto;
 import com.ken207.openbank.exception.BizRuntimeException;
 import com.ken207.openbank.repository.AccountRepository;
 import com.ken207.openbank.repository.ProductRepository;
+import com.ken207.openbank.repository.TradeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -43,6 +46,12 @@ public class AccountServiceTest {
     @Autowired
     ProductService productService;
 
+    @Autowired
+    TradeRepository tradeRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
     private final String PRODUCT_CODE = "130999";
 
     @Before
@@ -287,6 +296,58 @@ public class AccountServiceTest {
     }
 
 
+    @Test
+    @TestDescription("이자지급에서 내부 호출한 이자조회, 이자계산 처리시간도 기록")
+    public void payInterest_timer() throws Exception {
+        //given
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20190101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        String accountNum = accountRepository.findById(accountId).get().getAccountNum();
+        long getInterestBefore = timerCount("getInterest");
+        long calculateInterestBefore = timerCount("calculateInterest");
+
+        //when
+        accountService.payInterest(accountNum, "20190331", "20190401");
+
+        //then
+        assertEquals(getInterestBefore + 1, timerCount("getInterest"));
+        assertEquals(calculateInterestBefore + 1, timerCount("calculateInterest"));
+    }
+
+    private long timerCount(String method) {
+        Timer timer = meterRegistry.find(AccountService.TIMER).tag("method", method).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test(expected = BizRuntimeException.class)
+    @TestDescription("최종거래일자 이전 기산일 이자지급 테스트")
+    public void payInterest_backdated() throws Exception {
+        //given
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20190101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        String accountNum = accountRepository.findById(accountId).get().getAccountNum();
+
+        TradeDto.RequestDeposit request = TradeDto.RequestDeposit.builder()
+                .tradeDate("20190601")
+                .amount(1000000)
+                .build();
+        accountService.deposit(accountNum, request);
+
+        //when
+        accountService.payInterest(accountNum, "20190331", "20190401");
+
+        //then
+        fail("최종거래일자 이전 이자지급 오류");
+    }
+
     @Test
     @TestDescription("정상 이자지급 테스트")
     public void payInterest() throws Exception {
@@ -467,4 +528,58 @@ public class AccountServiceTest {
         assertEquals(365, interestDetails1.get(2).getDays());
         assertEquals(0, interestDetails1.get(2).getMonths());
     }
-}
\ No newline at end of file
+
+    @Test
+    @TestDescription("일별 마감잔액 이자계산과 거래내역 이자계산 결과 일치 테스트")
+    public void getInterestByDailyBalance() throws Exception {
+        //given
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20170101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        String accountNum = accountRepository.findById(accountId).get().getAccountNum();
+
+        String[] tradeDates = {"20170101", "20170101", "20170315", "20170315", "20170315", "20180101", "20180620", "20190101"};
+        long[] amounts = {1000000, 30000, 500000, 12345, 777, 30000, 9999, 500000};
+        for (int i = 0; i < tradeDates.length; i++) {
+            TradeDto.RequestDeposit request = TradeDto.RequestDeposit.builder()
+                    .tradeDate(tradeDates[i])
+                    .amount(amounts[i])
+                    .build();
+            if ( i % 4 == 3 ) {
+                accountService.withdraw(accountNum, request);
+            }
+            else {
+                accountService.deposit(accountNum, request);
+            }
+        }
+
+        //when
+        Interest byDailyBalance = accountService.getInterest(accountNum, "20191231");
+
+        Account account = accountRepository.findByAccountNum(accountNum);
+        Interest byTradeList = Interest.createInterest(account);
+        byTradeList.setTradeListForInterest(tradeRepository.findByAccountIdAndTradeDateGreaterThanOrderBySrnoDesc(account.getId(), account.getLastIntsDt()));
+        byTradeList.setPeriod(OBDateUtils.addDays(account.getLastIntsDt(), 1), "20191231", PeriodType.DAILY);
+        byTradeList.sortedTradeList();
+        byTradeList.remainLastTradeOfDays();
+        byTradeList.makeInterestDetail();
+        byTradeList.calculate();
+
+        //then
+        List<InterestDetail> expected = byTradeList.getInterestDetails();
+        List<InterestDetail> actual = byDailyBalance.getInterestDetails();
+        assertEquals(5, actual.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getFromDate(), actual.get(i).getFromDate());
+            assertEquals(expected.get(i).getToDate(), actual.get(i).getToDate());
+            assertEquals(expected.get(i).getBalance(), actual.get(i).getBalance());
+            assertEquals(expected.get(i).getDays(), actual.get(i).getDays());
+            assertEquals(expected.get(i).getInterestAmount(), actual.get(i).getInterestAmount(), 0);
+        }
+        assertEquals(byTradeList.getInterestAmount(), byDailyBalance.getInterestAmount());
+    }
+}
@@ -0,0 +1,69 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class AccountSnapshotCacheTest {
+
+    @Autowired
+    AccountSnapshotCache accountSnapshotCache;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @TestDescription("계좌 조회 캐시 hit, 입금 후 캐시 제거 테스트")
+    public void evictOnDeposit() throws Exception {
+        //given
+        String regDate = "20191215";
+        Long accountId = accountService.openRegularAccount(AccountDto.RequestOpen.builder()
+                .productCode("130001")
+                .regDate(regDate)
+                .taxationCode(TaxationCode.REGULAR)
+                .build());
+        String accountNum = accountRepository.findById(accountId).get().getAccountNum();
+        double hitBefore = hitCount();
+
+        //when
+        AccountDto.Snapshot first = accountSnapshotCache.get(accountNum);
+        AccountDto.Snapshot second = accountSnapshotCache.get(accountNum);
+
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate(regDate).amount(10000).build());
+        AccountDto.Snapshot afterDeposit = accountSnapshotCache.get(accountNum);
+
+        //then
+        assertEquals(accountId, first.getId());
+        assertSame(first, second);
+        assertEquals(hitBefore + 1, hitCount(), 0);
+        assertEquals(0, first.getResponse().getBalance());
+        assertNotSame(first, afterDeposit);
+        assertEquals(10000, afterDeposit.getResponse().getBalance());
+        assertNull(accountSnapshotCache.get("00000000"));
+    }
+
+    private double hitCount() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", AccountSnapshotCache.CACHE_NAME)
+                .tag("result", "hit")
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,72 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CodeGeneratorServiceTest {
+
+    @Autowired
+    CodeGeneratorService codeGeneratorService;
+
+    @Test
+    @TestDescription("계좌번호 채번 형식 테스트")
+    public void createAccountNumber() {
+        //when
+        String accountNum = codeGeneratorService.createAccountNumber(SubjectCode.REGULAR.getSubjectCode());
+
+        //then
+        assertTrue(accountNum.startsWith(SubjectCode.REGULAR.getSubjectCode()));
+        assertEquals(8, accountNum.length());
+    }
+
+    @Test
+    @TestDescription("거래고유번호 채번 형식 테스트")
+    public void createTradeUniqueNumber() {
+        //when
+        String tradeUniqueNumber = codeGeneratorService.createTradeUniqueNumber();
+
+        //then
+        assertTrue(tradeUniqueNumber.startsWith(OBDateUtils.getToday()));
+        assertEquals(15, tradeUniqueNumber.length());
+    }
+
+    @Test
+    @TestDescription("동시 채번 시 블록을 넘어가도 중복 번호가 없음")
+    public void createTradeUniqueNumberConcurrently() throws Exception {
+        //given
+        int threads = 4;
+        int countPerThread = 500;
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+        //when
+        for (int i = 0; i < threads; i++) {
+            executorService.submit(() -> {
+                for (int j = 0; j < countPerThread; j++) {
+                    numbers.add(codeGeneratorService.createTradeUniqueNumber());
+                }
+            });
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+
+        //then
+        assertEquals(threads * countPerThread, numbers.size());
+    }
+}
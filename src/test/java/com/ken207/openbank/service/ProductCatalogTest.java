@@ -0,0 +1,86 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.RateSchedule;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.dto.ProductDto;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class ProductCatalogTest {
+
+    @Autowired
+    ProductCatalog productCatalog;
+
+    @Autowired
+    ProductService productService;
+
+    @Test
+    @TestDescription("상품 등록 후 카탈로그 새 버전에서 조회")
+    public void refreshOnCreateProduct() throws Exception {
+        //given
+        String productCode = "130777";
+        long versionBefore = productCatalog.getVersion();
+        assertNull(productCatalog.get(productCode));
+
+        //when
+        Long productId = productService.createProduct(ProductDto.Create.builder()
+                .productCode(productCode)
+                .subjectCode(SubjectCode.REGULAR)
+                .name("카탈로그 보통예금")
+                .basicRate(1.7)
+                .startDate("20191214")
+                .endDate(OBDateUtils.MAX_DATE)
+                .build());
+
+        //then
+        ProductDto.CatalogItem item = productCatalog.get(productCode);
+        assertTrue(productCatalog.getVersion() > versionBefore);
+        assertEquals(productId, item.getProductId());
+        assertNotNull(item.getBasicRateId());
+        assertEquals(1.7, item.getBasicRate(), 0);
+        assertEquals(SubjectCode.REGULAR, item.getSubjectCode());
+    }
+
+    @Test
+    @Transactional
+    @TestDescription("카탈로그에 반영되지 않은 상품의 기본이율 변경 이력은 호출한 트랜잭션에서 조회")
+    public void getRateScheduleOnCacheMiss() throws Exception {
+        //given
+        Long productId = productService.createProduct(ProductDto.Create.builder()
+                .productCode("130778")
+                .subjectCode(SubjectCode.REGULAR)
+                .name("미반영 보통예금")
+                .basicRate(1.9)
+                .startDate("20191214")
+                .endDate(OBDateUtils.MAX_DATE)
+                .build());
+        assertNull(productCatalog.getById(productId)); //커밋 전이므로 카탈로그 미반영
+
+        //when
+        RateSchedule rateSchedule = productCatalog.getRateSchedule(productId);
+
+        //then
+        assertNotNull(rateSchedule);
+        assertEquals(1.9, rateSchedule.rateAt("20200101"), 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @TestDescription("존재하지 않는 상품의 기본이율 변경 이력 조회")
+    public void getRateScheduleOfUnknownProduct() throws Exception {
+        //when
+        productCatalog.getRateSchedule(Long.MAX_VALUE);
+
+        //then
+        fail("존재하지 않는 상품 오류");
+    }
+}
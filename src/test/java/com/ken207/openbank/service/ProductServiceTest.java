@@ -3,6 +3,7 @@ package com.ken207.openbank.service;
 import com.ken207.openbank.common.OBDateUtils;
 import com.ken207.openbank.common.TestDescription;
 import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.Rate;
 import com.ken207.openbank.domain.enums.SubjectCode;
 import com.ken207.openbank.dto.ProductDto;
 import com.ken207.openbank.exception.BizRuntimeException;
@@ -93,4 +94,53 @@ public class ProductServiceTest {
         fail("오류 발생 해야함.");
     }
 
-}
\ No newline at end of file
+    @Test
+    @TestDescription("기본이율 변경 시 이전 이율 종료 및 변경 이력 추가 테스트")
+    public void changeRate() throws Exception {
+        //given
+        String productCode = "130089";
+        productService.createProduct(ProductDto.Create.builder()
+                .name("온라인 보통예금")
+                .productCode(productCode)
+                .subjectCode(SubjectCode.REGULAR)
+                .basicRate(1.2)
+                .startDate("20190101")
+                .endDate(OBDateUtils.MAX_DATE)
+                .build());
+
+        //when
+        Long rateId = productService.changeRate(productCode, "20190701", 1.5);
+        Product product = productRepository.findByProductCode(productCode);
+
+        //then
+        assertEquals(2, product.getRates().size());
+        Rate firstRate = product.getRates().get(0);
+        Rate lastRate = product.getRates().get(1);
+        assertEquals("20190630", firstRate.getEndDate());
+        assertEquals("20190701", lastRate.getStartDate());
+        assertEquals(OBDateUtils.MAX_DATE, lastRate.getEndDate());
+        assertEquals(rateId, lastRate.getId());
+        assertEquals(1.5, product.getBasicRate().getRate(), 0);
+    }
+
+    @Test(expected = BizRuntimeException.class)
+    @TestDescription("기본이율 변경일이 현재 이율 시작일 이전이면 오류")
+    public void changeRate_DateError() throws Exception {
+        //given
+        String productCode = "130090";
+        productService.createProduct(ProductDto.Create.builder()
+                .name("온라인 보통예금")
+                .productCode(productCode)
+                .subjectCode(SubjectCode.REGULAR)
+                .basicRate(1.2)
+                .startDate("20190101")
+                .endDate(OBDateUtils.MAX_DATE)
+                .build());
+
+        //when
+        productService.changeRate(productCode, "20190101", 1.5);
+
+        //then
+        fail("오류 발생 해야함.");
+    }
+}
@@ -0,0 +1,168 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.common.KeysetPage;
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.domain.enums.TradeCd;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.ProductRepository;
+import com.ken207.openbank.repository.TradeRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class TradeArchiveServiceTest {
+
+    @Autowired
+    TradeArchiveService tradeArchiveService;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    EndOfDayService endOfDayService;
+
+    @Autowired
+    JournalOutboxDispatcher journalOutboxDispatcher;
+
+    @Autowired
+    BusinessDateService businessDateService;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TradeRepository tradeRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final String PRODUCT_CODE = "130999";
+
+    @Before
+    public void setup() {
+        Product product = productRepository.findByProductCode(PRODUCT_CODE);
+
+        if ( product == null ) {
+            ProductDto.Create createProductDto = ProductDto.Create.builder()
+                    .productCode(PRODUCT_CODE)
+                    .subjectCode(SubjectCode.REGULAR)
+                    .name("온라인 보통예금")
+                    .basicRate(1.2)
+                    .startDate("20191214")
+                    .endDate(OBDateUtils.MAX_DATE)
+                    .build();
+            productService.createProduct(createProductDto);
+        }
+    }
+
+    /**
+     * 다른 테스트의 거래 처리일자가 오늘이 되도록 영업일자 복구
+     */
+    @After
+    public void restoreBusinessDate() {
+        jdbcTemplate.update("update business_date set bz_date = ?, last_closed_date = null", OBDateUtils.getToday());
+        businessDateService.refresh();
+    }
+
+    @Test
+    @TestDescription("이자계산이 끝난 거래를 보관해도 거래내역 조회 결과가 같음")
+    public void archive() throws Exception {
+        //given
+        Account account = openAccount();
+        String accountNum = account.getAccountNum();
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000000).build());
+        accountService.withdraw(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190301").amount(300000).build());
+        accountService.payInterest(accountNum, "20190331", "20190401");
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190601").amount(50000).build());
+        journalOutboxDispatcher.dispatchPending();
+        endOfDayService.run();
+        List<TradeDto.Response> expected = tradeArchiveService.findResponsesAfterSrno(account.getId(), 0, 100);
+
+        //when
+        long archived = tradeArchiveService.archive();
+
+        //then
+        // 신규, 입금, 출금은 보관. 이자지급(이자 참조)과 최종이자계산일자 이후 입금은 남음
+        assertTrue(archived >= 3);
+        assertEquals(3, tradeArchiveService.countArchived(account.getId()));
+        assertEquals(2, tradeRepository.countByAccountId(account.getId()));
+        assertEquals(5, tradeArchiveService.countByAccountId(account.getId()));
+
+        List<TradeDto.Response> actual = tradeArchiveService.findResponsesAfterSrno(account.getId(), 0, 100);
+        assertEquals(srnos(expected), srnos(actual));
+        assertEquals(TradeCd.WITHDRAW, actual.get(2).getTradeCd());
+        assertEquals(1000000, actual.get(2).getBlncBefore());
+        assertEquals(700000, actual.get(2).getBlncAfter());
+        assertEquals("20190301", actual.get(2).getTradeDate());
+
+        KeysetPage<TradeDto.Response> keysetPage = tradeArchiveService.findResponsesByAccountId(account.getId(), null, 2);
+        assertEquals(2, keysetPage.getContent().size());
+        assertEquals(srnos(expected.subList(0, 2)), srnos(keysetPage.getContent()));
+
+        List<TradeDto.Response> before = tradeArchiveService.findResponsesBeforeSrno(account.getId(), Long.MAX_VALUE, 3);
+        assertEquals(3, before.stream().map(TradeDto.Response::getSrno).distinct().count());
+        assertEquals(5, before.get(0).getSrno());
+        assertEquals(3, before.get(2).getSrno());
+
+        Page<TradeDto.Response> page = tradeArchiveService.findResponsesByAccountId(account.getId(), PageRequest.of(1, 2, Sort.by("srno")));
+        assertEquals(5, page.getTotalElements());
+        assertEquals(srnos(expected.subList(2, 4)), srnos(page.getContent()));
+    }
+
+    @Test
+    @TestDescription("마감된 영업일자가 없으면 보관하지 않음")
+    public void archiveWithoutClosedDate() {
+        //given
+        restoreBusinessDate();
+        assertNull(businessDateService.getLastClosedDate());
+
+        //when
+        long archived = tradeArchiveService.archive();
+
+        //then
+        assertEquals(0, archived);
+    }
+
+    private Account openAccount() {
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20190101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        return accountRepository.findById(accountId).get();
+    }
+
+    private List<Long> srnos(List<TradeDto.Response> trades) {
+        return trades.stream().map(TradeDto.Response::getSrno).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,196 @@
+package com.ken207.openbank.service;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 거래내역 월별 파티션. PostgreSQL(test 프로파일) 에서 실행.
+ */
+@Slf4j
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "app-partition.trade.enabled=true",
+        "app-archive.trade.dir=build/trade-partition-archive"
+})
+@ActiveProfiles("test")
+public class TradePartitionManagerTest {
+
+    private static final int HISTORY_ROWS_PER_MONTH = 10000;
+
+    @Autowired
+    TradePartitionManager tradePartitionManager;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final String PRODUCT_CODE = "130999";
+
+    @Before
+    public void setup() {
+        Product product = productRepository.findByProductCode(PRODUCT_CODE);
+
+        if ( product == null ) {
+            ProductDto.Create createProductDto = ProductDto.Create.builder()
+                    .productCode(PRODUCT_CODE)
+                    .subjectCode(SubjectCode.REGULAR)
+                    .name("온라인 보통예금")
+                    .basicRate(1.2)
+                    .startDate("19900101")
+                    .endDate(OBDateUtils.MAX_DATE)
+                    .build();
+            productService.createProduct(createProductDto);
+        }
+    }
+
+    @Test
+    @TestDescription("이번 달 부터 months-ahead 개월 후 까지 월 파티션이 생성됨")
+    public void createFuturePartitions() throws Exception {
+        //when
+        List<String> partitions = tradePartitionManager.getPartitions();
+
+        //then
+        assertTrue(partitions.contains(TradePartitionManager.partitionName(YearMonth.now())));
+        assertTrue(partitions.contains(TradePartitionManager.partitionName(YearMonth.now().plusMonths(3))));
+    }
+
+    @Test
+    @TestDescription("거래일자 조건 조회는 해당 월 파티션만 읽고, 이력이 늘어도 조회시간이 유지됨")
+    public void partitionPruning() throws Exception {
+        //given
+        tradePartitionManager.createPartition(YearMonth.of(2003, 1));
+        Long accountId = openAccount("20030101");
+        String sql = "select * from trade where account_id = " + accountId
+                + " and trade_date > '20030101' and trade_date < '20030201' order by srno desc";
+        long beforeNanos = measure(sql);
+
+        //when
+        for (int month = 1; month <= 36; month++) {
+            YearMonth yearMonth = YearMonth.of(2000, 1).plusMonths(month - 1);
+            tradePartitionManager.createPartition(yearMonth);
+            insertHistory(accountId, yearMonth, month);
+        }
+        jdbcTemplate.execute("analyze trade");
+        long afterNanos = measure(sql);
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+
+        //then
+        log.info("pruned query. history 0 rows : {} us, history {} rows : {} us\n{}",
+                beforeNanos / 1000, HISTORY_ROWS_PER_MONTH * 36, afterNanos / 1000, plan);
+        assertTrue(plan, plan.contains("trade_p200301"));
+        assertFalse(plan, plan.contains("trade_p200201"));
+        assertFalse(plan, plan.contains(TradePartitionManager.DEFAULT_PARTITION));
+    }
+
+    @Test
+    @TestDescription("이전 월 파티션은 보관 대상이 아닌 거래가 남아 있으면 유지하고, 비어 있으면 삭제")
+    public void dropArchivedPartitions() throws Exception {
+        //given
+        tradePartitionManager.createPartition(YearMonth.of(1998, 1));
+        tradePartitionManager.createPartition(YearMonth.of(1999, 1));
+        Long accountId = openAccount("19990101"); //이자계산 전이므로 보관 대상 아님
+
+        //when
+        List<String> dropped = tradePartitionManager.dropArchivedPartitions(YearMonth.of(1999, 2));
+
+        //then
+        assertTrue(dropped.contains("trade_p199801"));
+        assertFalse(dropped.contains("trade_p199901"));
+        assertTrue(tradePartitionManager.getPartitions().contains("trade_p199901"));
+        assertEquals(Integer.valueOf(2), jdbcTemplate.queryForObject(
+                "select count(*) from trade where account_id = ?", Integer.class, accountId));
+    }
+
+    @Test
+    @TestDescription("계좌별 거래일련번호는 거래일자(파티션)가 달라도 중복 입력할 수 없음")
+    public void uniqueSrnoAcrossPartitions() throws Exception {
+        //given
+        tradePartitionManager.createPartition(YearMonth.of(2001, 1));
+        tradePartitionManager.createPartition(YearMonth.of(2001, 2));
+        Long accountId = openAccount("20010101");
+
+        //when
+        try {
+            jdbcTemplate.update("insert into trade (trade_id, created_date, updated_date, srno, trade_date, bz_date,"
+                    + " amount, blnc_before, blnc_after, trade_cd, account_id)"
+                    + " values (-1, now(), now(), 1, '20010201', '20010201', 1000, 0, 1000, 1, ?)", accountId);
+            fail("다른 파티션의 거래일련번호 중복 입력");
+        } catch (DataIntegrityViolationException e) {
+            //then
+            assertEquals(Integer.valueOf(2), jdbcTemplate.queryForObject(
+                    "select count(*) from trade where account_id = ?", Integer.class, accountId));
+        }
+    }
+
+    private Long openAccount(String regDate) {
+        Long accountId = accountService.openRegularAccount(AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate(regDate)
+                .taxationCode(TaxationCode.REGULAR)
+                .build());
+        String accountNum = accountRepository.findById(accountId).get().getAccountNum();
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder()
+                .tradeDate(OBDateUtils.addDays(regDate, 14))
+                .amount(10000)
+                .build());
+        return accountId;
+    }
+
+    /**
+     * 같은 계좌의 다른 월 거래 이력. 시퀀스와 겹치지 않도록 음수 id 를 사용하고, 거래일련번호는 월마다 다른 범위를 사용한다.
+     */
+    private void insertHistory(Long accountId, YearMonth month, int monthSeq) {
+        String prefix = month.toString().replace("-", "");
+        jdbcTemplate.update("insert into trade (trade_id, created_date, updated_date, srno, trade_date, bz_date,"
+                        + " amount, blnc_before, blnc_after, trade_cd, account_id)"
+                        + " select -(? * 100000 + g), now(), now(), ? * 100000 + g, ? || lpad((g % 28 + 1)::text, 2, '0'), ? || '01',"
+                        + " 1000, 0, 1000, 1, ?"
+                        + " from generate_series(1, ?) g",
+                monthSeq, monthSeq, prefix, prefix, accountId, HISTORY_ROWS_PER_MONTH);
+    }
+
+    private long measure(String sql) {
+        for (int i = 0; i < 20; i++) {
+            jdbcTemplate.queryForList(sql);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            jdbcTemplate.queryForList(sql);
+        }
+        return (System.nanoTime() - start) / 100;
+    }
+}
@@ -0,0 +1,125 @@
+package com.ken207.openbank.service.engine;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.ProductRepository;
+import com.ken207.openbank.repository.TradeRepository;
+import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.*;
+
+/**
+ * 샤드 장애는 컨텍스트가 끝날 때까지 유지되므로 별도 컨텍스트, 별도 저널 디렉토리에서 확인
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "app-engine.enabled=true",
+        "app-engine.shards=1",
+        "app-engine.journal-dir=build/engine-journal-failure-test/${random.uuid}",
+        "app-engine.checkpoint-interval=1h"
+})
+public class AccountEngineFailureTest {
+
+    @Autowired
+    AccountEngine accountEngine;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TradeRepository tradeRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private final String PRODUCT_CODE = "130999";
+
+    @Before
+    public void setup() {
+        Product product = productRepository.findByProductCode(PRODUCT_CODE);
+
+        if ( product == null ) {
+            ProductDto.Create createProductDto = ProductDto.Create.builder()
+                    .productCode(PRODUCT_CODE)
+                    .subjectCode(SubjectCode.REGULAR)
+                    .name("온라인 보통예금")
+                    .basicRate(1.2)
+                    .startDate("20191214")
+                    .endDate(OBDateUtils.MAX_DATE)
+                    .build();
+            productService.createProduct(createProductDto);
+        }
+    }
+
+    @Test
+    @TestDescription("원장 반영 결과가 엔진과 다르면 반영하지 않고 샤드를 장애 처리")
+    public void checkpointMismatch() throws Exception {
+        //given
+        Account account = openAccount();
+        String accountNum = account.getAccountNum();
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000).build());
+
+        // 엔진 밖에서 원장 변경
+        new TransactionTemplate(transactionManager).execute(status -> {
+            Account ledger = accountRepository.findForTradeByAccountNum(accountNum);
+            ledger.setBzDate("20190101");
+            ledger.setReckonDt("20190101");
+            return tradeRepository.save(ledger.deposit(500));
+        });
+
+        //when
+        accountEngine.checkpoint();
+
+        //then
+        Account ledger = accountRepository.findById(account.getId()).get();
+        assertEquals(500, ledger.getBalance());
+        assertEquals(2, tradeRepository.countByAccountId(account.getId()));
+        assertEquals(1, meterRegistry.get("openbank.engine.shard.failed").tag("shard", "0").gauge().value(), 0);
+        try {
+            accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000).build());
+            fail("장애 샤드 거래 오류");
+        } catch (IllegalStateException e) {
+            assertEquals(500, accountRepository.findById(account.getId()).get().getBalance());
+        }
+    }
+
+    private Account openAccount() {
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20190101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        return accountRepository.findById(accountId).get();
+    }
+}
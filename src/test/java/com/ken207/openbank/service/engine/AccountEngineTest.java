@@ -0,0 +1,240 @@
+package com.ken207.openbank.service.engine;
+
+import com.ken207.openbank.common.OBDateUtils;
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.Account;
+import com.ken207.openbank.domain.Product;
+import com.ken207.openbank.domain.Trade;
+import com.ken207.openbank.domain.enums.SubjectCode;
+import com.ken207.openbank.domain.enums.TaxationCode;
+import com.ken207.openbank.dto.AccountDto;
+import com.ken207.openbank.dto.ProductDto;
+import com.ken207.openbank.dto.TradeDto;
+import com.ken207.openbank.exception.BizRuntimeException;
+import com.ken207.openbank.repository.AccountRepository;
+import com.ken207.openbank.repository.ProductRepository;
+import com.ken207.openbank.repository.TradeRepository;
+import com.ken207.openbank.service.AccountService;
+import com.ken207.openbank.service.ProductService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "app-engine.enabled=true",
+        "app-engine.shards=2",
+        "app-engine.journal-dir=build/engine-journal-test",
+        "app-engine.checkpoint-interval=1h"
+})
+public class AccountEngineTest {
+
+    @Autowired
+    AccountEngine accountEngine;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TradeRepository tradeRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final String PRODUCT_CODE = "130999";
+
+    @Before
+    public void setup() {
+        Product product = productRepository.findByProductCode(PRODUCT_CODE);
+
+        if ( product == null ) {
+            ProductDto.Create createProductDto = ProductDto.Create.builder()
+                    .productCode(PRODUCT_CODE)
+                    .subjectCode(SubjectCode.REGULAR)
+                    .name("온라인 보통예금")
+                    .basicRate(1.2)
+                    .startDate("20191214")
+                    .endDate(OBDateUtils.MAX_DATE)
+                    .build();
+            productService.createProduct(createProductDto);
+        }
+    }
+
+    @Test
+    @TestDescription("엔진에서 처리한 입출금이 체크포인트 후 원장에 반영됨")
+    public void checkpoint() throws Exception {
+        //given
+        Account account = openAccount();
+        String accountNum = account.getAccountNum();
+
+        //when
+        Trade deposit = accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(10000).build());
+        Trade withdraw = accountService.withdraw(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190102").amount(3000).build());
+        long balanceBeforeCheckpoint = accountRepository.findById(account.getId()).get().getBalance();
+        int applied = accountEngine.checkpoint();
+
+        //then
+        assertTrue(accountEngine.handles(accountNum));
+        assertEquals(2, deposit.getSrno());
+        assertEquals(10000, deposit.getBlncAfter());
+        assertEquals(3, withdraw.getSrno());
+        assertEquals(7000, withdraw.getBlncAfter());
+        assertEquals(0, balanceBeforeCheckpoint);
+        assertTrue(applied >= 2);
+
+        Account ledger = accountRepository.findById(account.getId()).get();
+        assertEquals(7000, ledger.getBalance());
+        assertEquals(3, ledger.getLastTrnSrno());
+        assertEquals("20190102", ledger.getLastTradeDate());
+        assertEquals(3, tradeRepository.countByAccountId(account.getId()));
+    }
+
+    @Test
+    @TestDescription("한 계좌에 동시 입금해도 거래일련번호가 중복되지 않고 잔액이 맞음")
+    public void concurrentDeposit() throws Exception {
+        //given
+        Account account = openAccount();
+        String accountNum = account.getAccountNum();
+        int threads = 8;
+        int tradesPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Set<Long> srnos = ConcurrentHashMap.newKeySet();
+
+        //when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < tradesPerThread; j++) {
+                    Trade trade = accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(100).build());
+                    srnos.add(trade.getSrno());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        accountEngine.checkpoint();
+
+        //then
+        assertEquals(threads * tradesPerThread, srnos.size());
+        Account ledger = accountRepository.findById(account.getId()).get();
+        assertEquals(threads * tradesPerThread * 100L, ledger.getBalance());
+        assertEquals(threads * tradesPerThread + 1, ledger.getLastTrnSrno());
+    }
+
+    @Test
+    @TestDescription("잔액 부족 출금은 저널에 기록하지 않고 오류")
+    public void withdrawOverBalance() throws Exception {
+        //given
+        Account account = openAccount();
+        String accountNum = account.getAccountNum();
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000).build());
+
+        //when
+        try {
+            accountService.withdraw(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(5000).build());
+            fail("잔액 이상 출금 오류");
+        } catch (BizRuntimeException e) {
+            //then
+            accountEngine.checkpoint();
+            assertEquals(1000, accountRepository.findById(account.getId()).get().getBalance());
+            assertEquals(2, tradeRepository.countByAccountId(account.getId()));
+        }
+    }
+
+    @Test
+    @TestDescription("release 후 원장 거래(이자지급)와 엔진 거래가 이어짐")
+    public void release() throws Exception {
+        //given
+        Account account = openAccount();
+        String accountNum = account.getAccountNum();
+        accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000000).build());
+
+        //when
+        Trade interest = accountService.payInterest(accountNum, "20190331", "20190401");
+        Trade deposit = accountService.deposit(accountNum, TradeDto.RequestDeposit.builder().tradeDate("20190402").amount(1000).build());
+        accountEngine.checkpoint();
+
+        //then
+        assertEquals(3, interest.getSrno());
+        assertEquals(4, deposit.getSrno());
+        assertEquals(interest.getBlncAfter() + 1000, deposit.getBlncAfter());
+        Account ledger = accountRepository.findById(account.getId()).get();
+        assertEquals(deposit.getBlncAfter(), ledger.getBalance());
+        assertEquals("20190331", ledger.getLastIntsDt());
+    }
+
+    @Test
+    @TestDescription("release 한 계좌는 트랜잭션이 끝날 때까지 엔진 거래를 거절")
+    public void releasedAccountBlocked() throws Exception {
+        //given
+        Account account = openAccount();
+        String accountNum = account.getAccountNum();
+        TradeDto.RequestDeposit requestDeposit = TradeDto.RequestDeposit.builder().tradeDate("20190101").amount(1000).build();
+        accountService.deposit(accountNum, requestDeposit);
+
+        //when
+        BizRuntimeException blocked = new TransactionTemplate(transactionManager).execute(status -> {
+            accountEngine.release(accountNum);
+            try {
+                accountEngine.deposit(accountNum, requestDeposit);
+                return null;
+            } catch (BizRuntimeException e) {
+                return e;
+            }
+        });
+        Trade deposit = accountService.deposit(accountNum, requestDeposit);
+        accountEngine.checkpoint();
+
+        //then
+        assertNotNull(blocked);
+        assertEquals(3, deposit.getSrno());
+        assertEquals(2000, deposit.getBlncAfter());
+        assertEquals(2000, accountRepository.findById(account.getId()).get().getBalance());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @TestDescription("트랜잭션 밖에서 release 하면 오류")
+    public void releaseOutsideTransaction() throws Exception {
+        //given
+        Account account = openAccount();
+
+        //when
+        accountEngine.release(account.getAccountNum());
+    }
+
+    private Account openAccount() {
+        AccountDto.RequestOpen accountRequestOpen = AccountDto.RequestOpen.builder()
+                .productCode(PRODUCT_CODE)
+                .regDate("20190101")
+                .taxationCode(TaxationCode.REGULAR)
+                .build();
+        Long accountId = accountService.openRegularAccount(accountRequestOpen);
+        return accountRepository.findById(accountId).get();
+    }
+}
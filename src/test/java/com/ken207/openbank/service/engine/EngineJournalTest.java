@@ -0,0 +1,166 @@
+package com.ken207.openbank.service.engine;
+
+import com.ken207.openbank.common.TestDescription;
+import com.ken207.openbank.domain.enums.TradeCd;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EngineJournalTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    @TestDescription("체크포인트 이후 기록만 복구")
+    public void recoverAfterCheckpoint() throws Exception {
+        //given
+        Path dir = temporaryFolder.getRoot().toPath();
+        try (EngineJournal journal = new EngineJournal(dir, 0)) {
+            JournalRecord first = record(2);
+            journal.append(first);
+            journal.append(record(3));
+            journal.append(record(4));
+            journal.flush();
+            journal.checkpoint(first.getEndPosition());
+        }
+
+        //when
+        List<JournalRecord> records;
+        try (EngineJournal journal = new EngineJournal(dir, 0)) {
+            records = journal.recover();
+        }
+
+        //then
+        assertEquals(2, records.size());
+        JournalRecord record = records.get(0);
+        assertEquals("01012345678", record.getAccountNum());
+        assertEquals(TradeCd.DEPOSIT, record.getTradeCd());
+        assertEquals("20190101", record.getTradeDate());
+        assertEquals("20190102", record.getBzDate());
+        assertEquals(1000, record.getAmount());
+        assertEquals(3, record.getSrno());
+        assertEquals(3000, record.getBlncAfter());
+        assertEquals(4, records.get(1).getSrno());
+    }
+
+    @Test
+    @TestDescription("잘린 마지막 기록은 버리고 이후 기록을 이어서 씀")
+    public void truncatedTail() throws Exception {
+        //given
+        Path dir = temporaryFolder.getRoot().toPath();
+        Path file;
+        try (EngineJournal journal = new EngineJournal(dir, 1)) {
+            journal.append(record(2));
+            journal.append(record(3));
+            journal.flush();
+            file = journal.getFile();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        //when
+        try (EngineJournal journal = new EngineJournal(dir, 1)) {
+            assertEquals(1, journal.recover().size());
+            journal.append(record(3));
+            journal.flush();
+        }
+        List<JournalRecord> records;
+        try (EngineJournal journal = new EngineJournal(dir, 1)) {
+            records = journal.recover();
+        }
+
+        //then
+        assertEquals(2, records.size());
+        assertEquals(3, records.get(1).getSrno());
+    }
+
+    @Test
+    @TestDescription("reset 후에는 복구할 기록이 없음")
+    public void reset() throws Exception {
+        //given
+        Path dir = temporaryFolder.getRoot().toPath();
+        try (EngineJournal journal = new EngineJournal(dir, 2)) {
+            journal.append(record(2));
+            journal.flush();
+
+            //when
+            journal.reset();
+        }
+
+        //then
+        try (EngineJournal journal = new EngineJournal(dir, 2)) {
+            assertTrue(journal.recover().isEmpty());
+        }
+    }
+
+    @Test
+    @TestDescription("체크포인트가 기록 끝까지 반영되면 저널을 비우고 이어서 씀")
+    public void truncateAfterCheckpoint() throws Exception {
+        //given
+        Path dir = temporaryFolder.getRoot().toPath();
+        try (EngineJournal journal = new EngineJournal(dir, 3)) {
+            JournalRecord first = record(2);
+            JournalRecord second = record(3);
+            journal.append(first);
+            journal.append(second);
+            journal.flush();
+
+            //when
+            boolean early = journal.truncate(first.getEndPosition());
+            journal.checkpoint(second.getEndPosition());
+            boolean truncated = journal.truncate(second.getEndPosition());
+            journal.append(record(4));
+            journal.flush();
+
+            //then
+            assertFalse(early);
+            assertTrue(truncated);
+        }
+        List<JournalRecord> records;
+        try (EngineJournal journal = new EngineJournal(dir, 3)) {
+            records = journal.recover();
+        }
+        assertEquals(1, records.size());
+        assertEquals(4, records.get(0).getSrno());
+    }
+
+    @Test
+    @TestDescription("flush 실패한 기록은 복구되지 않음")
+    public void flushFailure() throws Exception {
+        //given
+        Path dir = temporaryFolder.getRoot().toPath();
+        EngineJournal journal = new EngineJournal(dir, 4);
+        journal.append(record(2));
+        journal.flush();
+        journal.append(record(3));
+        journal.close();
+
+        //when
+        try {
+            journal.flush();
+            fail("닫힌 저널 쓰기 오류");
+        } catch (IOException e) {
+            //then
+            assertTrue(journal.isBroken());
+        }
+        try (EngineJournal reopened = new EngineJournal(dir, 4)) {
+            List<JournalRecord> records = reopened.recover();
+            assertEquals(1, records.size());
+            assertEquals(2, records.get(0).getSrno());
+        }
+    }
+
+    private JournalRecord record(long srno) {
+        return new JournalRecord("01012345678", TradeCd.DEPOSIT, "20190101", "20190102", 1000, srno, srno * 1000);
+    }
+}